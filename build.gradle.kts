@@ -74,6 +74,7 @@ val allPublishableModules = setOf(
     ":mediainterface-windows",
     ":mediainterface-macos",
     ":mediainterface-all",
+    ":mediainterface-server",
     ":examples"
 )
 
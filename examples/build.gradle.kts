@@ -29,7 +29,9 @@ val exampleMainClasses = mapOf(
     "simpleMediaLogger" to "org.endlesssource.mediainterface.examples.SimpleMediaLoggerExample",
     "eventDrivenMedia" to "org.endlesssource.mediainterface.examples.EventDrivenMediaExample",
     "mediaControlCli" to "org.endlesssource.mediainterface.examples.MediaControlCliExample",
-    "swingNowPlaying" to "org.endlesssource.mediainterface.examples.SwingNowPlayingExample"
+    "swingNowPlaying" to "org.endlesssource.mediainterface.examples.SwingNowPlayingExample",
+    "mediaDoctor" to "org.endlesssource.mediainterface.examples.MediaDoctor",
+    "mediaFollow" to "org.endlesssource.mediainterface.examples.MediaFollow"
 )
 
 val exampleJarTasks = exampleMainClasses.map { (name, mainClassName) ->
@@ -79,6 +81,22 @@ tasks.register<JavaExec>("runSwingGuiExample") {
     mainClass.set("org.endlesssource.mediainterface.examples.SwingNowPlayingExample")
 }
 
+tasks.register<JavaExec>("runMediaDoctor") {
+    group = "application"
+    description = "Profile each player's responsiveness and cost and recommend options."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.endlesssource.mediainterface.examples.MediaDoctor")
+    (findProperty("doctorArgs") as String?)?.let { args(it.split(" ")) }
+}
+
+tasks.register<JavaExec>("runMediaFollow") {
+    group = "application"
+    description = "Stream session changes to stdout as JSON Lines."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.endlesssource.mediainterface.examples.MediaFollow")
+    (findProperty("followArgs") as String?)?.let { args(it.split(" ")) }
+}
+
 publishing {
     publications {
         val publication = (findByName("mavenJava") as? org.gradle.api.publish.maven.MavenPublication)
@@ -88,6 +106,8 @@ publishing {
             artifact(tasks.named("eventDrivenMediaShadowJar"))
             artifact(tasks.named("mediaControlCliShadowJar"))
             artifact(tasks.named("swingNowPlayingShadowJar"))
+            artifact(tasks.named("mediaDoctorShadowJar"))
+            artifact(tasks.named("mediaFollowShadowJar"))
         }
     }
 }
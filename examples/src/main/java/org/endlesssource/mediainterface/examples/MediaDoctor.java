@@ -0,0 +1,601 @@
+package org.endlesssource.mediainterface.examples;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.endlesssource.mediainterface.PlatformSupport;
+import org.endlesssource.mediainterface.StartupTimings;
+import org.endlesssource.mediainterface.SystemMediaFactory;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.SessionHealth;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.endlesssource.mediainterface.jfr.ArtworkDecodeEvent;
+import org.endlesssource.mediainterface.jfr.DbusCallEvent;
+import org.endlesssource.mediainterface.jfr.ListenerDispatchEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.NativeCallEvent;
+import org.endlesssource.mediainterface.jfr.ProcessLaunchEvent;
+import org.endlesssource.mediainterface.jfr.SessionRefreshEvent;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diagnoses how responsive and how costly each media player is under a given set of options.
+ * <p>
+ * Records the library's Flight Recorder events for a while and reports, per player, how long each property read,
+ * method call, native call or adapter process took, which of them failed or timed out, the steady-state rate of
+ * calls and the CPU the process used. It ends with recommended option changes. Pass {@code --json} for
+ * machine-readable output.
+ */
+public final class MediaDoctor {
+    private static final Duration DEFAULT_SAMPLE = Duration.ofSeconds(10);
+    // Lets discovery and the first refreshes settle before measuring the steady state
+    private static final Duration WARM_UP = Duration.ofSeconds(2);
+    private static final Duration FLUSH_WAIT = Duration.ofSeconds(5);
+    private static final double BUSY_CALLS_PER_SECOND = 20;
+    private static final double BUSY_DISPATCHES_PER_SECOND = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings;
+        try {
+            settings = Settings.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+            return;
+        }
+        if (settings == null) {
+            printUsage(System.out);
+            return;
+        }
+
+        PlatformSupport support = SystemMediaFactory.getCurrentPlatformSupport();
+        Report report = support.available()
+                ? diagnose(settings, support)
+                : new Report(settings, support, Optional.empty(), Duration.ZERO, -1, List.of(), null);
+        System.out.println(settings.json() ? Json.write(report.toJson()) : report.toText());
+        if (!support.available()) {
+            System.exit(1);
+        }
+    }
+
+    private static Report diagnose(Settings settings, PlatformSupport support) throws InterruptedException {
+        List<PlayerStats> players;
+        CallStats artwork;
+        Duration window;
+        long cpuNanos;
+        try (Sampler sampler = Sampler.start()) {
+            List<SessionInfo> sessions = new ArrayList<>();
+            try (SystemMediaInterface media = SystemMediaFactory.createSystemInterface(settings.options())) {
+                Thread.sleep(WARM_UP.toMillis());
+                long cpuBefore = processCpuNanos();
+                long startNanos = System.nanoTime();
+                sampler.openWindow(Instant.now());
+                Thread.sleep(settings.sample().toMillis());
+                sampler.closeWindow(Instant.now());
+                window = Duration.ofNanos(System.nanoTime() - startNanos);
+                cpuNanos = cpuBefore < 0 ? -1 : processCpuNanos() - cpuBefore;
+                for (MediaSession session : media.getAllSessions()) {
+                    sessions.add(new SessionInfo(session.getSessionId(), session.getApplicationName(),
+                            session.getHealth()));
+                }
+            }
+            sampler.awaitFlush();
+            players = sampler.players(sessions);
+            artwork = sampler.artwork();
+        }
+        return new Report(settings, support, SystemMediaFactory.getLastStartupTimings(), window, cpuNanos, players,
+                artwork);
+    }
+
+    /**
+     * @return CPU time used by this process so far, or -1 when the JVM does not tell
+     */
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean sunOs ? sunOs.getProcessCpuTime() : -1;
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: MediaDoctor [options]");
+        out.println("  --seconds N            how long to sample the steady state (default "
+                + DEFAULT_SAMPLE.toSeconds() + ")");
+        out.println("  --update-interval MS   sessionUpdateInterval to diagnose");
+        out.println("  --poll-interval MS     sessionPollInterval to diagnose");
+        out.println("  --call-timeout MS      playerCallTimeout to diagnose");
+        out.println("  --no-events            diagnose with event-driven updates disabled");
+        out.println("  --no-position          diagnose with position updates disabled");
+        out.println("  --json                 print the report as JSON");
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+    }
+
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static double rounded(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static Map<String, Object> object(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private record Settings(Duration sample, boolean json, SystemMediaOptions options) {
+
+        /**
+         * @return null when help was asked for
+         */
+        static Settings parse(String[] args) {
+            Duration sample = DEFAULT_SAMPLE;
+            boolean json = false;
+            SystemMediaOptions options = SystemMediaOptions.defaults();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--help", "-h" -> {
+                        return null;
+                    }
+                    case "--json" -> json = true;
+                    case "--no-events" -> options = options.withEventDrivenEnabled(false);
+                    case "--no-position" -> options = options.withPositionUpdatesEnabled(false);
+                    case "--seconds" -> sample = Duration.ofSeconds(positive(args, ++i, arg));
+                    case "--update-interval" ->
+                            options = options.withSessionUpdateInterval(Duration.ofMillis(positive(args, ++i, arg)));
+                    case "--poll-interval" ->
+                            options = options.withSessionPollInterval(Duration.ofMillis(positive(args, ++i, arg)));
+                    case "--call-timeout" ->
+                            options = options.withPlayerCallTimeout(Duration.ofMillis(positive(args, ++i, arg)));
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return new Settings(sample, json, options);
+        }
+
+        private static long positive(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " needs a value");
+            }
+            try {
+                long value = Long.parseLong(args[index]);
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported below
+            }
+            throw new IllegalArgumentException(option + " needs a positive number, got " + args[index]);
+        }
+    }
+
+    private record SessionInfo(String sessionId, String player, SessionHealth health) {
+    }
+
+    /**
+     * Collects the library's events from a live recording, keeping only those that started inside the window.
+     */
+    private static final class Sampler implements AutoCloseable {
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<String, PlayerStats> players = new LinkedHashMap<>();
+        private final CallStats artwork = new CallStats("artwork", "decode");
+        private volatile Instant windowStart = Instant.MAX;
+        private volatile Instant windowEnd = Instant.MAX;
+        private volatile CountDownLatch flushes;
+
+        static Sampler start() {
+            Sampler sampler = new Sampler();
+            sampler.listen();
+            return sampler;
+        }
+
+        private void listen() {
+            for (Class<? extends MediaEvent> type : List.of(SessionRefreshEvent.class, DbusCallEvent.class,
+                    NativeCallEvent.class, ProcessLaunchEvent.class, ListenerDispatchEvent.class,
+                    ArtworkDecodeEvent.class)) {
+                stream.enable(type).withThreshold(Duration.ZERO).withoutStackTrace();
+            }
+            stream.onEvent(this::onEvent);
+            stream.onFlush(() -> {
+                CountDownLatch latch = flushes;
+                if (latch != null) {
+                    latch.countDown();
+                }
+            });
+            stream.startAsync();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+
+        void openWindow(Instant start) {
+            windowStart = start;
+        }
+
+        void closeWindow(Instant end) {
+            windowEnd = end;
+        }
+
+        /**
+         * Events reach the stream in chunks; two flushes after the window closed mean all of its events arrived.
+         */
+        void awaitFlush() throws InterruptedException {
+            CountDownLatch latch = new CountDownLatch(2);
+            flushes = latch;
+            latch.await(FLUSH_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void onEvent(RecordedEvent event) {
+            Instant at = event.getStartTime();
+            if (at.isBefore(windowStart) || at.isAfter(windowEnd)) {
+                return;
+            }
+            String type = event.getEventType().getName();
+            type = type.substring(type.lastIndexOf('.') + 1);
+            long nanos = event.getDuration().toNanos();
+            String outcome = event.getString("outcome");
+            synchronized (players) {
+                if (type.equals("ArtworkDecode")) {
+                    artwork.add(nanos, outcome);
+                    return;
+                }
+                String sessionId = event.getString("sessionId");
+                if (sessionId != null) {
+                    players.computeIfAbsent(sessionId, PlayerStats::new).observe(type, event, nanos, outcome);
+                }
+            }
+        }
+
+        /**
+         * @return stats of every session seen, whether still present or gone during the window
+         */
+        List<PlayerStats> players(List<SessionInfo> sessions) {
+            synchronized (players) {
+                List<PlayerStats> result = new ArrayList<>();
+                for (SessionInfo session : sessions) {
+                    PlayerStats stats = players.computeIfAbsent(session.sessionId(), PlayerStats::new);
+                    stats.player = session.player();
+                    stats.health = session.health();
+                    result.add(stats);
+                }
+                players.values().stream().filter(stats -> !result.contains(stats)).forEach(result::add);
+                return result;
+            }
+        }
+
+        CallStats artwork() {
+            synchronized (players) {
+                return artwork.count == 0 ? null : artwork;
+            }
+        }
+    }
+
+    private static final class CallStats {
+        private final String kind;
+        private final String name;
+        private long count;
+        private long failures;
+        private long timeouts;
+        private long totalNanos;
+        private long maxNanos;
+
+        CallStats(String kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        void add(long nanos, String outcome) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (MediaEvent.FAILED.equals(outcome)) {
+                failures++;
+            } else if (MediaEvent.TIMEOUT.equals(outcome)) {
+                timeouts++;
+            }
+        }
+
+        long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        String toText() {
+            return String.format(Locale.ROOT, "%-8s %-28s %6d calls  mean %9s  max %9s%s", kind, name, count,
+                    millis(meanNanos()), millis(maxNanos), outcomes());
+        }
+
+        private String outcomes() {
+            String failed = failures == 0 ? "" : "  " + failures + " failed";
+            return timeouts == 0 ? failed : failed + "  " + timeouts + " timed out";
+        }
+
+        Map<String, Object> toJson() {
+            return object("kind", kind, "name", name, "count", count,
+                    "meanMs", rounded(meanNanos() / 1_000_000.0), "maxMs", rounded(maxNanos / 1_000_000.0),
+                    "failures", failures, "timeouts", timeouts);
+        }
+    }
+
+    private static final class PlayerStats {
+        private final String sessionId;
+        private final CallStats refreshes = new CallStats("refresh", "refresh");
+        private final CallStats dispatches = new CallStats("dispatch", "listeners");
+        private final Map<String, CallStats> calls = new LinkedHashMap<>();
+        private long playerCalls;
+        private String player;
+        // Null when the session disappeared during the window
+        private SessionHealth health;
+
+        PlayerStats(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        void observe(String type, RecordedEvent event, long nanos, String outcome) {
+            String eventPlayer = event.getString("player");
+            if (eventPlayer != null) {
+                player = eventPlayer;
+            }
+            switch (type) {
+                case "SessionRefresh" -> {
+                    refreshes.add(nanos, outcome);
+                    playerCalls += event.getLong("playerCalls");
+                }
+                case "ListenerDispatch" -> dispatches.add(nanos, outcome);
+                case "DbusCall" -> call(event.getBoolean("propertyRead") ? "property" : "method",
+                        event.getString("member")).add(nanos, outcome);
+                case "NativeCall" -> call("native", event.getString("function")).add(nanos, outcome);
+                case "ProcessLaunch" -> call("process", event.getString("command")).add(nanos, outcome);
+                default -> {
+                }
+            }
+        }
+
+        private CallStats call(String kind, String name) {
+            return calls.computeIfAbsent(kind + ' ' + name, key -> new CallStats(kind, name));
+        }
+
+        String displayName() {
+            return player == null ? sessionId : player;
+        }
+
+        List<CallStats> sortedCalls() {
+            List<CallStats> sorted = new ArrayList<>(calls.values());
+            sorted.sort(Comparator.comparingLong((CallStats call) -> call.totalNanos).reversed());
+            return sorted;
+        }
+
+        long maxCallNanos() {
+            return calls.values().stream().mapToLong(call -> call.maxNanos).max().orElse(0);
+        }
+
+        List<String> problems(SystemMediaOptions options) {
+            List<String> problems = new ArrayList<>();
+            if (health == null) {
+                problems.add("session went away during the sample");
+            } else if (health != SessionHealth.HEALTHY) {
+                problems.add("session is " + health.name().toLowerCase(Locale.ROOT));
+            }
+            for (CallStats call : sortedCalls()) {
+                if (call.timeouts > 0) {
+                    problems.add(call.kind + " " + call.name + " timed out " + call.timeouts + " of " + call.count
+                            + " times");
+                }
+                if (call.failures > 0) {
+                    // Direct getters are recorded as method calls; property reads are the Properties.Get fallback
+                    String what = call.kind.equals("property") ? "Properties.Get fallback for " + call.name
+                            : call.kind + " " + call.name;
+                    problems.add(what + " failed " + call.failures + " of " + call.count + " times");
+                }
+            }
+            if (refreshes.count > 0 && refreshes.failures == refreshes.count) {
+                problems.add("every refresh failed");
+            }
+            if (refreshes.maxNanos > options.getSessionUpdateInterval().toNanos()) {
+                problems.add("slowest refresh (" + millis(refreshes.maxNanos) + ") is longer than the update interval");
+            }
+            return problems;
+        }
+    }
+
+    private record Report(Settings settings, PlatformSupport support, Optional<StartupTimings> startup,
+                          Duration window, long cpuNanos, List<PlayerStats> players, CallStats artwork) {
+
+        double seconds() {
+            return window.toNanos() / 1_000_000_000.0;
+        }
+
+        double perSecond(long count) {
+            return window.isZero() ? 0 : count / seconds();
+        }
+
+        double callsPerSecond() {
+            return perSecond(players.stream().mapToLong(player -> player.playerCalls).sum());
+        }
+
+        /**
+         * @return share of one core the process used during the sample, or -1 when unknown
+         */
+        double cpuPercent() {
+            return cpuNanos < 0 || window.isZero() ? -1 : cpuNanos * 100.0 / window.toNanos();
+        }
+
+        List<String> recommendations() {
+            if (!support.available()) {
+                return List.of();
+            }
+            if (players.isEmpty()) {
+                return List.of("No sessions were found; start a player and run the doctor again.");
+            }
+            SystemMediaOptions options = settings.options();
+            List<String> advice = new ArrayList<>();
+
+            List<PlayerStats> timingOut = players.stream()
+                    .filter(player -> player.calls.values().stream().anyMatch(call -> call.timeouts > 0))
+                    .toList();
+            if (!timingOut.isEmpty()) {
+                long slowestOk = timingOut.stream().mapToLong(PlayerStats::maxCallNanos).max().orElse(0);
+                long suggested = Math.max(options.getPlayerCallTimeout().toMillis() * 2,
+                        roundUp(TimeUnit.NANOSECONDS.toMillis(slowestOk) * 2));
+                advice.add(names(timingOut) + " missed the " + options.getPlayerCallTimeout().toMillis()
+                        + " ms call deadline. If a player is only slow, raise playerCallTimeout to about " + suggested
+                        + " ms; otherwise exclude it with a SessionFilter.");
+            }
+
+            List<PlayerStats> broken = players.stream()
+                    .filter(player -> player.refreshes.count > 0 && player.refreshes.failures == player.refreshes.count)
+                    .toList();
+            if (!broken.isEmpty()) {
+                advice.add(names(broken) + " failed every refresh; exclude them with a SessionFilter.");
+            }
+
+            double callsPerSecond = callsPerSecond();
+            if (callsPerSecond > BUSY_CALLS_PER_SECOND) {
+                long current = options.getSessionUpdateInterval().toMillis();
+                long suggested = roundUp((long) Math.ceil(current * callsPerSecond / BUSY_CALLS_PER_SECOND));
+                advice.add("Players are called " + decimal(callsPerSecond) + " times per second; a "
+                        + "sessionUpdateInterval of " + suggested + " ms would bring that to about "
+                        + (long) BUSY_CALLS_PER_SECOND + ".");
+            }
+
+            long slowestRefresh = players.stream().mapToLong(player -> player.refreshes.maxNanos).max().orElse(0);
+            if (slowestRefresh > options.getSessionUpdateInterval().toNanos()) {
+                advice.add("The slowest refresh took " + millis(slowestRefresh) + "; set sessionUpdateInterval to at "
+                        + "least " + roundUp(TimeUnit.NANOSECONDS.toMillis(slowestRefresh) * 2)
+                        + " ms so refreshes do not run back to back.");
+            }
+
+            double dispatchesPerSecond = perSecond(players.stream().mapToLong(player -> player.dispatches.count).sum());
+            if (options.isPositionUpdatesEnabled()
+                    && dispatchesPerSecond > BUSY_DISPATCHES_PER_SECOND * players.size()) {
+                advice.add("Listeners are called " + decimal(dispatchesPerSecond) + " times per second; disable "
+                        + "position updates if nothing shows a live position.");
+            }
+
+            if (advice.isEmpty()) {
+                advice.add("The current options look fine for these players.");
+            }
+            return advice;
+        }
+
+        private static String names(List<PlayerStats> players) {
+            return String.join(", ", players.stream().map(PlayerStats::displayName).toList());
+        }
+
+        private static long roundUp(long millis) {
+            return Math.max(100, (millis + 99) / 100 * 100);
+        }
+
+        String toText() {
+            StringBuilder out = new StringBuilder();
+            out.append("Platform: ").append(support.platform())
+                    .append(support.available() ? " (available)" : " (unavailable: " + support.reason() + ")")
+                    .append('\n');
+            if (!support.available()) {
+                return out.toString().trim();
+            }
+            startup.ifPresent(timings -> out.append("Startup: ").append(timings.total().toMillis())
+                    .append(" ms (provider selection ").append(timings.providerSelection().toMillis())
+                    .append(" ms, creation ").append(timings.creation().toMillis()).append(" ms)\n"));
+            SystemMediaOptions options = settings.options();
+            out.append("Sampled ").append(decimal(seconds())).append(" s with sessionUpdateInterval=")
+                    .append(options.getSessionUpdateInterval().toMillis()).append(" ms, playerCallTimeout=")
+                    .append(options.getPlayerCallTimeout().toMillis()).append(" ms, eventDriven=")
+                    .append(options.isEventDrivenEnabled()).append(", positionUpdates=")
+                    .append(options.isPositionUpdatesEnabled()).append('\n');
+            double cpu = cpuPercent();
+            out.append("Process CPU: ").append(cpu < 0 ? "unknown" : decimal(cpu) + "% of one core")
+                    .append(" (includes this tool's own recording)\n");
+            out.append("Player calls: ").append(decimal(callsPerSecond())).append(" per second\n");
+
+            for (PlayerStats player : players) {
+                out.append('\n').append(player.displayName());
+                if (!player.sessionId.equals(player.displayName())) {
+                    out.append(" (").append(player.sessionId).append(')');
+                }
+                out.append(' ').append(player.health == null ? "GONE" : player.health).append('\n');
+                CallStats refreshes = player.refreshes;
+                out.append("  refreshes: ").append(refreshes.count).append(" (")
+                        .append(decimal(perSecond(refreshes.count))).append("/s), mean ")
+                        .append(millis(refreshes.meanNanos())).append(", max ").append(millis(refreshes.maxNanos))
+                        .append(", ").append(decimal(perSecond(player.playerCalls))).append(" calls/s\n");
+                out.append("  listener dispatches: ").append(decimal(perSecond(player.dispatches.count)))
+                        .append("/s\n");
+                for (CallStats call : player.sortedCalls()) {
+                    out.append("  ").append(call.toText()).append('\n');
+                }
+                for (String problem : player.problems(options)) {
+                    out.append("  ! ").append(problem).append('\n');
+                }
+            }
+            if (artwork != null) {
+                out.append("\nArtwork decodes\n  ").append(artwork.toText()).append('\n');
+            }
+
+            out.append("\nRecommendations:\n");
+            for (String advice : recommendations()) {
+                out.append("  - ").append(advice).append('\n');
+            }
+            return out.toString().trim();
+        }
+
+        Map<String, Object> toJson() {
+            SystemMediaOptions options = settings.options();
+            List<Object> playerJson = new ArrayList<>();
+            for (PlayerStats player : players) {
+                playerJson.add(object(
+                        "sessionId", player.sessionId,
+                        "player", player.player,
+                        "health", player.health,
+                        "refreshes", player.refreshes.toJson(),
+                        "refreshesPerSecond", rounded(perSecond(player.refreshes.count)),
+                        "callsPerSecond", rounded(perSecond(player.playerCalls)),
+                        "dispatchesPerSecond", rounded(perSecond(player.dispatches.count)),
+                        "calls", player.sortedCalls().stream().map(CallStats::toJson).toList(),
+                        "problems", player.problems(options)));
+            }
+            double cpu = cpuPercent();
+            return object(
+                    "platform", object("name", support.platform(), "compiled", support.compiled(),
+                            "available", support.available(), "reason", support.reason()),
+                    "options", object("eventDriven", options.isEventDrivenEnabled(),
+                            "positionUpdates", options.isPositionUpdatesEnabled(),
+                            "sessionPollIntervalMs", options.getSessionPollInterval().toMillis(),
+                            "sessionUpdateIntervalMs", options.getSessionUpdateInterval().toMillis(),
+                            "playerCallTimeoutMs", options.getPlayerCallTimeout().toMillis()),
+                    "startup", startup.map(timings -> object("totalMs", timings.total().toMillis(),
+                            "providerSelectionMs", timings.providerSelection().toMillis(),
+                            "creationMs", timings.creation().toMillis())).orElse(null),
+                    "sampleSeconds", rounded(seconds()),
+                    "processCpuPercent", cpu < 0 ? null : rounded(cpu),
+                    "playerCallsPerSecond", rounded(callsPerSecond()),
+                    "players", playerJson,
+                    "artworkDecodes", artwork == null ? null : artwork.toJson(),
+                    "recommendations", recommendations());
+        }
+    }
+
+    private MediaDoctor() {
+    }
+}
@@ -0,0 +1,310 @@
+package org.endlesssource.mediainterface.examples;
+
+import org.endlesssource.mediainterface.SystemMediaFactory;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.NowPlaying;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.api.SessionFilter;
+import org.endlesssource.mediainterface.api.SessionHealth;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows media sessions and writes one JSON object per line to stdout whenever a session appears, changes or goes
+ * away, in the spirit of {@code playerctl --follow}.
+ * <p>
+ * Meant to stay running behind a shell pipeline or status bar instead of starting a JVM per query. Changes to a
+ * session within the coalescing interval produce one line with its latest state, and a line identical to the
+ * session's previous one is not repeated. The tool exits when stdout is closed.
+ * <pre>
+ * {"event":"changed","session":"org.mpris.MediaPlayer2.vlc","app":"VLC","state":"PLAYING","title":"..."}
+ * </pre>
+ */
+public final class MediaFollow {
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+    private static final List<String> ALL_FIELDS = List.of("app", "state", "active", "health", "title", "artist",
+            "album", "position", "duration", "artwork");
+    // Artwork can be a large data URI, so it is only written when asked for
+    private static final List<String> DEFAULT_FIELDS = ALL_FIELDS.subList(0, ALL_FIELDS.size() - 1);
+
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings;
+        try {
+            settings = Settings.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+            return;
+        }
+        if (settings == null) {
+            printUsage(System.out);
+            return;
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false,
+                StandardCharsets.UTF_8);
+        Follower follower = new Follower(settings, out);
+        SystemMediaInterface media;
+        try {
+            media = SystemMediaFactory.createSystemInterfaceAsync(settings.options(), follower).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            System.err.println("Cannot follow media sessions: " + cause.getMessage());
+            follower.close();
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            media.close();
+            follower.close();
+        }, "mediainterface-follow-shutdown"));
+
+        follower.awaitClosedOutput();
+        media.close();
+        follower.close();
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: MediaFollow [options]");
+        out.println("  --fields a,b,...   fields to write, from " + String.join(",", ALL_FIELDS));
+        out.println("                     (default " + String.join(",", DEFAULT_FIELDS) + ")");
+        out.println("  --app NAME         only follow this application; may be repeated");
+        out.println("  --interval MS      coalesce changes to a session within this interval (default "
+                + DEFAULT_INTERVAL.toMillis() + ", 0 writes every change)");
+    }
+
+    private record Settings(List<String> fields, Duration interval, SystemMediaOptions options) {
+
+        /**
+         * @return null when help was asked for
+         */
+        static Settings parse(String[] args) {
+            List<String> fields = DEFAULT_FIELDS;
+            List<String> apps = new ArrayList<>();
+            Duration interval = DEFAULT_INTERVAL;
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--help", "-h" -> {
+                        return null;
+                    }
+                    case "--fields" -> fields = fields(value(args, ++i, arg));
+                    case "--app" -> apps.add(value(args, ++i, arg).toLowerCase(Locale.ROOT));
+                    case "--interval" -> interval = Duration.ofMillis(millis(value(args, ++i, arg), arg));
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+
+            // Projected positions are only worth their extra events when they are written out
+            SystemMediaOptions options = SystemMediaOptions.defaults()
+                    .withEventDrivenEnabled(true)
+                    .withPositionUpdatesEnabled(fields.contains("position"));
+            if (!apps.isEmpty()) {
+                options = options.withSessionFilter(SessionFilter.acceptAll()
+                        .withIdentity(name -> apps.contains(name.toLowerCase(Locale.ROOT))));
+            }
+            return new Settings(fields, interval, options);
+        }
+
+        private static List<String> fields(String list) {
+            List<String> fields = Arrays.stream(list.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toList();
+            for (String field : fields) {
+                if (!ALL_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field: " + field);
+                }
+            }
+            return fields;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " needs a value");
+            }
+            return args[index];
+        }
+
+        private static long millis(String value, String option) {
+            try {
+                long millis = Long.parseLong(value);
+                if (millis >= 0) {
+                    return millis;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported below
+            }
+            throw new IllegalArgumentException(option + " needs a number of milliseconds, got " + value);
+        }
+    }
+
+    /**
+     * Turns session callbacks into lines. Everything that touches the output or the per-session state runs on one
+     * thread, so lines never interleave and no locking is needed; state is only kept for live sessions.
+     */
+    private static final class Follower implements MediaSessionListener {
+        private final Settings settings;
+        private final PrintStream out;
+        private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-follow");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final Map<String, MediaSession> sessions = new ConcurrentHashMap<>();
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch outputClosed = new CountDownLatch(1);
+        // Only touched on the writer thread
+        private final Map<String, Map<String, Object>> lastWritten = new HashMap<>();
+
+        Follower(Settings settings, PrintStream out) {
+            this.settings = settings;
+            this.out = out;
+        }
+
+        @Override
+        public void onSessionAdded(MediaSession session) {
+            if (sessions.putIfAbsent(session.getSessionId(), session) == null) {
+                session.addListener(this);
+                submit(() -> write("added", session));
+            }
+        }
+
+        @Override
+        public void onSessionRemoved(String sessionId) {
+            if (sessions.remove(sessionId) != null) {
+                submit(() -> {
+                    lastWritten.remove(sessionId);
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("event", "removed");
+                    line.put("session", sessionId);
+                    print(line);
+                });
+            }
+        }
+
+        @Override
+        public void onNowPlayingChanged(MediaSession session, Optional<NowPlaying> nowPlaying) {
+            changed(session);
+        }
+
+        @Override
+        public void onPlaybackStateChanged(MediaSession session, PlaybackState state) {
+            changed(session);
+        }
+
+        @Override
+        public void onSessionActiveChanged(MediaSession session, boolean active) {
+            changed(session);
+        }
+
+        @Override
+        public void onSessionHealthChanged(MediaSession session, SessionHealth health) {
+            changed(session);
+        }
+
+        /**
+         * The first change in an interval schedules one write of whatever the session looks like by then.
+         */
+        private void changed(MediaSession session) {
+            String sessionId = session.getSessionId();
+            if (!pending.add(sessionId)) {
+                return;
+            }
+            try {
+                writer.schedule(() -> {
+                    pending.remove(sessionId);
+                    if (sessions.get(sessionId) == session) {
+                        write("changed", session);
+                    }
+                }, settings.interval().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+
+        private void write(String event, MediaSession session) {
+            Map<String, Object> fields = fields(session);
+            if (event.equals("changed") && fields.equals(lastWritten.get(session.getSessionId()))) {
+                return;
+            }
+            lastWritten.put(session.getSessionId(), fields);
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("event", event);
+            line.put("session", session.getSessionId());
+            line.putAll(fields);
+            print(line);
+        }
+
+        private Map<String, Object> fields(MediaSession session) {
+            Optional<NowPlaying> nowPlaying = session.getNowPlaying();
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (String field : settings.fields()) {
+                fields.put(field, switch (field) {
+                    case "app" -> session.getApplicationName();
+                    case "state" -> session.getControls().getPlaybackState();
+                    case "active" -> session.isActive();
+                    case "health" -> session.getHealth();
+                    case "title" -> nowPlaying.flatMap(NowPlaying::getTitle).orElse(null);
+                    case "artist" -> nowPlaying.flatMap(NowPlaying::getArtist).orElse(null);
+                    case "album" -> nowPlaying.flatMap(NowPlaying::getAlbum).orElse(null);
+                    case "position" -> nowPlaying.flatMap(NowPlaying::getPosition).map(Duration::toMillis).orElse(null);
+                    case "duration" -> nowPlaying.flatMap(NowPlaying::getDuration).map(Duration::toMillis).orElse(null);
+                    case "artwork" -> nowPlaying.flatMap(NowPlaying::getArtwork).orElse(null);
+                    default -> throw new IllegalStateException("Unknown field: " + field);
+                });
+            }
+            return fields;
+        }
+
+        private void print(Map<String, Object> line) {
+            out.println(Json.write(line));
+            out.flush();
+            if (out.checkError()) {
+                // Whoever read our output has gone away
+                outputClosed.countDown();
+            }
+        }
+
+        private void submit(Runnable task) {
+            try {
+                writer.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+
+        void awaitClosedOutput() throws InterruptedException {
+            outputClosed.await();
+        }
+
+        void close() {
+            writer.shutdownNow();
+        }
+    }
+
+    private MediaFollow() {
+    }
+}
@@ -2,14 +2,16 @@ package org.endlesssource.mediainterface.examples;
 
 import org.endlesssource.mediainterface.PlatformSupport;
 import org.endlesssource.mediainterface.SystemMediaFactory;
-import org.endlesssource.mediainterface.api.ArtworkDecoder;
+import org.endlesssource.mediainterface.api.Artwork;
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.NowPlaying;
 import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.api.TransportCapabilities;
+import org.endlesssource.mediainterface.artwork.ArtworkRenditionService;
 
+import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -23,7 +25,6 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FlowLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.Duration;
@@ -40,6 +41,7 @@ import java.util.concurrent.atomic.AtomicReference;
 public final class SwingNowPlayingExample {
     private static final int ART_SIZE = 192;
     private static final int SEEK_RANGE = 1000;
+    private static final ArtworkRenditionService RENDITIONS = new ArtworkRenditionService();
 
     public static void main(String[] args) {
         PlatformSupport support = SystemMediaFactory.getCurrentPlatformSupport();
@@ -52,7 +54,8 @@ public final class SwingNowPlayingExample {
         SystemMediaOptions options = SystemMediaOptions.defaults()
                 .withEventDrivenEnabled(true)
                 .withSessionPollInterval(Duration.ofMillis(200))
-                .withSessionUpdateInterval(Duration.ofMillis(200));
+                .withSessionUpdateInterval(Duration.ofMillis(200))
+                .withSeekCoalesceInterval(Duration.ofMillis(100));
 
         SystemMediaInterface media = SystemMediaFactory.createSystemInterface(options);
         SwingUtilities.invokeLater(() -> createUi(media));
@@ -127,12 +130,13 @@ public final class SwingNowPlayingExample {
             @Override
             public void mouseReleased(MouseEvent e) {
                 seekDragging.set(false);
-                UiSnapshot snapshot = latestSnapshot.get();
-                if (!snapshot.seekEnabled() || snapshot.durationMs() == null || snapshot.durationMs() <= 0) {
-                    return;
-                }
-                long targetMs = Math.max(0L, snapshot.durationMs() * seekSlider.getValue() / SEEK_RANGE);
-                submitControl(controlsExecutor, media, session -> session.getControls().seek(Duration.ofMillis(targetMs)));
+                scrubTo(media, latestSnapshot.get(), seekSlider.getValue());
+            }
+        });
+        // Seek while dragging; the controls coalesce rapid seeks so the player only sees the latest position.
+        seekSlider.addChangeListener(e -> {
+            if (seekDragging.get() && seekSlider.getValueIsAdjusting()) {
+                scrubTo(media, latestSnapshot.get(), seekSlider.getValue());
             }
         });
 
@@ -141,6 +145,7 @@ public final class SwingNowPlayingExample {
             public void windowClosing(java.awt.event.WindowEvent e) {
                 polling.shutdownNow();
                 controlsExecutor.shutdownNow();
+                RENDITIONS.close();
                 media.close();
             }
         });
@@ -177,11 +182,13 @@ public final class SwingNowPlayingExample {
         }
 
         NowPlaying now = nowOpt.get();
-        ImageIcon icon = decodeArtwork(now.getArtwork().orElse(null));
+        ArtworkRenditionService.Rendition artwork = now.getArtworkHandle()
+                .flatMap(SwingNowPlayingExample::artworkRendition)
+                .orElse(null);
         Long durationMs = now.getDuration().map(Duration::toMillis).orElse(null);
         Long positionMs = now.getPosition().map(Duration::toMillis).orElse(null);
         boolean seekEnabled = caps.canSeek() && durationMs != null && durationMs > 0;
-        return new UiSnapshot(tree, icon, seekEnabled, durationMs, positionMs);
+        return new UiSnapshot(tree, artwork, seekEnabled, durationMs, positionMs);
     }
 
     private static void applySnapshot(UiSnapshot snapshot,
@@ -204,14 +211,29 @@ public final class SwingNowPlayingExample {
             seekSlider.setValue(0);
         }
 
-        if (snapshot.icon() == null) {
+        if (snapshot.artwork() == null) {
             artworkLabel.setText("No Artwork");
             artworkLabel.setIcon(null);
+            artworkLabel.setOpaque(false);
         } else {
-            Image scaled = snapshot.icon().getImage().getScaledInstance(ART_SIZE, ART_SIZE, Image.SCALE_SMOOTH);
-            artworkLabel.setIcon(new ImageIcon(scaled));
-            artworkLabel.setText("");
+            Icon current = artworkLabel.getIcon();
+            if (!(current instanceof ImageIcon icon) || icon.getImage() != snapshot.artwork().image()) {
+                artworkLabel.setIcon(new ImageIcon(snapshot.artwork().image()));
+                artworkLabel.setText("");
+                snapshot.artwork().palette().dominant().ifPresent(color -> {
+                    artworkLabel.setOpaque(true);
+                    artworkLabel.setBackground(color);
+                });
+            }
+        }
+    }
+
+    private static void scrubTo(SystemMediaInterface media, UiSnapshot snapshot, int sliderValue) {
+        if (!snapshot.seekEnabled() || snapshot.durationMs() == null || snapshot.durationMs() <= 0) {
+            return;
         }
+        long targetMs = Math.max(0L, snapshot.durationMs() * sliderValue / SEEK_RANGE);
+        media.getActiveSession().ifPresent(session -> session.getControls().seekAsync(Duration.ofMillis(targetMs)));
     }
 
     private static void submitControl(ExecutorService controlsExecutor,
@@ -238,8 +260,9 @@ public final class SwingNowPlayingExample {
         NowPlaying now = nowOpt.get();
         String duration = now.getDuration().map(SwingNowPlayingExample::formatDuration).orElse("--:--");
         String position = now.getPosition().map(SwingNowPlayingExample::formatDuration).orElse("--:--");
-        String artwork = now.getArtwork().orElse("");
-        String artworkSummary = artwork.isBlank() ? "<none>" : ("present (" + artwork.length() + " chars)");
+        String artworkSummary = now.getArtworkHandle()
+                .map(art -> art.getLocation().orElseGet(() -> "inline " + art.getMimeType().orElse("(unknown type)")))
+                .orElse("<none>");
 
         out.append("   ├─ title: ").append(now.getTitle().orElse("<none>")).append('\n');
         out.append("   ├─ artist: ").append(now.getArtist().orElse("<none>")).append('\n');
@@ -272,8 +295,13 @@ public final class SwingNowPlayingExample {
         return out.toString();
     }
 
-    private static ImageIcon decodeArtwork(String artwork) {
-        return ArtworkDecoder.decodeBytes(artwork).map(ImageIcon::new).orElse(null);
+    private static Optional<ArtworkRenditionService.Rendition> artworkRendition(Artwork artwork) {
+        Optional<ArtworkRenditionService.Rendition> ready = RENDITIONS.getIfReady(artwork, ART_SIZE, ART_SIZE);
+        if (ready.isEmpty()) {
+            // Rendered on the service's worker pool; a later poll picks it up.
+            RENDITIONS.render(artwork, ART_SIZE, ART_SIZE);
+        }
+        return ready;
     }
 
     private static String formatDuration(Duration duration) {
@@ -291,7 +319,7 @@ public final class SwingNowPlayingExample {
     }
 
     private record UiSnapshot(String tree,
-                              ImageIcon icon,
+                              ArtworkRenditionService.Rendition artwork,
                               boolean seekEnabled,
                               Long durationMs,
                               Long positionMs) {
@@ -0,0 +1,202 @@
+package org.endlesssource.mediainterface;
+
+import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caches discovered providers and their probe results for {@link SystemMediaFactory}.
+ * <p>
+ * Providers are discovered once. Probe results are kept for a TTL; candidates are probed in parallel and each
+ * probe is bounded by a timeout. A probe that times out keeps running in the background and its result is
+ * cached when it completes.
+ */
+final class ProviderRegistry {
+    static final Duration DEFAULT_PROBE_RESULT_TTL = Duration.ofSeconds(30);
+    static final Duration DEFAULT_PROBE_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRegistry.class);
+
+    private final Supplier<List<PlatformMediaProvider>> discovery;
+    private final Object lock = new Object();
+    private final Map<String, CachedProbe> probes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<PlatformSupport>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private volatile List<PlatformMediaProvider> providers;
+    private volatile long generation;
+    private volatile Duration probeResultTtl = DEFAULT_PROBE_RESULT_TTL;
+    private volatile Duration probeTimeout = DEFAULT_PROBE_TIMEOUT;
+
+    ProviderRegistry(Supplier<List<PlatformMediaProvider>> discovery) {
+        this.discovery = Objects.requireNonNull(discovery, "discovery must not be null");
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-factory-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    List<PlatformMediaProvider> providers() {
+        List<PlatformMediaProvider> current = providers;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            if (providers == null) {
+                providers = List.copyOf(discovery.get());
+            }
+            return providers;
+        }
+    }
+
+    /**
+     * Probe candidates in parallel; results are returned in candidate order.
+     */
+    List<PlatformSupport> probeAll(List<PlatformMediaProvider> candidates) {
+        List<CompletableFuture<PlatformSupport>> futures = new ArrayList<>(candidates.size());
+        for (PlatformMediaProvider provider : candidates) {
+            futures.add(probeAsync(provider));
+        }
+        long timeoutNanos = probeTimeout.toNanos();
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<PlatformSupport> results = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            PlatformMediaProvider provider = candidates.get(i);
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            try {
+                results.add(futures.get(i).get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                logger.debug("Probe of provider {} timed out", provider.platformId());
+                results.add(PlatformSupport.unavailable(provider.platformId(),
+                        "Probe timed out after " + probeTimeout.toMillis() + " ms"));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                logger.debug("Probe of provider {} failed: {}", provider.platformId(), cause.toString());
+                results.add(PlatformSupport.unavailable(provider.platformId(), "Probe failed: " + cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(PlatformSupport.unavailable(provider.platformId(), "Probe interrupted"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Daemon pool shared by probes and background interface creation.
+     */
+    ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Forget cached results and probes still running, so the next lookup probes again instead of joining a probe
+     * that started before the invalidation.
+     */
+    void invalidateProbeResults() {
+        synchronized (lock) {
+            generation++;
+            probes.clear();
+            inFlight.clear();
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (lock) {
+            generation++;
+            probes.clear();
+            inFlight.clear();
+            providers = null;
+        }
+    }
+
+    Duration getProbeResultTtl() {
+        return probeResultTtl;
+    }
+
+    void setProbeResultTtl(Duration ttl) {
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        probeResultTtl = ttl;
+    }
+
+    Duration getProbeTimeout() {
+        return probeTimeout;
+    }
+
+    void setProbeTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout must not be null");
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        probeTimeout = timeout;
+    }
+
+    private CompletableFuture<PlatformSupport> probeAsync(PlatformMediaProvider provider) {
+        String key = provider.getClass().getName() + "#" + provider.platformId();
+        CachedProbe cached = probes.get(key);
+        if (cached != null && cached.expiresAtNanos() - System.nanoTime() > 0) {
+            return CompletableFuture.completedFuture(cached.support());
+        }
+
+        CompletableFuture<PlatformSupport> probe = new CompletableFuture<>();
+        CompletableFuture<PlatformSupport> existing = inFlight.putIfAbsent(key, probe);
+        if (existing != null) {
+            return existing;
+        }
+        long startedGeneration = generation;
+        try {
+            executor.execute(() -> {
+                // Leave the in-flight map before completing, so a caller woken by this probe never joins it again.
+                try {
+                    logger.debug("Probing provider {}", provider.platformId());
+                    PlatformSupport support = provider.probeSupport();
+                    cache(key, support, startedGeneration);
+                    inFlight.remove(key, probe);
+                    probe.complete(support);
+                } catch (Throwable t) {
+                    inFlight.remove(key, probe);
+                    probe.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, probe);
+            probe.completeExceptionally(e);
+        }
+        return probe;
+    }
+
+    private void cache(String key, PlatformSupport support, long startedGeneration) {
+        long ttlNanos = probeResultTtl.toNanos();
+        if (ttlNanos <= 0L) {
+            return;
+        }
+        synchronized (lock) {
+            // Results of probes started before an invalidation are not kept.
+            if (generation == startedGeneration) {
+                probes.put(key, new CachedProbe(support, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    private record CachedProbe(PlatformSupport support, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,98 @@
+package org.endlesssource.mediainterface;
+
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Reference-counted media interfaces shared per options profile.
+ * <p>
+ * The first {@link #acquire} for a profile creates the engine; later callers wait for that creation instead of
+ * starting their own. The engine is closed when the last handle is released.
+ */
+final class SharedInterfaces {
+    private static final Logger logger = LoggerFactory.getLogger(SharedInterfaces.class);
+
+    private final Function<SystemMediaOptions, SystemMediaInterface> factory;
+    private final Map<SystemMediaOptions, Engine> engines = new HashMap<>();
+
+    SharedInterfaces(Function<SystemMediaOptions, SystemMediaInterface> factory) {
+        this.factory = factory;
+    }
+
+    SystemMediaInterface acquire(SystemMediaOptions options) {
+        Engine engine;
+        boolean creator = false;
+        synchronized (this) {
+            engine = engines.get(options);
+            if (engine == null) {
+                engine = new Engine(options);
+                engines.put(options, engine);
+                creator = true;
+            }
+            engine.references++;
+        }
+
+        if (creator) {
+            try {
+                engine.created.complete(factory.apply(options));
+                logger.debug("Created shared media interface for {}", options);
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    engines.remove(options, engine);
+                }
+                engine.created.completeExceptionally(e);
+            }
+        }
+
+        try {
+            return new SharedSystemMediaInterface(this, engine, engine.created.join());
+        } catch (CompletionException e) {
+            // The failed engine is already unregistered; nothing to release.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    void release(Engine engine) {
+        boolean last;
+        synchronized (this) {
+            last = --engine.references == 0;
+            if (last) {
+                engines.remove(engine.options, engine);
+            }
+        }
+        if (last) {
+            logger.debug("Closing shared media interface for {}", engine.options);
+            engine.created.join().close();
+        }
+    }
+
+    synchronized int references(SystemMediaOptions options) {
+        Engine engine = engines.get(options);
+        return engine == null ? 0 : engine.references;
+    }
+
+    static final class Engine {
+        private final SystemMediaOptions options;
+        private final CompletableFuture<SystemMediaInterface> created = new CompletableFuture<>();
+        private int references;
+
+        private Engine(SystemMediaOptions options) {
+            this.options = options;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.endlesssource.mediainterface;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One caller's handle on a shared media interface. Closing it removes the listeners added through it and
+ * releases its reference; the underlying interface stays open for other handles.
+ */
+final class SharedSystemMediaInterface implements SystemMediaInterface {
+    private final SharedInterfaces owner;
+    private final SharedInterfaces.Engine engine;
+    private final SystemMediaInterface delegate;
+    private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SharedSystemMediaInterface(SharedInterfaces owner, SharedInterfaces.Engine engine, SystemMediaInterface delegate) {
+        this.owner = owner;
+        this.engine = engine;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<MediaSession> getActiveSession() {
+        ensureOpen();
+        return delegate.getActiveSession();
+    }
+
+    @Override
+    public List<MediaSession> getAllSessions() {
+        ensureOpen();
+        return delegate.getAllSessions();
+    }
+
+    @Override
+    public Optional<MediaSession> getSessionByApp(String appName) {
+        ensureOpen();
+        return delegate.getSessionByApp(appName);
+    }
+
+    @Override
+    public boolean hasActiveSessions() {
+        ensureOpen();
+        return delegate.hasActiveSessions();
+    }
+
+    @Override
+    public void addSessionListener(MediaSessionListener listener) {
+        ensureOpen();
+        listeners.add(listener);
+        delegate.addSessionListener(listener);
+    }
+
+    @Override
+    public void removeSessionListener(MediaSessionListener listener) {
+        if (listeners.remove(listener)) {
+            delegate.removeSessionListener(listener);
+        }
+    }
+
+    @Override
+    public boolean isEventDrivenEnabled() {
+        return delegate.isEventDrivenEnabled();
+    }
+
+    /**
+     * Shared interfaces are keyed by their options, so a handle cannot change them for everyone.
+     */
+    @Override
+    public void updateOptions(SystemMediaOptions options) {
+        throw new UnsupportedOperationException(
+                "Shared media interfaces cannot be reconfigured; acquire one with the desired options instead");
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        listeners.forEach(delegate::removeSessionListener);
+        listeners.clear();
+        owner.release(engine);
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Shared media interface handle is closed");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.endlesssource.mediainterface;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * How long {@link SystemMediaFactory} took to produce a usable media interface.
+ *
+ * @param platform id of the provider that was used
+ * @param asynchronous true when created through {@link SystemMediaFactory#createSystemInterfaceAsync}
+ * @param providerSelection time spent discovering and probing providers
+ * @param creation time until the provider returned a usable interface
+ */
+public record StartupTimings(String platform, boolean asynchronous, Duration providerSelection, Duration creation) {
+    public StartupTimings {
+        Objects.requireNonNull(platform, "platform must not be null");
+        Objects.requireNonNull(providerSelection, "providerSelection must not be null");
+        Objects.requireNonNull(creation, "creation must not be null");
+    }
+
+    /**
+     * @return provider selection plus creation
+     */
+    public Duration total() {
+        return providerSelection.plus(creation);
+    }
+}
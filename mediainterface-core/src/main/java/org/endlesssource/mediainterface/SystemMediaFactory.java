@@ -1,21 +1,30 @@
 package org.endlesssource.mediainterface;
 
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public final class SystemMediaFactory {
+    public static final Duration DEFAULT_PROBE_RESULT_TTL = ProviderRegistry.DEFAULT_PROBE_RESULT_TTL;
+    public static final Duration DEFAULT_PROBE_TIMEOUT = ProviderRegistry.DEFAULT_PROBE_TIMEOUT;
+
     private static final Logger logger = LoggerFactory.getLogger(SystemMediaFactory.class);
+    private static final ProviderRegistry registry = new ProviderRegistry(SystemMediaFactory::discoverProviders);
+    private static final SharedInterfaces shared = new SharedInterfaces(SystemMediaFactory::createSystemInterface);
+    private static volatile StartupTimings lastStartupTimings;
 
     private SystemMediaFactory() {}
 
@@ -38,10 +47,77 @@ public final class SystemMediaFactory {
      */
     public static SystemMediaInterface createSystemInterface(SystemMediaOptions options) {
         Objects.requireNonNull(options, "options must not be null");
+        long started = System.nanoTime();
+        PlatformMediaProvider provider = selectProvider();
+        long selected = System.nanoTime();
+        SystemMediaInterface media = provider.create(options);
+        recordStartup(provider.platformId(), false, started, selected);
+        return media;
+    }
+
+    /**
+     * Acquire a shared system media interface with default options
+     * @see #acquireSharedInterface(SystemMediaOptions)
+     */
+    public static SystemMediaInterface acquireSharedInterface() {
+        return acquireSharedInterface(SystemMediaOptions.defaults());
+    }
+
+    /**
+     * Acquire a handle on the media interface shared by all callers using equal options. The first call creates it;
+     * closing a handle removes the session listeners added through it, and the last close releases the interface.
+     * Listeners added directly to sessions are not tracked and should be removed by the caller.
+     * @param options Configuration options; equal options share one interface
+     * @return a handle to close when done
+     * @throws UnsupportedOperationException if the current platform is not supported
+     * @throws RuntimeException if a platform is supported but initialization fails
+     */
+    public static SystemMediaInterface acquireSharedInterface(SystemMediaOptions options) {
+        Objects.requireNonNull(options, "options must not be null");
+        return shared.acquire(options);
+    }
+
+    /**
+     * Create a system media interface in the background with default options
+     * @return future completed once the platform transport is usable
+     */
+    public static CompletableFuture<SystemMediaInterface> createSystemInterfaceAsync() {
+        return createSystemInterfaceAsync(SystemMediaOptions.defaults());
+    }
+
+    /**
+     * Create a system media interface in the background. The future completes as soon as the platform transport
+     * is usable; sessions are initialized afterwards, in parallel, and announced through
+     * {@link MediaSessionListener#onSessionAdded}.
+     * @param options Configuration options
+     * @param listeners Listeners registered before the first session is announced
+     * @return future completed with the interface, or exceptionally if no provider is usable or initialization fails
+     */
+    public static CompletableFuture<SystemMediaInterface> createSystemInterfaceAsync(SystemMediaOptions options,
+                                                                                   MediaSessionListener... listeners) {
+        Objects.requireNonNull(options, "options must not be null");
+        List<MediaSessionListener> initialListeners = List.of(listeners);
+        long started = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            PlatformMediaProvider provider = selectProvider();
+            long selected = System.nanoTime();
+            SystemMediaInterface media = provider.createProgressive(options, initialListeners);
+            recordStartup(provider.platformId(), true, started, selected);
+            return media;
+        }, registry.executor());
+    }
+
+    /**
+     * Timings of the most recent successful interface creation.
+     */
+    public static Optional<StartupTimings> getLastStartupTimings() {
+        return Optional.ofNullable(lastStartupTimings);
+    }
+
+    private static PlatformMediaProvider selectProvider() {
         String currentPlatform = getPlatformName();
         logger.debug("Creating system media interface for platform={}", currentPlatform);
-        List<PlatformMediaProvider> providers = loadProviders();
-        List<PlatformMediaProvider> candidates = providers.stream()
+        List<PlatformMediaProvider> candidates = registry.providers().stream()
                 .filter(PlatformMediaProvider::supportsCurrentOs)
                 .sorted(Comparator.comparing(PlatformMediaProvider::platformId))
                 .toList();
@@ -50,13 +126,14 @@ public final class SystemMediaFactory {
             throw new UnsupportedOperationException("No provider module found for current platform: " + currentPlatform);
         }
 
+        List<PlatformSupport> probes = registry.probeAll(candidates);
         List<String> reasons = new ArrayList<>();
-        for (PlatformMediaProvider provider : candidates) {
-            logger.debug("Probing provider {}", provider.platformId());
-            PlatformSupport support = provider.probeSupport();
+        for (int i = 0; i < candidates.size(); i++) {
+            PlatformMediaProvider provider = candidates.get(i);
+            PlatformSupport support = probes.get(i);
             if (support.available()) {
                 logger.info("Using media provider {}", provider.platformId());
-                return provider.create(options);
+                return provider;
             }
             reasons.add(provider.platformId() + ": " + support.reason());
         }
@@ -65,6 +142,16 @@ public final class SystemMediaFactory {
                 + String.join("; ", reasons));
     }
 
+    private static void recordStartup(String platform, boolean asynchronous, long startedNanos, long selectedNanos) {
+        StartupTimings timings = new StartupTimings(platform, asynchronous,
+                Duration.ofNanos(selectedNanos - startedNanos),
+                Duration.ofNanos(System.nanoTime() - selectedNanos));
+        lastStartupTimings = timings;
+        logger.debug("Media interface {} usable after {} ms (provider selection {} ms, creation {} ms, async={})",
+                platform, timings.total().toMillis(), timings.providerSelection().toMillis(),
+                timings.creation().toMillis(), asynchronous);
+    }
+
     /**
      * Check if the current platform is supported
      * @return true if the current platform has media interface support
@@ -94,7 +181,7 @@ public final class SystemMediaFactory {
      * Get platforms compiled into the current classpath (providers present).
      */
     public static List<String> getCompiledPlatforms() {
-        return loadProviders().stream()
+        return registry.providers().stream()
                 .map(PlatformMediaProvider::platformId)
                 .distinct()
                 .sorted()
@@ -105,8 +192,7 @@ public final class SystemMediaFactory {
      * Get platforms that are runtime-available right now.
      */
     public static List<String> getRuntimeAvailablePlatforms() {
-        return loadProviders().stream()
-                .map(PlatformMediaProvider::probeSupport)
+        return registry.probeAll(registry.providers()).stream()
                 .filter(PlatformSupport::available)
                 .map(PlatformSupport::platform)
                 .distinct()
@@ -119,16 +205,14 @@ public final class SystemMediaFactory {
      */
     public static PlatformSupport getCurrentPlatformSupport() {
         String current = getPlatformName();
-        List<PlatformMediaProvider> candidates = loadProviders().stream()
+        List<PlatformMediaProvider> candidates = registry.providers().stream()
                 .filter(PlatformMediaProvider::supportsCurrentOs)
                 .toList();
         if (candidates.isEmpty()) {
             return PlatformSupport.notCompiled(current,
                     "No provider module on classpath for platform: " + current);
         }
-        List<PlatformSupport> probes = candidates.stream()
-                .map(PlatformMediaProvider::probeSupport)
-                .toList();
+        List<PlatformSupport> probes = registry.probeAll(candidates);
         Optional<PlatformSupport> available = probes.stream()
                 .filter(PlatformSupport::available)
                 .findFirst();
@@ -142,7 +226,44 @@ public final class SystemMediaFactory {
         return PlatformSupport.unavailable(current, reasons.isBlank() ? "Provider probe failed" : reasons);
     }
 
-    private static List<PlatformMediaProvider> loadProviders() {
+    /**
+     * Forget cached probe results so the next call probes providers again.
+     */
+    public static void invalidateProbeResults() {
+        registry.invalidateProbeResults();
+    }
+
+    /**
+     * Forget discovered providers and probe results, e.g. after the classpath or context class loader changed.
+     */
+    public static void invalidateProviderCache() {
+        registry.invalidateAll();
+    }
+
+    /**
+     * How long runtime probe results are reused. {@link Duration#ZERO} disables caching.
+     */
+    public static Duration getProbeResultTtl() {
+        return registry.getProbeResultTtl();
+    }
+
+    public static void setProbeResultTtl(Duration ttl) {
+        registry.setProbeResultTtl(ttl);
+    }
+
+    /**
+     * Upper bound on waiting for provider probes; candidates are probed in parallel.
+     * A probe that exceeds it is reported unavailable for that call.
+     */
+    public static Duration getProbeTimeout() {
+        return registry.getProbeTimeout();
+    }
+
+    public static void setProbeTimeout(Duration timeout) {
+        registry.setProbeTimeout(timeout);
+    }
+
+    private static List<PlatformMediaProvider> discoverProviders() {
         ServiceLoader<PlatformMediaProvider> loader = ServiceLoader.load(PlatformMediaProvider.class);
         List<PlatformMediaProvider> providers = new ArrayList<>();
         loader.iterator().forEachRemaining(providers::add);
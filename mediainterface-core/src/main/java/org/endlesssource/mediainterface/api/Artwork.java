@@ -0,0 +1,303 @@
+package org.endlesssource.mediainterface.api;
+
+import org.endlesssource.mediainterface.artwork.DiskArtworkStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Handle to the artwork of a {@link NowPlaying} item.
+ * <p>
+ * Inline artwork (raw bytes or base64) is decoded at most once, on first access, and the decoded bytes are
+ * shared by every reader of the handle. Located artwork (URL or file path) is loaded on first access through
+ * {@link ArtworkDecoder}. Providers reuse the same handle while the artwork does not change, so polling does not
+ * copy or decode the image again.
+ */
+public final class Artwork {
+    private static final String DATA_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64";
+
+    private final byte[] rawBytes;
+    private final String base64;
+    private final String location;
+    private final String declaredMimeType;
+    private final Object lock = new Object();
+    private volatile byte[] bytes;
+    private volatile boolean decoded;
+    private volatile String contentHash;
+    private volatile String locator;
+
+    private Artwork(byte[] rawBytes, String base64, String location, String declaredMimeType, String locator) {
+        this.rawBytes = rawBytes;
+        this.base64 = base64;
+        this.location = location;
+        this.declaredMimeType = declaredMimeType;
+        this.locator = locator;
+        if (rawBytes != null) {
+            this.bytes = rawBytes;
+            this.decoded = true;
+        }
+    }
+
+    /**
+     * Wrap already decoded bytes. The array is shared, not copied, and must not be modified afterwards.
+     *
+     * @param bytes artwork bytes
+     * @param mimeType mime type, or null if unknown
+     */
+    public static Artwork ofBytes(byte[] bytes, String mimeType) {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        return new Artwork(bytes, null, null, trimToNull(mimeType), null);
+    }
+
+    /**
+     * Wrap a base64 payload that is decoded on first access.
+     *
+     * @param base64 base64-encoded artwork
+     * @param mimeType mime type, or null if unknown
+     */
+    public static Artwork ofBase64(String base64, String mimeType) {
+        Objects.requireNonNull(base64, "base64 must not be null");
+        return new Artwork(null, base64.trim(), null, trimToNull(mimeType), null);
+    }
+
+    /**
+     * Wrap a URL or file path that is loaded on first access.
+     */
+    public static Artwork ofLocation(String location) {
+        Objects.requireNonNull(location, "location must not be null");
+        String trimmed = location.trim();
+        return new Artwork(null, null, trimmed, null, trimmed);
+    }
+
+    /**
+     * Wrap a legacy {@link NowPlaying#getArtwork()} value (data URI, plain base64, file path, or URL).
+     */
+    public static Artwork fromLocator(String value) {
+        Objects.requireNonNull(value, "value must not be null");
+        String trimmed = value.trim();
+        int comma = trimmed.indexOf(',');
+        if (trimmed.startsWith(DATA_PREFIX) && comma >= 0) {
+            String header = trimmed.substring(DATA_PREFIX.length(), comma);
+            if (header.endsWith(BASE64_MARKER)) {
+                String mime = header.substring(0, header.length() - BASE64_MARKER.length());
+                return new Artwork(null, trimmed.substring(comma + 1), null, trimToNull(mime), value);
+            }
+        }
+        if (looksLikeBase64(trimmed)) {
+            return new Artwork(null, trimmed, null, null, value);
+        }
+        return new Artwork(null, null, trimmed, null, value);
+    }
+
+    /**
+     * Mime type as declared by the provider, guessed from the location's file extension, or sniffed from the
+     * image header. Sniffing decodes the artwork if it has not been decoded yet.
+     */
+    public Optional<String> getMimeType() {
+        if (declaredMimeType != null) {
+            return Optional.of(declaredMimeType);
+        }
+        if (location != null) {
+            Optional<String> guessed = guessFromExtension(location);
+            if (guessed.isPresent()) {
+                return guessed;
+            }
+        }
+        return load().flatMap(Artwork::sniff);
+    }
+
+    /**
+     * URL or file path for located artwork; empty for inline artwork.
+     */
+    public Optional<String> getLocation() {
+        return Optional.ofNullable(location);
+    }
+
+    /**
+     * @return true if the artwork bytes were delivered with the metadata rather than referenced by location
+     */
+    public boolean isInline() {
+        return location == null;
+    }
+
+    /**
+     * Read-only view of the artwork bytes, decoding or loading them on first access.
+     */
+    public Optional<ByteBuffer> getBytes() {
+        return load().map(data -> ByteBuffer.wrap(data).asReadOnlyBuffer());
+    }
+
+    /**
+     * Stream over the artwork bytes, decoding or loading them on first access.
+     */
+    public Optional<InputStream> openStream() {
+        return load().map(ByteArrayInputStream::new);
+    }
+
+    /**
+     * Hex SHA-256 of the artwork bytes; stable across providers and runs, computed once.
+     */
+    public Optional<String> getContentHash() {
+        String hash = contentHash;
+        if (hash != null) {
+            return Optional.of(hash);
+        }
+        Optional<byte[]> data = load();
+        if (data.isEmpty()) {
+            return Optional.empty();
+        }
+        hash = DiskArtworkStore.contentHash(data.get());
+        contentHash = hash;
+        return Optional.of(hash);
+    }
+
+    /**
+     * String form used by {@link NowPlaying#getArtwork()}: the location, the original locator, a data URI when
+     * the mime type is known, or plain base64 otherwise. Built once on first call.
+     */
+    public String toLocator() {
+        String value = locator;
+        if (value != null) {
+            return value;
+        }
+        synchronized (lock) {
+            if (locator == null) {
+                String encoded = base64 != null ? base64 : Base64.getEncoder().encodeToString(rawBytes);
+                locator = declaredMimeType == null
+                        ? encoded
+                        : DATA_PREFIX + declaredMimeType + BASE64_MARKER + "," + encoded;
+            }
+            return locator;
+        }
+    }
+
+    private Optional<byte[]> load() {
+        if (decoded) {
+            return Optional.ofNullable(bytes);
+        }
+        synchronized (lock) {
+            if (decoded) {
+                return Optional.ofNullable(bytes);
+            }
+            if (base64 != null) {
+                byte[] out;
+                try {
+                    out = Base64.getDecoder().decode(base64);
+                } catch (IllegalArgumentException e) {
+                    out = null;
+                }
+                bytes = out == null || out.length == 0 ? null : out;
+                decoded = true;
+                return Optional.ofNullable(bytes);
+            }
+            // Located artwork may fail transiently (network), so only successful loads are remembered.
+            Optional<byte[]> loaded = ArtworkDecoder.decodeBytes(location);
+            loaded.ifPresent(data -> {
+                bytes = data;
+                decoded = true;
+            });
+            return loaded;
+        }
+    }
+
+    private static Optional<String> guessFromExtension(String location) {
+        String lower = location.toLowerCase(Locale.ROOT);
+        int query = lower.indexOf('?');
+        if (query >= 0) {
+            lower = lower.substring(0, query);
+        }
+        if (lower.endsWith(".png")) return Optional.of("image/png");
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) return Optional.of("image/jpeg");
+        if (lower.endsWith(".gif")) return Optional.of("image/gif");
+        if (lower.endsWith(".webp")) return Optional.of("image/webp");
+        if (lower.endsWith(".bmp")) return Optional.of("image/bmp");
+        return Optional.empty();
+    }
+
+    private static Optional<String> sniff(byte[] data) {
+        if (data.length >= 8 && (data[0] & 0xff) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return Optional.of("image/png");
+        }
+        if (data.length >= 3 && (data[0] & 0xff) == 0xff && (data[1] & 0xff) == 0xd8 && (data[2] & 0xff) == 0xff) {
+            return Optional.of("image/jpeg");
+        }
+        if (data.length >= 4 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return Optional.of("image/gif");
+        }
+        if (data.length >= 12 && new String(data, 0, 4, StandardCharsets.US_ASCII).equals("RIFF")
+                && new String(data, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+            return Optional.of("image/webp");
+        }
+        if (data.length >= 2 && data[0] == 'B' && data[1] == 'M') {
+            return Optional.of("image/bmp");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean looksLikeBase64(String value) {
+        // Paths and URLs contain '.' or ':' which are outside the base64 alphabet.
+        if (value.length() < 16 || value.length() % 4 != 0) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean alphabet = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '+' || c == '/' || c == '=';
+            if (!alphabet) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Two handles are equal when they carry the same source (same location, same base64 payload, or same bytes)
+     * with the same declared mime type. This never decodes or loads.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Artwork)) return false;
+        Artwork other = (Artwork) obj;
+        return Objects.equals(location, other.location)
+                && Objects.equals(base64, other.base64)
+                && Arrays.equals(rawBytes, other.rawBytes)
+                && Objects.equals(declaredMimeType, other.declaredMimeType);
+    }
+
+    @Override
+    public int hashCode() {
+        if (location != null) {
+            return location.hashCode();
+        }
+        if (base64 != null) {
+            return base64.hashCode();
+        }
+        return Arrays.hashCode(rawBytes);
+    }
+
+    @Override
+    public String toString() {
+        if (location != null) {
+            return "Artwork[location=" + (location.length() > 80 ? location.substring(0, 80) + "..." : location) + "]";
+        }
+        int size = rawBytes != null ? rawBytes.length : base64.length() / 4 * 3;
+        return "Artwork[inline, mimeType=" + declaredMimeType + ", ~" + size + " bytes]";
+    }
+}
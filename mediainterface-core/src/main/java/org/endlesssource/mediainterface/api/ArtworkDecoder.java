@@ -1,5 +1,9 @@
 package org.endlesssource.mediainterface.api;
 
+import org.endlesssource.mediainterface.artwork.HttpArtworkLoader;
+import org.endlesssource.mediainterface.jfr.ArtworkDecodeEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
@@ -7,9 +11,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
 /**
  * Utility for decoding artwork payloads returned by {@link NowPlaying#getArtwork()}.
+ * Every call decodes from scratch; use {@link org.endlesssource.mediainterface.artwork.ArtworkCache}
+ * when the same artwork is looked up repeatedly.
  */
 public final class ArtworkDecoder {
 
@@ -18,6 +26,8 @@ public final class ArtworkDecoder {
 
     /**
      * Decodes artwork from data URI, plain base64, file path, or file/http URL.
+     * http(s) URLs are fetched through {@link HttpArtworkLoader#shared()}, so they are bounded by its timeouts
+     * and size limit.
      *
      * @param artworkValue artwork field value
      * @return decoded bytes if successful
@@ -28,6 +38,25 @@ public final class ArtworkDecoder {
         }
 
         String value = artworkValue.trim();
+        ArtworkDecodeEvent event = new ArtworkDecodeEvent();
+        event.begin();
+        Optional<byte[]> bytes = decode(value);
+        event.complete(null, null, sourceOf(value), bytes.map(b -> (long) b.length).orElse(0L),
+                bytes.isPresent() ? MediaEvent.OK : MediaEvent.FAILED);
+        return bytes;
+    }
+
+    private static String sourceOf(String value) {
+        if (value.startsWith("data:")) {
+            return "data";
+        }
+        if (value.startsWith("http://") || value.startsWith("https://")) {
+            return "http";
+        }
+        return value.startsWith("file:") ? "file" : "path";
+    }
+
+    private static Optional<byte[]> decode(String value) {
         String base64 = value;
         int comma = value.indexOf(',');
         if (value.startsWith("data:") && comma >= 0) {
@@ -40,7 +69,15 @@ public final class ArtworkDecoder {
             }
         }
 
-        if (value.startsWith("file:") || value.startsWith("http://") || value.startsWith("https://")) {
+        if (value.startsWith("http://") || value.startsWith("https://")) {
+            try {
+                return Optional.of(HttpArtworkLoader.shared().fetch(value).join());
+            } catch (CompletionException | CancellationException ex) {
+                return Optional.empty();
+            }
+        }
+
+        if (value.startsWith("file:")) {
             try {
                 URL url = URI.create(value).toURL();
                 return Optional.of(url.openStream().readAllBytes());
@@ -0,0 +1,131 @@
+package org.endlesssource.mediainterface.api;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs blocking transport commands for the default async methods of {@link MediaTransportControls}.
+ * <p>
+ * A small shared pool bounds the number of threads no matter how many commands are queued, and commands sent to the
+ * same controls run one after another in submission order.
+ * <p>
+ * Each command gets a {@link #COMMAND_DEADLINE}. A command that misses it completes as timed out, so later commands
+ * to the same controls are not held up behind it. While it is still blocked, further commands to that controls fail
+ * fast instead of taking another thread, and the pool grows by one thread so the blocked call does not count
+ * against the threads other players share.
+ */
+final class BlockingCommands {
+    static final Duration COMMAND_DEADLINE = Duration.ofSeconds(5);
+    private static final int THREADS = 4;
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ThreadPoolExecutor POOL = createPool();
+    private static final Map<MediaTransportControls, Lane> LANES = new WeakHashMap<>();
+
+    private BlockingCommands() {
+    }
+
+    static CompletableFuture<CommandResult> submit(MediaTransportControls controls, BooleanSupplier command) {
+        return submit(controls, command, COMMAND_DEADLINE);
+    }
+
+    static CompletableFuture<CommandResult> submit(MediaTransportControls controls, BooleanSupplier command,
+                                                   Duration deadline) {
+        synchronized (LANES) {
+            Lane lane = LANES.computeIfAbsent(controls, key -> new Lane());
+            CompletableFuture<CommandResult> next = lane.tail
+                    .handle((ignored, error) -> null)
+                    .thenCompose(ignored -> start(lane, command, deadline));
+            lane.tail = next;
+            return next;
+        }
+    }
+
+    private static CompletableFuture<CommandResult> start(Lane lane, BooleanSupplier command, Duration deadline) {
+        synchronized (lane) {
+            if (lane.blocked) {
+                return CompletableFuture.completedFuture(
+                        CommandResult.timedOut("The previous command to this player has not returned"));
+            }
+        }
+        CompletableFuture<CommandResult> result = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        try {
+            POOL.execute(() -> {
+                CommandResult outcome = run(command);
+                boolean late;
+                synchronized (lane) {
+                    late = settled.getAndSet(true);
+                    if (late) {
+                        lane.blocked = false;
+                        resizePool(-1);
+                    }
+                }
+                if (!late) {
+                    result.complete(outcome);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(CommandResult.failed(e.getMessage()));
+        }
+        CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            synchronized (lane) {
+                if (settled.getAndSet(true)) {
+                    return;
+                }
+                lane.blocked = true;
+                resizePool(1);
+            }
+            result.complete(CommandResult.timedOut("No answer within " + deadline.toMillis() + " ms"));
+        });
+        return result;
+    }
+
+    private static CommandResult run(BooleanSupplier command) {
+        try {
+            return CommandResult.of(command.getAsBoolean());
+        } catch (RuntimeException e) {
+            return CommandResult.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps {@link #THREADS} threads free for answering players by adding one for every command past its deadline
+     */
+    private static void resizePool(int delta) {
+        synchronized (POOL) {
+            int size = POOL.getMaximumPoolSize() + delta;
+            if (delta > 0) {
+                POOL.setMaximumPoolSize(size);
+                POOL.setCorePoolSize(size);
+            } else {
+                POOL.setCorePoolSize(size);
+                POOL.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-command-" + THREAD_IDS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static final class Lane {
+        CompletableFuture<CommandResult> tail = CompletableFuture.completedFuture(null);
+        boolean blocked;
+    }
+}
@@ -0,0 +1,30 @@
+package org.endlesssource.mediainterface.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport command that can be sent to many sessions at once, see
+ * {@link SystemMediaInterface#sendCommand}.
+ */
+public enum BulkCommand {
+    PLAY,
+    PAUSE,
+    TOGGLE_PLAY_PAUSE,
+    NEXT,
+    PREVIOUS,
+    STOP;
+
+    /**
+     * @return completes with the command's outcome, see the matching {@code *Async} method
+     */
+    public CompletableFuture<CommandResult> sendTo(MediaTransportControls controls) {
+        return switch (this) {
+            case PLAY -> controls.playAsync();
+            case PAUSE -> controls.pauseAsync();
+            case TOGGLE_PLAY_PAUSE -> controls.togglePlayPauseAsync();
+            case NEXT -> controls.nextAsync();
+            case PREVIOUS -> controls.previousAsync();
+            case STOP -> controls.stopAsync();
+        };
+    }
+}
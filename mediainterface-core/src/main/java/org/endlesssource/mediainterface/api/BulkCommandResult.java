@@ -0,0 +1,43 @@
+package org.endlesssource.mediainterface.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Outcome of a command sent to several sessions.
+ *
+ * @param command     the command that was sent
+ * @param results     outcome per session id, in the order the sessions were listed
+ * @param resumeToken for {@link BulkCommand#PAUSE}, the sessions that were playing; empty for other commands
+ */
+public record BulkCommandResult(BulkCommand command, Map<String, CommandResult> results, ResumeToken resumeToken) {
+
+    public BulkCommandResult {
+        Objects.requireNonNull(command, "command must not be null");
+        results = Collections.unmodifiableMap(new LinkedHashMap<>(
+                Objects.requireNonNull(results, "results must not be null")));
+        Objects.requireNonNull(resumeToken, "resumeToken must not be null");
+    }
+
+    /**
+     * @return true if every targeted session accepted the command, including when no session was targeted
+     */
+    public boolean allSucceeded() {
+        return results.values().stream().allMatch(CommandResult::isSuccess);
+    }
+
+    /**
+     * @return the sessions that did not accept the command, with their outcome
+     */
+    public Map<String, CommandResult> failures() {
+        Map<String, CommandResult> failures = new LinkedHashMap<>();
+        results.forEach((sessionId, result) -> {
+            if (!result.isSuccess()) {
+                failures.put(sessionId, result);
+            }
+        });
+        return failures;
+    }
+}
@@ -0,0 +1,79 @@
+package org.endlesssource.mediainterface.api;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Sends one command to many sessions for {@link SystemMediaInterface#sendCommand}.
+ * <p>
+ * Every command is started before any reply is awaited, so the whole batch takes as long as the slowest player, and
+ * the deadline bounds that. A session that has not answered by then is reported as timed out; its command is not
+ * cancelled.
+ */
+final class BulkDispatch {
+
+    private BulkDispatch() {
+    }
+
+    static CompletableFuture<BulkCommandResult> dispatch(List<MediaSession> sessions,
+                                                         Predicate<? super MediaSession> target,
+                                                         BulkCommand command,
+                                                         Duration deadline) {
+        Objects.requireNonNull(target, "target must not be null");
+        Objects.requireNonNull(command, "command must not be null");
+        Objects.requireNonNull(deadline, "deadline must not be null");
+        if (deadline.isZero() || deadline.isNegative()) {
+            throw new IllegalArgumentException("deadline must be positive");
+        }
+
+        Map<String, CompletableFuture<CommandResult>> pending = new LinkedHashMap<>();
+        Set<String> wasPlaying = new HashSet<>();
+        for (MediaSession session : sessions) {
+            String sessionId = session.getSessionId();
+            if (pending.containsKey(sessionId) || !target.test(session)) {
+                continue;
+            }
+            MediaTransportControls controls = session.getControls();
+            if (command == BulkCommand.PAUSE && controls.getPlaybackState() == PlaybackState.PLAYING) {
+                wasPlaying.add(sessionId);
+            }
+            pending.put(sessionId, withDeadline(send(command, controls), deadline));
+        }
+
+        return CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, CommandResult> results = new LinkedHashMap<>();
+                    pending.forEach((sessionId, result) -> results.put(sessionId, result.join()));
+                    // A timed out pause may still land, so only sessions that rejected it are left out.
+                    wasPlaying.removeIf(sessionId -> results.get(sessionId).status() == CommandResult.Status.FAILED);
+                    return new BulkCommandResult(command, results, new ResumeToken(wasPlaying));
+                });
+    }
+
+    private static CompletableFuture<CommandResult> send(BulkCommand command, MediaTransportControls controls) {
+        try {
+            return command.sendTo(controls);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(CommandResult.failed(e.getMessage()));
+        }
+    }
+
+    /**
+     * Bound a reply without completing the provider's own future.
+     */
+    private static CompletableFuture<CommandResult> withDeadline(CompletableFuture<CommandResult> sent, Duration deadline) {
+        CompletableFuture<CommandResult> bounded = new CompletableFuture<>();
+        sent.whenComplete((result, error) -> bounded.complete(error == null ? result : CommandResult.failed(error.getMessage())));
+        return bounded.completeOnTimeout(
+                CommandResult.timedOut("No reply within " + deadline.toMillis() + " ms"),
+                deadline.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
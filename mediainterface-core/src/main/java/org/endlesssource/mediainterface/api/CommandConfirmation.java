@@ -0,0 +1,55 @@
+package org.endlesssource.mediainterface.api;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default confirmation for the {@code *Async(Duration)} methods of {@link MediaTransportControls}: watches the
+ * reported playback state until it matches or the timeout passes. Providers that know when state is observed
+ * override those methods instead.
+ */
+final class CommandConfirmation {
+    private static final long POLL_INTERVAL_MS = 25;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mediainterface-command-confirm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CommandConfirmation() {
+    }
+
+    static CompletableFuture<CommandResult> confirm(MediaTransportControls controls,
+                                                    CompletableFuture<CommandResult> sent,
+                                                    PlaybackState expected,
+                                                    Duration timeout) {
+        return sent.thenCompose(result -> {
+            if (!result.isSuccess()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            CompletableFuture<CommandResult> confirmed = new CompletableFuture<>();
+            long deadline = System.nanoTime() + timeout.toNanos();
+            ScheduledFuture<?> poll = SCHEDULER.scheduleWithFixedDelay(() -> {
+                if (controls.getPlaybackState() == expected) {
+                    confirmed.complete(CommandResult.success());
+                } else if (System.nanoTime() - deadline >= 0) {
+                    confirmed.complete(CommandResult.timedOut(
+                            "Player did not report " + expected + " within " + timeout.toMillis() + " ms"));
+                }
+            }, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            confirmed.whenComplete((ignored, error) -> poll.cancel(false));
+            return confirmed;
+        });
+    }
+
+    /**
+     * @return the state a toggle should lead to from {@code current}
+     */
+    static PlaybackState toggled(PlaybackState current) {
+        return current == PlaybackState.PLAYING ? PlaybackState.PAUSED : PlaybackState.PLAYING;
+    }
+}
@@ -0,0 +1,50 @@
+package org.endlesssource.mediainterface.api;
+
+import java.util.Objects;
+
+/**
+ * Outcome of an asynchronous transport command.
+ *
+ * @param status  how the command ended
+ * @param message detail for failed commands, empty on success
+ */
+public record CommandResult(Status status, String message) {
+    private static final CommandResult SUCCESS = new CommandResult(Status.SUCCESS, "");
+
+    public enum Status {
+        /** The player accepted the command. */
+        SUCCESS,
+        /** The player rejected the command or it could not be sent. */
+        FAILED,
+        /** The player did not answer in time. */
+        TIMED_OUT
+    }
+
+    public CommandResult {
+        Objects.requireNonNull(status, "status must not be null");
+        message = message == null ? "" : message;
+    }
+
+    public static CommandResult success() {
+        return SUCCESS;
+    }
+
+    public static CommandResult failed(String message) {
+        return new CommandResult(Status.FAILED, message);
+    }
+
+    public static CommandResult timedOut(String message) {
+        return new CommandResult(Status.TIMED_OUT, message);
+    }
+
+    /**
+     * @param sent the return value of a blocking transport command
+     */
+    public static CommandResult of(boolean sent) {
+        return sent ? SUCCESS : failed("Command was not accepted");
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+}
@@ -48,4 +48,12 @@ public interface MediaSession {
      * @param listener The listener to remove
      */
     void removeListener(MediaSessionListener listener);
+
+    /**
+     * Get how responsive the application behind this session is
+     * @return Current health; implementations without call deadlines always report healthy
+     */
+    default SessionHealth getHealth() {
+        return SessionHealth.HEALTHY;
+    }
 }
@@ -37,4 +37,11 @@ public interface MediaSessionListener {
      * @param session The new session
      */
     default void onSessionAdded(MediaSession session) {}
+
+    /**
+     * Called when the application behind a session stops or resumes answering
+     * @param session The session that changed
+     * @param health The new health
+     */
+    default void onSessionHealthChanged(MediaSession session, SessionHealth health) {}
 }
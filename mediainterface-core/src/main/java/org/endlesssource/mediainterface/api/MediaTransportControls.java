@@ -1,9 +1,15 @@
 package org.endlesssource.mediainterface.api;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transport controls for media playback
+ * <p>
+ * The blocking methods wait for the player. The {@code *Async} variants return immediately; by default they run the
+ * blocking method on a small shared pool, in submission order per controls instance, and complete as
+ * {@link CommandResult.Status#TIMED_OUT} if the player does not answer within a few seconds. Providers may override
+ * them with natively asynchronous calls.
  */
 public interface MediaTransportControls {
 
@@ -44,12 +50,107 @@ public interface MediaTransportControls {
     boolean stop();
 
     /**
-     * Seek to a specific position
+     * Seek to a specific position. Providers may coalesce seeks that arrive while one is in flight, as
+     * {@link #seekAsync(Duration)} does, so the result can be that of a later position.
      * @param position The position to seek to
      * @return true if the command was sent successfully
      */
     boolean seek(Duration position);
 
+    /**
+     * Asynchronous {@link #play()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> playAsync() {
+        return BlockingCommands.submit(this, this::play);
+    }
+
+    /**
+     * Asynchronous {@link #pause()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> pauseAsync() {
+        return BlockingCommands.submit(this, this::pause);
+    }
+
+    /**
+     * Asynchronous {@link #togglePlayPause()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> togglePlayPauseAsync() {
+        return BlockingCommands.submit(this, this::togglePlayPause);
+    }
+
+    /**
+     * Asynchronous {@link #next()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> nextAsync() {
+        return BlockingCommands.submit(this, this::next);
+    }
+
+    /**
+     * Asynchronous {@link #previous()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> previousAsync() {
+        return BlockingCommands.submit(this, this::previous);
+    }
+
+    /**
+     * Asynchronous {@link #stop()}
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> stopAsync() {
+        return BlockingCommands.submit(this, this::stop);
+    }
+
+    /**
+     * Asynchronous {@link #seek(Duration)}
+     * @param position The position to seek to
+     * @return completes with the command's outcome; never completes exceptionally
+     */
+    default CompletableFuture<CommandResult> seekAsync(Duration position) {
+        return BlockingCommands.submit(this, () -> seek(position));
+    }
+
+    /**
+     * {@link #playAsync()} that also waits for the player to report {@link PlaybackState#PLAYING}
+     * @param confirmTimeout how long to wait for the state change
+     * @return completes successfully once the change is observed, otherwise with the failure or a timeout
+     */
+    default CompletableFuture<CommandResult> playAsync(Duration confirmTimeout) {
+        return CommandConfirmation.confirm(this, playAsync(), PlaybackState.PLAYING, confirmTimeout);
+    }
+
+    /**
+     * {@link #pauseAsync()} that also waits for the player to report {@link PlaybackState#PAUSED}
+     * @param confirmTimeout how long to wait for the state change
+     * @return completes successfully once the change is observed, otherwise with the failure or a timeout
+     */
+    default CompletableFuture<CommandResult> pauseAsync(Duration confirmTimeout) {
+        return CommandConfirmation.confirm(this, pauseAsync(), PlaybackState.PAUSED, confirmTimeout);
+    }
+
+    /**
+     * {@link #togglePlayPauseAsync()} that also waits for the player to leave or enter {@link PlaybackState#PLAYING}
+     * @param confirmTimeout how long to wait for the state change
+     * @return completes successfully once the change is observed, otherwise with the failure or a timeout
+     */
+    default CompletableFuture<CommandResult> togglePlayPauseAsync(Duration confirmTimeout) {
+        PlaybackState expected = CommandConfirmation.toggled(getPlaybackState());
+        return CommandConfirmation.confirm(this, togglePlayPauseAsync(), expected, confirmTimeout);
+    }
+
+    /**
+     * {@link #stopAsync()} that also waits for the player to report {@link PlaybackState#STOPPED}
+     * @param confirmTimeout how long to wait for the state change
+     * @return completes successfully once the change is observed, otherwise with the failure or a timeout
+     */
+    default CompletableFuture<CommandResult> stopAsync(Duration confirmTimeout) {
+        return CommandConfirmation.confirm(this, stopAsync(), PlaybackState.STOPPED, confirmTimeout);
+    }
+
     /**
      * Get the current playback state
      * @return The current playback state
@@ -27,11 +27,21 @@ public interface NowPlaying {
     Optional<String> getAlbum();
 
     /**
-     * Get the artwork/thumbnail URL or file path
+     * Get the artwork/thumbnail URL or file path.
+     * Inline artwork is returned as a data URI or base64 string; prefer {@link #getArtworkHandle()},
+     * which avoids building and decoding that string.
      * @return Optional containing artwork location, or empty if none
      */
     Optional<String> getArtwork();
 
+    /**
+     * Get a handle to the artwork with lazy access to its bytes, mime type and content hash
+     * @return Optional containing the artwork handle, or empty if none
+     */
+    default Optional<Artwork> getArtworkHandle() {
+        return getArtwork().map(Artwork::fromLocator);
+    }
+
     /**
      * Get the total duration of the media
      * @return Optional containing duration, or empty if unknown
@@ -0,0 +1,32 @@
+package org.endlesssource.mediainterface.api;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The sessions a bulk {@link BulkCommand#PAUSE} stopped while they were playing. Pass it to
+ * {@link SystemMediaInterface#resume} to start exactly those sessions again.
+ *
+ * @param sessionIds ids of the paused sessions
+ */
+public record ResumeToken(Set<String> sessionIds) implements Predicate<MediaSession> {
+    private static final ResumeToken EMPTY = new ResumeToken(Set.of());
+
+    public ResumeToken {
+        sessionIds = Set.copyOf(Objects.requireNonNull(sessionIds, "sessionIds must not be null"));
+    }
+
+    public static ResumeToken empty() {
+        return EMPTY;
+    }
+
+    public boolean isEmpty() {
+        return sessionIds.isEmpty();
+    }
+
+    @Override
+    public boolean test(MediaSession session) {
+        return sessionIds.contains(session.getSessionId());
+    }
+}
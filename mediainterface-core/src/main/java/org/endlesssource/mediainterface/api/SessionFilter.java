@@ -0,0 +1,157 @@
+package org.endlesssource.mediainterface.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Selects which media sessions an interface monitors.
+ * <p>
+ * Session id patterns are matched against the platform identifier (the MPRIS bus name on Linux, the app user model
+ * id on Windows) before a session is created, so rejected players cost nothing beyond discovery. The identity
+ * predicate needs the application name and is checked once per player after it has been resolved.
+ * Patterns are case-insensitive globs where {@code *} matches any run of characters and {@code ?} one character.
+ */
+public final class SessionFilter {
+    private static final SessionFilter ACCEPT_ALL = new SessionFilter(List.of(), List.of(), null);
+
+    private final List<String> allowedIds;
+    private final List<String> deniedIds;
+    private final List<Pattern> allowedPatterns;
+    private final List<Pattern> deniedPatterns;
+    private final Predicate<String> identityPredicate;
+
+    private SessionFilter(List<String> allowedIds, List<String> deniedIds, Predicate<String> identityPredicate) {
+        this.allowedIds = List.copyOf(allowedIds);
+        this.deniedIds = List.copyOf(deniedIds);
+        this.allowedPatterns = compile(this.allowedIds);
+        this.deniedPatterns = compile(this.deniedIds);
+        this.identityPredicate = identityPredicate;
+    }
+
+    public static SessionFilter acceptAll() {
+        return ACCEPT_ALL;
+    }
+
+    /**
+     * @param patterns session id globs; when any are set, only matching sessions are monitored
+     */
+    public SessionFilter withAllowedIds(String... patterns) {
+        return new SessionFilter(concat(allowedIds, patterns), deniedIds, identityPredicate);
+    }
+
+    /**
+     * @param patterns session id globs that are never monitored, even if allowed
+     */
+    public SessionFilter withDeniedIds(String... patterns) {
+        return new SessionFilter(allowedIds, concat(deniedIds, patterns), identityPredicate);
+    }
+
+    /**
+     * @param predicate tested against the application name; sessions it rejects are dropped
+     */
+    public SessionFilter withIdentity(Predicate<String> predicate) {
+        return new SessionFilter(allowedIds, deniedIds, Objects.requireNonNull(predicate, "predicate must not be null"));
+    }
+
+    public List<String> getAllowedIds() {
+        return allowedIds;
+    }
+
+    public List<String> getDeniedIds() {
+        return deniedIds;
+    }
+
+    /**
+     * @return true if a session with this platform id may be monitored
+     */
+    public boolean acceptsId(String sessionId) {
+        if (sessionId == null) {
+            return false;
+        }
+        for (Pattern denied : deniedPatterns) {
+            if (denied.matcher(sessionId).matches()) {
+                return false;
+            }
+        }
+        if (allowedPatterns.isEmpty()) {
+            return true;
+        }
+        for (Pattern allowed : allowedPatterns) {
+            if (allowed.matcher(sessionId).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if a session owned by this application may be monitored
+     */
+    public boolean acceptsIdentity(String applicationName) {
+        return identityPredicate == null || identityPredicate.test(applicationName == null ? "" : applicationName);
+    }
+
+    /**
+     * @return true if an identity predicate is set, i.e. {@link #acceptsIdentity} can reject anything
+     */
+    public boolean hasIdentityPredicate() {
+        return identityPredicate != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionFilter other)) {
+            return false;
+        }
+        return allowedIds.equals(other.allowedIds)
+                && deniedIds.equals(other.deniedIds)
+                && Objects.equals(identityPredicate, other.identityPredicate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(allowedIds, deniedIds, identityPredicate);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionFilter{allowed=" + allowedIds + ", denied=" + deniedIds
+                + (identityPredicate == null ? "" : ", identityPredicate") + "}";
+    }
+
+    private static List<String> concat(List<String> existing, String[] patterns) {
+        List<String> combined = new ArrayList<>(existing);
+        for (String pattern : Arrays.asList(patterns)) {
+            if (pattern == null || pattern.isBlank()) {
+                throw new IllegalArgumentException("pattern must not be blank");
+            }
+            combined.add(pattern);
+        }
+        return combined;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            StringBuilder regex = new StringBuilder();
+            for (String literal : glob.split("(?=[*?])|(?<=[*?])")) {
+                if (literal.equals("*")) {
+                    regex.append(".*");
+                } else if (literal.equals("?")) {
+                    regex.append('.');
+                } else if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal));
+                }
+            }
+            patterns.add(Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,13 @@
+package org.endlesssource.mediainterface.api;
+
+/**
+ * How responsive the application behind a {@link MediaSession} currently is.
+ */
+public enum SessionHealth {
+    /** Calls are answered within their deadline. */
+    HEALTHY,
+    /** Calls timed out repeatedly; the session is not refreshed and its state may be stale. */
+    UNRESPONSIVE,
+    /** A single probe call is checking whether the application answers again. */
+    RECOVERING
+}
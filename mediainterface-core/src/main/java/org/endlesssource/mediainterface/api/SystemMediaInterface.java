@@ -1,7 +1,10 @@
 package org.endlesssource.mediainterface.api;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * The main entry point for system media control
@@ -53,6 +56,51 @@ public interface SystemMediaInterface extends AutoCloseable {
      */
     boolean isEventDrivenEnabled();
 
+    /**
+     * Send a command to every session matching {@code target} at once, for example to pause all players when a call
+     * starts. Replies are awaited in parallel, so the batch takes as long as the slowest player, at most
+     * {@code deadline}.
+     * @param target   selects the sessions to command
+     * @param command  the command to send
+     * @param deadline sessions that have not answered by then are reported as timed out
+     * @return completes with the outcome per session; never completes exceptionally
+     * @throws IllegalArgumentException if {@code deadline} is not positive
+     */
+    default CompletableFuture<BulkCommandResult> sendCommand(Predicate<? super MediaSession> target,
+                                                             BulkCommand command,
+                                                             Duration deadline) {
+        return BulkDispatch.dispatch(getAllSessions(), target, command, deadline);
+    }
+
+    /**
+     * Play the sessions a bulk pause stopped. Sessions that have gone away since are skipped.
+     * @param token    from {@link BulkCommandResult#resumeToken()}
+     * @param deadline sessions that have not answered by then are reported as timed out
+     */
+    default CompletableFuture<BulkCommandResult> resume(ResumeToken token, Duration deadline) {
+        return sendCommand(token, BulkCommand.PLAY, deadline);
+    }
+
+    /**
+     * Whether {@link #updateOptions(SystemMediaOptions)} is supported, so callers can check before reconfiguring.
+     * The platform interfaces support it; shared handles do not.
+     * @return true if this interface can be reconfigured in place
+     */
+    default boolean supportsOptionUpdates() {
+        return false;
+    }
+
+    /**
+     * Apply new options without recreating the interface. Refresh and poll intervals, position tracking and event
+     * delivery change for existing sessions; session initialization and call timeout settings apply to sessions
+     * discovered afterwards. Connections, sessions and cached state are kept.
+     * @param options The new options
+     * @throws UnsupportedOperationException if {@link #supportsOptionUpdates()} is false
+     */
+    default void updateOptions(SystemMediaOptions options) {
+        throw new UnsupportedOperationException("This media interface cannot be reconfigured");
+    }
+
     /**
      * Close and release resources held by this interface.
      */
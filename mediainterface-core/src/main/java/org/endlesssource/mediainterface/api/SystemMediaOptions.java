@@ -2,6 +2,7 @@ package org.endlesssource.mediainterface.api;
 
 import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Configuration options for {@link SystemMediaInterface} implementations.
@@ -9,24 +10,43 @@ import java.util.Objects;
 public final class SystemMediaOptions {
     public static final Duration DEFAULT_SESSION_POLL_INTERVAL = Duration.ofSeconds(1);
     public static final Duration DEFAULT_SESSION_UPDATE_INTERVAL = Duration.ofMillis(200);
+    public static final int DEFAULT_SESSION_INIT_PARALLELISM = 4;
+    public static final Duration DEFAULT_SESSION_INIT_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_PLAYER_CALL_TIMEOUT = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_SESSION_REMOVAL_GRACE = Duration.ZERO;
+    public static final Duration DEFAULT_SEEK_COALESCE_INTERVAL = Duration.ZERO;
 
     private final boolean eventDrivenEnabled;
     private final Duration sessionPollInterval;
     private final Duration sessionUpdateInterval;
     private final boolean positionUpdatesEnabled;
+    private final int sessionInitParallelism;
+    private final Duration sessionInitTimeout;
+    private final Duration playerCallTimeout;
+    private final boolean proxyPlayersIgnored;
+    private final SessionFilter sessionFilter;
+    private final Duration sessionRemovalGrace;
+    private final Duration seekCoalesceInterval;
 
-    private SystemMediaOptions(boolean eventDrivenEnabled,
-                               Duration sessionPollInterval,
-                               Duration sessionUpdateInterval,
-                               boolean positionUpdatesEnabled) {
-        this.eventDrivenEnabled = eventDrivenEnabled;
-        this.sessionPollInterval = requirePositive("sessionPollInterval", sessionPollInterval);
-        this.sessionUpdateInterval = requirePositive("sessionUpdateInterval", sessionUpdateInterval);
-        this.positionUpdatesEnabled = positionUpdatesEnabled;
+    private SystemMediaOptions(Values values) {
+        this.eventDrivenEnabled = values.eventDrivenEnabled;
+        this.sessionPollInterval = requirePositive("sessionPollInterval", values.sessionPollInterval);
+        this.sessionUpdateInterval = requirePositive("sessionUpdateInterval", values.sessionUpdateInterval);
+        this.positionUpdatesEnabled = values.positionUpdatesEnabled;
+        if (values.sessionInitParallelism <= 0) {
+            throw new IllegalArgumentException("sessionInitParallelism must be positive");
+        }
+        this.sessionInitParallelism = values.sessionInitParallelism;
+        this.sessionInitTimeout = requirePositive("sessionInitTimeout", values.sessionInitTimeout);
+        this.playerCallTimeout = requirePositive("playerCallTimeout", values.playerCallTimeout);
+        this.proxyPlayersIgnored = values.proxyPlayersIgnored;
+        this.sessionFilter = Objects.requireNonNull(values.sessionFilter, "sessionFilter must not be null");
+        this.sessionRemovalGrace = requireNonNegative("sessionRemovalGrace", values.sessionRemovalGrace);
+        this.seekCoalesceInterval = requireNonNegative("seekCoalesceInterval", values.seekCoalesceInterval);
     }
 
     public static SystemMediaOptions defaults() {
-        return new SystemMediaOptions(true, DEFAULT_SESSION_POLL_INTERVAL, DEFAULT_SESSION_UPDATE_INTERVAL, true);
+        return new SystemMediaOptions(new Values());
     }
 
     public boolean isEventDrivenEnabled() {
@@ -45,20 +65,169 @@ public final class SystemMediaOptions {
         return positionUpdatesEnabled;
     }
 
+    /**
+     * @return how many sessions may be initialized at the same time during discovery
+     */
+    public int getSessionInitParallelism() {
+        return sessionInitParallelism;
+    }
+
+    /**
+     * @return how long discovery waits for one session's first refresh before adding it as pending
+     */
+    public Duration getSessionInitTimeout() {
+        return sessionInitTimeout;
+    }
+
+    /**
+     * @return deadline for a single call into a player; players that keep missing it are backed off from
+     */
+    public Duration getPlayerCallTimeout() {
+        return playerCallTimeout;
+    }
+
+    /**
+     * @return whether services that only mirror another player (such as playerctld on Linux) are skipped; off by
+     * default, so such services show up as sessions of their own
+     */
+    public boolean isProxyPlayersIgnored() {
+        return proxyPlayersIgnored;
+    }
+
+    /**
+     * @return which sessions are monitored; rejected sessions are skipped at discovery
+     */
+    public SessionFilter getSessionFilter() {
+        return sessionFilter;
+    }
+
+    /**
+     * @return how long a vanished session is kept; if the same player reappears in time it is revived without
+     * removal and add events. Zero, the default, reports removals immediately
+     */
+    public Duration getSessionRemovalGrace() {
+        return sessionRemovalGrace;
+    }
+
+    /**
+     * @return shortest time between two seeks sent to a player; seeks requested in between collapse to the latest.
+     * Zero, the default, only collapses seeks requested while one is still in flight
+     */
+    public Duration getSeekCoalesceInterval() {
+        return seekCoalesceInterval;
+    }
+
     public SystemMediaOptions withEventDrivenEnabled(boolean enabled) {
-        return new SystemMediaOptions(enabled, sessionPollInterval, sessionUpdateInterval, positionUpdatesEnabled);
+        return with(values -> values.eventDrivenEnabled = enabled);
     }
 
     public SystemMediaOptions withSessionPollInterval(Duration interval) {
-        return new SystemMediaOptions(eventDrivenEnabled, interval, sessionUpdateInterval, positionUpdatesEnabled);
+        return with(values -> values.sessionPollInterval = interval);
     }
 
     public SystemMediaOptions withSessionUpdateInterval(Duration interval) {
-        return new SystemMediaOptions(eventDrivenEnabled, sessionPollInterval, interval, positionUpdatesEnabled);
+        return with(values -> values.sessionUpdateInterval = interval);
     }
 
     public SystemMediaOptions withPositionUpdatesEnabled(boolean enabled) {
-        return new SystemMediaOptions(eventDrivenEnabled, sessionPollInterval, sessionUpdateInterval, enabled);
+        return with(values -> values.positionUpdatesEnabled = enabled);
+    }
+
+    public SystemMediaOptions withSessionInitParallelism(int parallelism) {
+        return with(values -> values.sessionInitParallelism = parallelism);
+    }
+
+    public SystemMediaOptions withSessionInitTimeout(Duration timeout) {
+        return with(values -> values.sessionInitTimeout = timeout);
+    }
+
+    public SystemMediaOptions withPlayerCallTimeout(Duration timeout) {
+        return with(values -> values.playerCallTimeout = timeout);
+    }
+
+    /**
+     * @param ignored skip services that only mirror another player, so each player is reported once
+     */
+    public SystemMediaOptions withProxyPlayersIgnored(boolean ignored) {
+        return with(values -> values.proxyPlayersIgnored = ignored);
+    }
+
+    public SystemMediaOptions withSessionFilter(SessionFilter filter) {
+        return with(values -> values.sessionFilter = filter);
+    }
+
+    /**
+     * @param grace how long to keep a vanished session before reporting it removed; zero, the default, removes it
+     *              immediately. A few seconds hide players that restart or briefly drop off the bus
+     */
+    public SystemMediaOptions withSessionRemovalGrace(Duration grace) {
+        return with(values -> values.sessionRemovalGrace = grace);
+    }
+
+    /**
+     * @param interval shortest time between two seeks sent to a player; zero, the default, only waits for the
+     *                 previous seek to finish. Around 100 ms keeps scrubbing from flooding slow players, at the cost
+     *                 of making back-to-back {@code seek} calls wait
+     */
+    public SystemMediaOptions withSeekCoalesceInterval(Duration interval) {
+        return with(values -> values.seekCoalesceInterval = interval);
+    }
+
+    private SystemMediaOptions with(Consumer<Values> change) {
+        Values values = new Values(this);
+        change.accept(values);
+        return new SystemMediaOptions(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SystemMediaOptions other)) {
+            return false;
+        }
+        return eventDrivenEnabled == other.eventDrivenEnabled
+                && positionUpdatesEnabled == other.positionUpdatesEnabled
+                && sessionInitParallelism == other.sessionInitParallelism
+                && proxyPlayersIgnored == other.proxyPlayersIgnored
+                && sessionPollInterval.equals(other.sessionPollInterval)
+                && sessionUpdateInterval.equals(other.sessionUpdateInterval)
+                && sessionInitTimeout.equals(other.sessionInitTimeout)
+                && playerCallTimeout.equals(other.playerCallTimeout)
+                && sessionFilter.equals(other.sessionFilter)
+                && sessionRemovalGrace.equals(other.sessionRemovalGrace)
+                && seekCoalesceInterval.equals(other.seekCoalesceInterval);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventDrivenEnabled, sessionPollInterval, sessionUpdateInterval, positionUpdatesEnabled,
+                sessionInitParallelism, sessionInitTimeout, playerCallTimeout, proxyPlayersIgnored, sessionFilter,
+                sessionRemovalGrace, seekCoalesceInterval);
+    }
+
+    @Override
+    public String toString() {
+        return "SystemMediaOptions{eventDriven=" + eventDrivenEnabled
+                + ", sessionPollInterval=" + sessionPollInterval
+                + ", sessionUpdateInterval=" + sessionUpdateInterval
+                + ", positionUpdates=" + positionUpdatesEnabled
+                + ", sessionInitParallelism=" + sessionInitParallelism
+                + ", sessionInitTimeout=" + sessionInitTimeout
+                + ", playerCallTimeout=" + playerCallTimeout
+                + ", proxyPlayersIgnored=" + proxyPlayersIgnored
+                + ", sessionFilter=" + sessionFilter
+                + ", sessionRemovalGrace=" + sessionRemovalGrace
+                + ", seekCoalesceInterval=" + seekCoalesceInterval + "}";
+    }
+
+    private static Duration requireNonNegative(String name, Duration value) {
+        Objects.requireNonNull(value, name + " must not be null");
+        if (value.isNegative()) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        return value;
     }
 
     private static Duration requirePositive(String name, Duration value) {
@@ -68,4 +237,38 @@ public final class SystemMediaOptions {
         }
         return value;
     }
+
+    /**
+     * Mutable copy of every option, so each {@code with} method only names the option it changes.
+     */
+    private static final class Values {
+        private boolean eventDrivenEnabled = true;
+        private Duration sessionPollInterval = DEFAULT_SESSION_POLL_INTERVAL;
+        private Duration sessionUpdateInterval = DEFAULT_SESSION_UPDATE_INTERVAL;
+        private boolean positionUpdatesEnabled = true;
+        private int sessionInitParallelism = DEFAULT_SESSION_INIT_PARALLELISM;
+        private Duration sessionInitTimeout = DEFAULT_SESSION_INIT_TIMEOUT;
+        private Duration playerCallTimeout = DEFAULT_PLAYER_CALL_TIMEOUT;
+        private boolean proxyPlayersIgnored = false;
+        private SessionFilter sessionFilter = SessionFilter.acceptAll();
+        private Duration sessionRemovalGrace = DEFAULT_SESSION_REMOVAL_GRACE;
+        private Duration seekCoalesceInterval = DEFAULT_SEEK_COALESCE_INTERVAL;
+
+        private Values() {
+        }
+
+        private Values(SystemMediaOptions options) {
+            eventDrivenEnabled = options.eventDrivenEnabled;
+            sessionPollInterval = options.sessionPollInterval;
+            sessionUpdateInterval = options.sessionUpdateInterval;
+            positionUpdatesEnabled = options.positionUpdatesEnabled;
+            sessionInitParallelism = options.sessionInitParallelism;
+            sessionInitTimeout = options.sessionInitTimeout;
+            playerCallTimeout = options.playerCallTimeout;
+            proxyPlayersIgnored = options.proxyPlayersIgnored;
+            sessionFilter = options.sessionFilter;
+            sessionRemovalGrace = options.sessionRemovalGrace;
+            seekCoalesceInterval = options.seekCoalesceInterval;
+        }
+    }
 }
@@ -0,0 +1,238 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.endlesssource.mediainterface.api.ArtworkDecoder;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory artwork cache keyed by the artwork locator string (data URI, base64 payload, path or URL).
+ * <p>
+ * Entries are evicted in least-recently-used order once the total byte budget is exceeded. Concurrent
+ * lookups for a key that is currently being loaded wait for that single load instead of decoding again.
+ * <p>
+ * Returned arrays are shared with the cache and must not be modified by callers.
+ */
+public final class ArtworkCache {
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    private static final String METRICS_TAG = "memory";
+
+    private final long maxBytes;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Optional<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long sizeBytes;
+
+    public ArtworkCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes total byte budget for cached artwork (keys are counted as one byte per char)
+     */
+    public ArtworkCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the decoded artwork for the given {@link org.endlesssource.mediainterface.api.NowPlaying#getArtwork()}
+     * value, decoding it with {@link ArtworkDecoder#decodeBytes(String)} on a miss.
+     *
+     * @param artworkValue artwork field value
+     * @return decoded bytes if available
+     */
+    public Optional<byte[]> get(String artworkValue) {
+        return get(artworkValue, ArtworkDecoder::decodeBytes);
+    }
+
+    /**
+     * Returns the cached bytes for {@code key}, invoking {@code loader} at most once across concurrent callers on a miss.
+     * Empty loader results are not cached.
+     *
+     * @param key artwork locator
+     * @param loader loader invoked with {@code key} on a miss
+     * @return cached or freshly loaded bytes
+     */
+    public Optional<byte[]> get(String key, Function<String, Optional<byte[]>> loader) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            hit();
+            return Optional.of(cached);
+        }
+
+        CompletableFuture<Optional<byte[]>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<byte[]>> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            hit();
+            return awaitShared(existing);
+        }
+
+        try {
+            // Another caller may have finished its load between our lookup and claiming the key.
+            cached = lookup(key);
+            if (cached != null) {
+                hit();
+                load.complete(Optional.of(cached));
+                return Optional.of(cached);
+            }
+
+            miss();
+            Optional<byte[]> loaded = Objects.requireNonNullElse(loader.apply(key), Optional.empty());
+            loaded.ifPresent(bytes -> put(key, bytes));
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Returns cached bytes without loading.
+     */
+    public Optional<byte[]> getIfPresent(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        byte[] cached = lookup(key);
+        if (cached == null) {
+            miss();
+            return Optional.empty();
+        }
+        hit();
+        return Optional.of(cached);
+    }
+
+    /**
+     * Stores bytes under {@code key}. Entries larger than the whole budget are ignored.
+     */
+    public void put(String key, byte[] bytes) {
+        Objects.requireNonNull(key, "key must not be null");
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        long weight = weight(key, bytes);
+        if (weight > maxBytes) {
+            return;
+        }
+        synchronized (lock) {
+            byte[] previous = entries.put(key, bytes);
+            if (previous != null) {
+                sizeBytes -= weight(key, previous);
+            }
+            sizeBytes += weight;
+            evictToBudget();
+            reportSize();
+        }
+    }
+
+    public void invalidate(String key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (lock) {
+            byte[] removed = entries.remove(key);
+            if (removed != null) {
+                sizeBytes -= weight(key, removed);
+                reportSize();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            sizeBytes = 0L;
+            reportSize();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), sizeBytes, maxBytes);
+        }
+    }
+
+    private byte[] lookup(String key) {
+        synchronized (lock) {
+            return entries.get(key);
+        }
+    }
+
+    private void hit() {
+        hits.increment();
+        MediaMetrics.get().increment(MediaMetrics.ARTWORK_CACHE_HITS, METRICS_TAG, 1);
+    }
+
+    private void miss() {
+        misses.increment();
+        MediaMetrics.get().increment(MediaMetrics.ARTWORK_CACHE_MISSES, METRICS_TAG, 1);
+    }
+
+    private void reportSize() {
+        MediaMetrics.get().gauge(MediaMetrics.ARTWORK_CACHE_BYTES, METRICS_TAG, sizeBytes);
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            sizeBytes -= weight(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long weight(String key, byte[] bytes) {
+        return (long) bytes.length + key.length();
+    }
+
+    private static Optional<byte[]> awaitShared(CompletableFuture<Optional<byte[]>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Point-in-time cache counters.
+     *
+     * @param hits lookups served without invoking a loader (including waits on a shared in-flight load)
+     * @param misses lookups that invoked a loader or found nothing
+     * @param evictions entries dropped to stay within the byte budget
+     * @param entries current entry count
+     * @param sizeBytes current accounted size
+     * @param maxBytes configured byte budget
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long sizeBytes, long maxBytes) {
+    }
+}
@@ -0,0 +1,458 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.endlesssource.mediainterface.api.Artwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decodes artwork with {@code javax.imageio} on a small worker pool and keeps ready-to-draw scaled renditions.
+ * <p>
+ * Renditions are cached by artwork content hash and target size within a byte budget (four bytes per pixel),
+ * and a dominant-color palette is computed once per image. The last decoded sources, kept so several sizes of one
+ * image decode it once, count against the same budget and are dropped first. UI code can call {@link #getIfReady} on every frame
+ * and {@link #render} when it misses; neither blocks the caller.
+ */
+public final class ArtworkRenditionService implements AutoCloseable {
+    public static final int DEFAULT_WORKER_THREADS = 2;
+    public static final long DEFAULT_MAX_CACHE_BYTES = 16L * 1024L * 1024L;
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtworkRenditionService.class);
+    private static final int PALETTE_SIZE = 5;
+    private static final int PALETTE_SAMPLE_EDGE = 64;
+    private static final int MAX_RECENT_SOURCES = 2;
+    private static final int MAX_PALETTES = 256;
+
+    private final ExecutorService workers;
+    private final long maxCacheBytes;
+    private final Object lock = new Object();
+    private final LinkedHashMap<RenditionKey, Rendition> renditions = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, BufferedImage> recentSources = new LinkedHashMap<>(4, 0.75f, true);
+    private final LinkedHashMap<String, Palette> palettes = new LinkedHashMap<>(16, 0.75f, true);
+    // Weak keys: an artwork handle can hold megabytes of encoded and decoded bytes the budget does not see
+    private final Map<Artwork, String> knownHashes = new WeakHashMap<>();
+    private final Map<RequestKey, CompletableFuture<Optional<Rendition>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder decodes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long sizeBytes;
+
+    public ArtworkRenditionService() {
+        this(DEFAULT_WORKER_THREADS, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    /**
+     * @param workerThreads decode/scale threads
+     * @param maxCacheBytes byte budget for cached renditions
+     */
+    public ArtworkRenditionService(int workerThreads, long maxCacheBytes) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("workerThreads must be positive");
+        }
+        if (maxCacheBytes <= 0) {
+            throw new IllegalArgumentException("maxCacheBytes must be positive");
+        }
+        this.maxCacheBytes = maxCacheBytes;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-artwork-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns a cached rendition without decoding, loading or hashing on the calling thread.
+     *
+     * @param artwork artwork handle
+     * @param width target box width
+     * @param height target box height
+     * @return cached rendition if one was rendered earlier
+     */
+    public Optional<Rendition> getIfReady(Artwork artwork, int width, int height) {
+        if (artwork == null) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            String hash = knownHashes.get(artwork);
+            Rendition rendition = hash == null ? null : renditions.get(new RenditionKey(hash, width, height));
+            if (rendition == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(rendition);
+        }
+    }
+
+    /**
+     * Render {@code artwork} to fit within {@code width x height}, keeping its aspect ratio.
+     * Concurrent requests for the same artwork and size share one job.
+     *
+     * @return future completed on a worker thread; empty if the artwork cannot be loaded or decoded
+     */
+    public CompletableFuture<Optional<Rendition>> render(Artwork artwork, int width, int height) {
+        Objects.requireNonNull(artwork, "artwork must not be null");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        Optional<Rendition> ready = getIfReady(artwork, width, height);
+        if (ready.isPresent()) {
+            return CompletableFuture.completedFuture(ready);
+        }
+        RequestKey key = new RequestKey(artwork, width, height);
+        CompletableFuture<Optional<Rendition>> job = new CompletableFuture<>();
+        CompletableFuture<Optional<Rendition>> existing = inFlight.putIfAbsent(key, job);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    job.complete(renderNow(artwork, width, height));
+                } catch (RuntimeException e) {
+                    logger.debug("Failed to render artwork {}: {}", artwork, e.getMessage());
+                    job.complete(Optional.empty());
+                } finally {
+                    inFlight.remove(key, job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, job);
+            job.completeExceptionally(e);
+        }
+        return job;
+    }
+
+    /**
+     * Dominant colors of {@code artwork}, most common first. Computed once per image.
+     */
+    public CompletableFuture<Optional<Palette>> palette(Artwork artwork) {
+        Objects.requireNonNull(artwork, "artwork must not be null");
+        synchronized (lock) {
+            String hash = knownHashes.get(artwork);
+            Palette palette = hash == null ? null : palettes.get(hash);
+            if (palette != null) {
+                return CompletableFuture.completedFuture(Optional.of(palette));
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<String> hash = hashOf(artwork);
+            if (hash.isEmpty()) {
+                return Optional.<Palette>empty();
+            }
+            return source(artwork, hash.get()).map(source -> paletteFor(hash.get(), source));
+        }, workers);
+    }
+
+    public long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.sum(), misses.sum(), decodes.sum(), evictions.sum(), renditions.size(), sizeBytes, maxCacheBytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        synchronized (lock) {
+            renditions.clear();
+            recentSources.clear();
+            palettes.clear();
+            knownHashes.clear();
+            sizeBytes = 0L;
+        }
+    }
+
+    private Optional<Rendition> renderNow(Artwork artwork, int width, int height) {
+        Optional<String> hash = hashOf(artwork);
+        if (hash.isEmpty()) {
+            return Optional.empty();
+        }
+        RenditionKey key = new RenditionKey(hash.get(), width, height);
+        synchronized (lock) {
+            Rendition cached = renditions.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        Optional<BufferedImage> source = source(artwork, hash.get());
+        if (source.isEmpty()) {
+            return Optional.empty();
+        }
+        Palette palette = paletteFor(hash.get(), source.get());
+        BufferedImage scaled = scaleToFit(source.get(), width, height);
+        Rendition rendition = new Rendition(scaled, hash.get(), palette);
+        store(key, rendition);
+        return Optional.of(rendition);
+    }
+
+    private Optional<String> hashOf(Artwork artwork) {
+        synchronized (lock) {
+            String known = knownHashes.get(artwork);
+            if (known != null) {
+                return Optional.of(known);
+            }
+        }
+        Optional<String> hash = artwork.getContentHash();
+        hash.ifPresent(value -> {
+            synchronized (lock) {
+                knownHashes.put(artwork, value);
+            }
+        });
+        return hash;
+    }
+
+    private Optional<BufferedImage> source(Artwork artwork, String hash) {
+        synchronized (lock) {
+            BufferedImage recent = recentSources.get(hash);
+            if (recent != null) {
+                return Optional.of(recent);
+            }
+        }
+        Optional<InputStream> stream = artwork.openStream();
+        if (stream.isEmpty()) {
+            return Optional.empty();
+        }
+        BufferedImage image;
+        try (InputStream in = stream.get()) {
+            // ImageIO.read(InputStream) may buffer through a temp file; artwork is small enough to buffer in memory
+            image = ImageIO.read(new MemoryCacheImageInputStream(in));
+        } catch (IOException e) {
+            logger.debug("Failed to decode artwork {}: {}", hash, e.getMessage());
+            return Optional.empty();
+        }
+        if (image == null) {
+            logger.debug("No image reader for artwork {}", hash);
+            return Optional.empty();
+        }
+        decodes.increment();
+        keepSource(hash, image);
+        return Optional.of(image);
+    }
+
+    /**
+     * Keep a decoded source within the byte budget. Older sources make room for it, renditions never do.
+     */
+    private void keepSource(String hash, BufferedImage image) {
+        long weight = weightOf(image);
+        synchronized (lock) {
+            BufferedImage previous = recentSources.remove(hash);
+            if (previous != null) {
+                sizeBytes -= weightOf(previous);
+            }
+            Iterator<BufferedImage> it = recentSources.values().iterator();
+            while ((recentSources.size() >= MAX_RECENT_SOURCES || sizeBytes + weight > maxCacheBytes) && it.hasNext()) {
+                sizeBytes -= weightOf(it.next());
+                it.remove();
+            }
+            if (sizeBytes + weight <= maxCacheBytes) {
+                recentSources.put(hash, image);
+                sizeBytes += weight;
+            }
+        }
+    }
+
+    private Palette paletteFor(String hash, BufferedImage source) {
+        synchronized (lock) {
+            Palette cached = palettes.get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Palette palette = computePalette(source);
+        synchronized (lock) {
+            palettes.put(hash, palette);
+            trim(palettes, MAX_PALETTES);
+        }
+        return palette;
+    }
+
+    private void store(RenditionKey key, Rendition rendition) {
+        long weight = rendition.weight();
+        if (weight > maxCacheBytes) {
+            return;
+        }
+        synchronized (lock) {
+            Rendition previous = renditions.put(key, rendition);
+            if (previous != null) {
+                sizeBytes -= previous.weight();
+            }
+            sizeBytes += weight;
+            Iterator<BufferedImage> sources = recentSources.values().iterator();
+            while (sizeBytes > maxCacheBytes && sources.hasNext()) {
+                sizeBytes -= weightOf(sources.next());
+                sources.remove();
+            }
+            Iterator<Map.Entry<RenditionKey, Rendition>> it = renditions.entrySet().iterator();
+            while (sizeBytes > maxCacheBytes && it.hasNext()) {
+                Map.Entry<RenditionKey, Rendition> eldest = it.next();
+                sizeBytes -= eldest.getValue().weight();
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static long weightOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4L;
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Halve in steps while shrinking by more than 2x; a single bilinear pass would alias.
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = width / 2 >= targetWidth ? width / 2 : targetWidth;
+            height = height / 2 >= targetHeight ? height / 2 : targetHeight;
+            current = drawScaled(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage drawScaled(BufferedImage source, int width, int height) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static Palette computePalette(BufferedImage source) {
+        int stepX = Math.max(1, source.getWidth() / PALETTE_SAMPLE_EDGE);
+        int stepY = Math.max(1, source.getHeight() / PALETTE_SAMPLE_EDGE);
+        // 4 bits per channel: 4096 buckets, each accumulating count and channel sums.
+        long[] counts = new long[4096];
+        long[] sums = new long[4096 * 3];
+        for (int y = 0; y < source.getHeight(); y += stepY) {
+            for (int x = 0; x < source.getWidth(); x += stepX) {
+                int argb = source.getRGB(x, y);
+                if ((argb >>> 24) < 128) {
+                    continue;
+                }
+                int r = (argb >> 16) & 0xff;
+                int g = (argb >> 8) & 0xff;
+                int b = argb & 0xff;
+                int bucket = ((r >> 4) << 8) | ((g >> 4) << 4) | (b >> 4);
+                counts[bucket]++;
+                sums[bucket * 3] += r;
+                sums[bucket * 3 + 1] += g;
+                sums[bucket * 3 + 2] += b;
+            }
+        }
+        List<Integer> buckets = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.add(i);
+            }
+        }
+        buckets.sort(Comparator.comparingLong((Integer bucket) -> counts[bucket]).reversed());
+        List<Color> colors = new ArrayList<>(PALETTE_SIZE);
+        for (int i = 0; i < Math.min(PALETTE_SIZE, buckets.size()); i++) {
+            int bucket = buckets.get(i);
+            long count = counts[bucket];
+            colors.add(new Color(
+                    (int) (sums[bucket * 3] / count),
+                    (int) (sums[bucket * 3 + 1] / count),
+                    (int) (sums[bucket * 3 + 2] / count)));
+        }
+        return new Palette(Collections.unmodifiableList(colors));
+    }
+
+    private static <K, V> void trim(LinkedHashMap<K, V> map, int maxEntries) {
+        Iterator<K> it = map.keySet().iterator();
+        while (map.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record RenditionKey(String hash, int width, int height) {
+    }
+
+    private record RequestKey(Artwork artwork, int width, int height) {
+    }
+
+    /**
+     * Scaled, ready-to-draw artwork image. The image is shared and must not be modified.
+     *
+     * @param image scaled image fitting the requested box
+     * @param contentHash content hash of the source artwork
+     * @param palette dominant colors of the source artwork
+     */
+    public record Rendition(BufferedImage image, String contentHash, Palette palette) {
+        public int width() {
+            return image.getWidth();
+        }
+
+        public int height() {
+            return image.getHeight();
+        }
+
+        long weight() {
+            return weightOf(image);
+        }
+    }
+
+    /**
+     * Dominant colors of an image, most common first. Empty for fully transparent images.
+     */
+    public record Palette(List<Color> colors) {
+        public Optional<Color> dominant() {
+            return colors.isEmpty() ? Optional.empty() : Optional.of(colors.get(0));
+        }
+    }
+
+    /**
+     * Point-in-time service counters.
+     *
+     * @param hits {@link #getIfReady} and {@link #render} calls answered from the cache
+     * @param misses cache lookups that found no rendition
+     * @param decodes full-resolution image decodes
+     * @param evictions renditions dropped to stay within the byte budget
+     * @param entries cached rendition count
+     * @param sizeBytes estimated size of cached renditions and decoded sources
+     * @param maxBytes configured byte budget
+     */
+    public record Stats(long hits, long misses, long decodes, long evictions, int entries, long sizeBytes, long maxBytes) {
+    }
+}
@@ -0,0 +1,561 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.endlesssource.mediainterface.SystemMediaFactory;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Persistent, size-bounded artwork store.
+ * <p>
+ * Artwork bytes are stored once per content hash under {@code blobs/}; each artwork locator gets a small
+ * reference file under {@code refs/} naming the blob it resolves to. All files are written to a temporary
+ * file first and atomically moved into place, so a crash never leaves a truncated entry behind. Larger blobs
+ * are returned as read-only memory-mapped buffers, except on Windows, where a mapped file cannot be deleted or
+ * replaced until the buffer is collected. Least recently used blobs are deleted once the total size exceeds the
+ * configured budget, together with the references naming them.
+ */
+public final class DiskArtworkStore {
+    private static final Logger logger = LoggerFactory.getLogger(DiskArtworkStore.class);
+    private static final String BLOB_DIR = "blobs";
+    private static final String REF_DIR = "refs";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final int MAP_THRESHOLD_BYTES = 16 * 1024;
+    private static final boolean MAP_LARGE_BLOBS = !SystemMediaFactory.getPlatformName().equals("windows");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final String METRICS_TAG = "disk";
+
+    private final Path directory;
+    private final Path blobs;
+    private final Path refs;
+    private final long maxBytes;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Long> blobSizes = new LinkedHashMap<>(16, 0.75f, true);
+    // Ref file name to the blob it names, and back, so evicting a blob can delete its refs
+    private final Map<String, String> blobByRef = new HashMap<>();
+    private final Map<String, Set<String>> refsByBlob = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long sizeBytes;
+
+    /**
+     * Open (or create) a store in {@code directory}, indexing blobs left by earlier runs.
+     *
+     * @param directory cache directory
+     * @param maxBytes total byte budget for stored blobs
+     * @throws IOException if the directory cannot be created or scanned
+     */
+    public DiskArtworkStore(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.directory = Objects.requireNonNull(directory, "directory must not be null");
+        this.blobs = directory.resolve(BLOB_DIR);
+        this.refs = directory.resolve(REF_DIR);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(blobs);
+        Files.createDirectories(refs);
+        deleteLeftoverTempFiles(blobs);
+        deleteLeftoverTempFiles(refs);
+        indexExistingBlobs();
+        indexExistingRefs();
+    }
+
+    /**
+     * Platform-conventional cache directory for artwork, e.g. {@code ~/.cache/mediainterface/artwork} on Linux.
+     */
+    public static Path defaultDirectory() {
+        String home = System.getProperty("user.home", ".");
+        switch (SystemMediaFactory.getPlatformName()) {
+            case "windows": {
+                String localAppData = System.getenv("LOCALAPPDATA");
+                Path base = localAppData == null || localAppData.isBlank() ? Path.of(home, "AppData", "Local") : Path.of(localAppData);
+                return base.resolve("mediainterface").resolve("artwork");
+            }
+            case "macos":
+                return Path.of(home, "Library", "Caches", "mediainterface", "artwork");
+            default: {
+                String xdgCache = System.getenv("XDG_CACHE_HOME");
+                Path base = xdgCache == null || xdgCache.isBlank() ? Path.of(home, ".cache") : Path.of(xdgCache);
+                return base.resolve("mediainterface").resolve("artwork");
+            }
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the given bytes, as used for blob file names.
+     */
+    public static String contentHash(byte[] bytes) {
+        return toHex(sha256(bytes));
+    }
+
+    /**
+     * Read the artwork stored for a locator.
+     *
+     * @param key artwork locator
+     * @return read-only buffer positioned at the start of the artwork, if stored
+     */
+    public Optional<ByteBuffer> read(String key) {
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        String name = refName(key);
+        Path ref = refs.resolve(name);
+        String hash;
+        try {
+            hash = new String(Files.readAllBytes(ref), StandardCharsets.US_ASCII).trim();
+        } catch (NoSuchFileException e) {
+            miss();
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.debug("Failed to read artwork ref {}: {}", ref, e.getMessage());
+            miss();
+            return Optional.empty();
+        }
+        Optional<ByteBuffer> content = readContent(hash);
+        if (content.isEmpty()) {
+            deleteRef(name);
+        }
+        return content;
+    }
+
+    /**
+     * Read a blob by its {@link #contentHash(byte[]) content hash}.
+     */
+    public Optional<ByteBuffer> readContent(String contentHash) {
+        if (contentHash == null || !isHash(contentHash)) {
+            miss();
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            if (blobSizes.get(contentHash) == null) {
+                miss();
+                return Optional.empty();
+            }
+        }
+        Path blob = blobs.resolve(contentHash);
+        try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+            if (MAP_LARGE_BLOBS && size >= MAP_THRESHOLD_BYTES) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                ByteBuffer heap = ByteBuffer.allocate((int) size);
+                while (heap.hasRemaining() && channel.read(heap) >= 0) {
+                    // keep reading until full
+                }
+                heap.flip();
+                buffer = heap.asReadOnlyBuffer();
+            }
+            touch(blob);
+            hit();
+            return Optional.of(buffer);
+        } catch (IOException e) {
+            logger.debug("Failed to read artwork blob {}: {}", blob, e.getMessage());
+            forget(contentHash);
+            miss();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store artwork for a locator. Failures are logged and otherwise ignored.
+     *
+     * @param key artwork locator
+     * @param bytes artwork bytes
+     * @return content hash of {@code bytes}
+     */
+    public String write(String key, byte[] bytes) {
+        Objects.requireNonNull(key, "key must not be null");
+        String hash = writeContent(bytes);
+        synchronized (lock) {
+            if (!blobSizes.containsKey(hash)) {
+                return hash;
+            }
+        }
+        String name = refName(key);
+        try {
+            atomicWrite(refs.resolve(name), hash.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            logger.debug("Failed to write artwork ref for {}: {}", hash, e.getMessage());
+            return hash;
+        }
+        boolean evicted;
+        synchronized (lock) {
+            evicted = !blobSizes.containsKey(hash);
+            if (!evicted) {
+                linkRef(name, hash);
+            }
+        }
+        if (evicted) {
+            // The blob was evicted while the ref was written
+            deleteRef(name);
+        }
+        return hash;
+    }
+
+    /**
+     * Store a blob without a locator reference. Blobs larger than the whole budget are not stored.
+     *
+     * @return content hash of {@code bytes}
+     */
+    public String writeContent(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        String hash = contentHash(bytes);
+        if (bytes.length > maxBytes) {
+            return hash;
+        }
+        synchronized (lock) {
+            if (blobSizes.get(hash) != null) {
+                return hash;
+            }
+        }
+        try {
+            atomicWrite(blobs.resolve(hash), bytes);
+        } catch (IOException e) {
+            logger.debug("Failed to write artwork blob {}: {}", hash, e.getMessage());
+            return hash;
+        }
+        List<String> candidates;
+        synchronized (lock) {
+            if (blobSizes.put(hash, (long) bytes.length) == null) {
+                sizeBytes += bytes.length;
+                writes.increment();
+            }
+            candidates = evictionCandidates(hash);
+            reportSize();
+        }
+        evict(candidates);
+        return hash;
+    }
+
+    /**
+     * Wrap a loader so that hits are served from disk and fresh loads are written back.
+     * Suitable as the loader for {@link ArtworkCache#get(String, Function)}.
+     */
+    public Function<String, Optional<byte[]>> readThrough(Function<String, Optional<byte[]>> loader) {
+        Objects.requireNonNull(loader, "loader must not be null");
+        return key -> {
+            Optional<ByteBuffer> stored = read(key);
+            if (stored.isPresent()) {
+                ByteBuffer buffer = stored.get();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return Optional.of(bytes);
+            }
+            Optional<byte[]> loaded = Objects.requireNonNullElse(loader.apply(key), Optional.empty());
+            loaded.ifPresent(bytes -> write(key, bytes));
+            return loaded;
+        };
+    }
+
+    /**
+     * Remove the locator reference for {@code key}. The blob stays until evicted.
+     */
+    public void remove(String key) {
+        if (key != null) {
+            deleteRef(refName(key));
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.sum(), misses.sum(), writes.sum(), evictions.sum(), blobSizes.size(), sizeBytes, maxBytes);
+        }
+    }
+
+    private void indexExistingBlobs() throws IOException {
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(blobs)) {
+            for (Path path : stream) {
+                if (isHash(path.getFileName().toString()) && Files.isRegularFile(path)) {
+                    existing.add(path);
+                }
+            }
+        }
+        List<IndexedBlob> indexed = new ArrayList<>(existing.size());
+        for (Path path : existing) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            indexed.add(new IndexedBlob(path.getFileName().toString(), attributes.size(), attributes.lastModifiedTime()));
+        }
+        indexed.sort(Comparator.comparing(IndexedBlob::lastAccess));
+        List<String> candidates;
+        synchronized (lock) {
+            for (IndexedBlob blob : indexed) {
+                blobSizes.put(blob.hash(), blob.size());
+                sizeBytes += blob.size();
+            }
+            candidates = evictionCandidates(null);
+            reportSize();
+        }
+        evict(candidates);
+        logger.debug("Indexed {} artwork blobs ({} bytes) in {}", blobSizes.size(), sizeBytes, directory);
+    }
+
+    /**
+     * Read every ref once, dropping refs whose blob is gone, such as ones evicted by an earlier run.
+     */
+    private void indexExistingRefs() throws IOException {
+        List<Path> dangling = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(refs)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (!isHash(name)) {
+                    continue;
+                }
+                String hash;
+                try {
+                    hash = new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+                } catch (IOException e) {
+                    logger.debug("Failed to read artwork ref {}: {}", path, e.getMessage());
+                    continue;
+                }
+                synchronized (lock) {
+                    if (blobSizes.containsKey(hash)) {
+                        linkRef(name, hash);
+                    } else {
+                        dangling.add(path);
+                    }
+                }
+            }
+        }
+        dangling.forEach(DiskArtworkStore::deleteQuietly);
+    }
+
+    /**
+     * Least recently used blobs, other than {@code keep}, whose removal brings the store back within budget.
+     * Their accounting stays until the file is really gone; see {@link #evict}.
+     */
+    private List<String> evictionCandidates(String keep) {
+        List<String> candidates = new ArrayList<>();
+        long remaining = sizeBytes;
+        Iterator<Map.Entry<String, Long>> it = blobSizes.entrySet().iterator();
+        while (remaining > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            remaining -= eldest.getValue();
+            candidates.add(eldest.getKey());
+        }
+        return candidates;
+    }
+
+    /**
+     * Delete candidate blobs and the refs naming them. A blob whose file cannot be deleted stays counted, so it is
+     * tried again by the next eviction instead of silently exceeding the budget.
+     */
+    private void evict(List<String> candidates) {
+        for (String hash : candidates) {
+            if (!deleteQuietly(blobs.resolve(hash))) {
+                continue;
+            }
+            if (forget(hash)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void linkRef(String name, String hash) {
+        String previous = blobByRef.put(name, hash);
+        if (previous != null && !previous.equals(hash)) {
+            unlinkFrom(previous, name);
+        }
+        refsByBlob.computeIfAbsent(hash, ignored -> new HashSet<>()).add(name);
+    }
+
+    private void deleteRef(String name) {
+        synchronized (lock) {
+            String hash = blobByRef.remove(name);
+            if (hash != null) {
+                unlinkFrom(hash, name);
+            }
+        }
+        deleteQuietly(refs.resolve(name));
+    }
+
+    private void unlinkFrom(String hash, String name) {
+        Set<String> names = refsByBlob.get(hash);
+        if (names != null && names.remove(name) && names.isEmpty()) {
+            refsByBlob.remove(hash);
+        }
+    }
+
+    /**
+     * Drop a blob's accounting and the refs naming it.
+     *
+     * @return true if the blob was still counted
+     */
+    private boolean forget(String hash) {
+        Set<String> orphaned;
+        Long size;
+        synchronized (lock) {
+            size = blobSizes.remove(hash);
+            if (size != null) {
+                sizeBytes -= size;
+                reportSize();
+            }
+            orphaned = refsByBlob.remove(hash);
+            if (orphaned != null) {
+                orphaned.forEach(blobByRef::remove);
+            }
+        }
+        if (orphaned != null) {
+            orphaned.forEach(name -> deleteQuietly(refs.resolve(name)));
+        }
+        return size != null;
+    }
+
+    private void hit() {
+        hits.increment();
+        MediaMetrics.get().increment(MediaMetrics.ARTWORK_CACHE_HITS, METRICS_TAG, 1);
+    }
+
+    private void miss() {
+        misses.increment();
+        MediaMetrics.get().increment(MediaMetrics.ARTWORK_CACHE_MISSES, METRICS_TAG, 1);
+    }
+
+    private void reportSize() {
+        MediaMetrics.get().gauge(MediaMetrics.ARTWORK_CACHE_BYTES, METRICS_TAG, sizeBytes);
+    }
+
+    private static void atomicWrite(Path target, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteLeftoverTempFiles(Path dir) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + TEMP_SUFFIX)) {
+            for (Path path : stream) {
+                deleteQuietly(path);
+            }
+        }
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Failed to update access time of {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * @return false if the file is still there
+     */
+    private static boolean deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            logger.debug("Failed to delete {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String refName(String key) {
+        return toHex(sha256(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean isHash(String value) {
+        if (value.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            out[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(out);
+    }
+
+    private record IndexedBlob(String hash, long size, FileTime lastAccess) {
+    }
+
+    /**
+     * Point-in-time store counters.
+     *
+     * @param hits reads served from disk
+     * @param misses reads that found no stored artwork
+     * @param writes blobs written
+     * @param evictions blobs deleted to stay within the byte budget
+     * @param blobs current blob count
+     * @param sizeBytes current total blob size
+     * @param maxBytes configured byte budget
+     */
+    public record Stats(long hits, long misses, long writes, long evictions, int blobs, long sizeBytes, long maxBytes) {
+    }
+}
@@ -0,0 +1,378 @@
+package org.endlesssource.mediainterface.artwork;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous loader for {@code http://} and {@code https://} artwork.
+ * <p>
+ * A single {@link HttpClient} is shared per loader so connections are pooled. Requests are bounded by
+ * connect/request timeouts and a maximum response size, concurrent fetches of the same URL share one
+ * request, and previously fetched artwork is revalidated with {@code If-None-Match}/{@code If-Modified-Since}.
+ */
+public final class HttpArtworkLoader {
+    private static final int MAX_VALIDATORS = 1024;
+
+    private final Config config;
+    private final HttpClient client;
+    private final ArtworkCache bodies;
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder freshHits = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public HttpArtworkLoader() {
+        this(Config.defaults());
+    }
+
+    public HttpArtworkLoader(Config config) {
+        this.config = Objects.requireNonNull(config, "config must not be null");
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(config.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.bodies = new ArtworkCache(config.getBodyCacheBytes());
+    }
+
+    /**
+     * Shared loader with default settings, used by {@link org.endlesssource.mediainterface.api.ArtworkDecoder}.
+     */
+    public static HttpArtworkLoader shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Fetch artwork bytes from an http(s) URL.
+     * <p>
+     * The returned future fails with {@link IllegalArgumentException} for malformed or non-http URLs, with
+     * {@link java.net.http.HttpTimeoutException}/{@link java.util.concurrent.TimeoutException} on timeouts, and
+     * with {@link IOException} for non-success statuses or oversized responses.
+     * Cancelling the returned future does not cancel the request for other waiters.
+     *
+     * @param url artwork URL
+     * @return future completing with the artwork bytes (shared with the loader; must not be modified)
+     */
+    public CompletableFuture<byte[]> fetch(String url) {
+        URI uri;
+        try {
+            uri = URI.create(Objects.requireNonNull(url, "url must not be null").trim());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Not an http(s) artwork URL: " + url));
+        }
+        if (uri.getHost() == null) {
+            // Hosts with characters URI does not accept, such as underscores, parse without one
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No host in artwork URL: " + url));
+        }
+
+        String key = uri.toString();
+        Validators known = validators.get(key);
+        if (known != null && known.isFresh(config.getRevalidateAfter())) {
+            Optional<byte[]> body = bodies.getIfPresent(key);
+            if (body.isPresent()) {
+                freshHits.increment();
+                return CompletableFuture.completedFuture(body.get());
+            }
+        }
+
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing.copy();
+        }
+        CompletableFuture<byte[]> sent;
+        try {
+            sent = send(uri, key);
+        } catch (RuntimeException e) {
+            // Waiters already joined on created, so it must complete and leave inFlight
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            return created.copy();
+        }
+        sent.whenComplete((bytes, error) -> {
+            inFlight.remove(key, created);
+            if (error != null) {
+                created.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            } else {
+                created.complete(bytes);
+            }
+        });
+        return created.copy();
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), notModified.sum(), freshHits.sum(), deduplicated.sum());
+    }
+
+    private CompletableFuture<byte[]> send(URI uri, String key) {
+        Validators previous = validators.get(key);
+        Optional<byte[]> previousBody = previous == null ? Optional.empty() : bodies.getIfPresent(key);
+        if (previous != null && previousBody.isEmpty()) {
+            validators.remove(key, previous);
+            previous = null;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(config.getRequestTimeout())
+                .GET();
+        if (previous != null) {
+            if (previous.etag() != null) {
+                request.header("If-None-Match", previous.etag());
+            }
+            if (previous.lastModified() != null) {
+                request.header("If-Modified-Since", previous.lastModified());
+            }
+        }
+
+        requests.increment();
+        Validators conditional = previous;
+        long deadlineMs = config.getConnectTimeout().plus(config.getRequestTimeout()).toMillis();
+        return client.sendAsync(request.build(), limitedBody(config.getMaxResponseBytes()))
+                .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .thenApply(response -> {
+                    if (response.statusCode() == 304 && conditional != null) {
+                        notModified.increment();
+                        validators.put(key, conditional.refreshed());
+                        return previousBody.get();
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new CompletionException(
+                                new IOException("Unexpected HTTP status " + response.statusCode() + " for " + uri));
+                    }
+                    byte[] body = response.body();
+                    if (body.length == 0) {
+                        throw new CompletionException(new IOException("Empty artwork response for " + uri));
+                    }
+                    bodies.put(key, body);
+                    remember(key, new Validators(
+                            response.headers().firstValue("ETag").orElse(null),
+                            response.headers().firstValue("Last-Modified").orElse(null),
+                            System.nanoTime()));
+                    return body;
+                });
+    }
+
+    private void remember(String key, Validators entry) {
+        if (validators.size() >= MAX_VALIDATORS) {
+            validators.keySet().removeIf(existing -> bodies.getIfPresent(existing).isEmpty());
+        }
+        validators.put(key, entry);
+    }
+
+    private static HttpResponse.BodyHandler<byte[]> limitedBody(long maxBytes) {
+        return info -> new LimitedBodySubscriber(maxBytes, info.headers().firstValueAsLong("Content-Length"));
+    }
+
+    private static final class SharedHolder {
+        private static final HttpArtworkLoader INSTANCE = new HttpArtworkLoader();
+    }
+
+    private record Validators(String etag, String lastModified, long fetchedAtNanos) {
+        boolean isFresh(Duration revalidateAfter) {
+            return System.nanoTime() - fetchedAtNanos < revalidateAfter.toNanos();
+        }
+
+        Validators refreshed() {
+            return new Validators(etag, lastModified, System.nanoTime());
+        }
+    }
+
+    private static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+        private final long maxBytes;
+        private final OptionalLong declaredLength;
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Flow.Subscription subscription;
+
+        private LimitedBodySubscriber(long maxBytes, OptionalLong declaredLength) {
+            this.maxBytes = maxBytes;
+            this.declaredLength = declaredLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (declaredLength.isPresent() && declaredLength.getAsLong() > maxBytes) {
+                subscription.cancel();
+                result.completeExceptionally(tooLarge());
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (result.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                if (buffer.size() + (long) item.remaining() > maxBytes) {
+                    subscription.cancel();
+                    result.completeExceptionally(tooLarge());
+                    return;
+                }
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                buffer.write(chunk, 0, chunk.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(buffer.toByteArray());
+        }
+
+        private IOException tooLarge() {
+            return new IOException("Artwork response exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    /**
+     * Point-in-time loader counters.
+     *
+     * @param requests HTTP requests sent (conditional or not)
+     * @param notModified requests answered with 304 Not Modified
+     * @param freshHits fetches served from memory without a request
+     * @param deduplicated fetches that joined a request already in flight
+     */
+    public record Stats(long requests, long notModified, long freshHits, long deduplicated) {
+    }
+
+    /**
+     * Configuration for {@link HttpArtworkLoader}.
+     */
+    public static final class Config {
+        public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+        public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+        public static final Duration DEFAULT_REVALIDATE_AFTER = Duration.ofMinutes(5);
+        public static final long DEFAULT_MAX_RESPONSE_BYTES = 16L * 1024L * 1024L;
+        public static final long DEFAULT_BODY_CACHE_BYTES = 8L * 1024L * 1024L;
+
+        private final Duration connectTimeout;
+        private final Duration requestTimeout;
+        private final Duration revalidateAfter;
+        private final long maxResponseBytes;
+        private final long bodyCacheBytes;
+
+        private Config(Duration connectTimeout,
+                       Duration requestTimeout,
+                       Duration revalidateAfter,
+                       long maxResponseBytes,
+                       long bodyCacheBytes) {
+            this.connectTimeout = requirePositive("connectTimeout", connectTimeout);
+            this.requestTimeout = requirePositive("requestTimeout", requestTimeout);
+            this.revalidateAfter = Objects.requireNonNull(revalidateAfter, "revalidateAfter must not be null");
+            if (revalidateAfter.isNegative()) {
+                throw new IllegalArgumentException("revalidateAfter must not be negative");
+            }
+            if (maxResponseBytes <= 0) {
+                throw new IllegalArgumentException("maxResponseBytes must be positive");
+            }
+            if (bodyCacheBytes <= 0) {
+                throw new IllegalArgumentException("bodyCacheBytes must be positive");
+            }
+            this.maxResponseBytes = maxResponseBytes;
+            this.bodyCacheBytes = bodyCacheBytes;
+        }
+
+        public static Config defaults() {
+            return new Config(DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT, DEFAULT_REVALIDATE_AFTER,
+                    DEFAULT_MAX_RESPONSE_BYTES, DEFAULT_BODY_CACHE_BYTES);
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        /**
+         * Age after which a previously fetched URL is revalidated instead of served from memory.
+         * {@link Duration#ZERO} revalidates on every fetch.
+         */
+        public Duration getRevalidateAfter() {
+            return revalidateAfter;
+        }
+
+        public long getMaxResponseBytes() {
+            return maxResponseBytes;
+        }
+
+        /**
+         * Byte budget for response bodies kept for revalidation.
+         */
+        public long getBodyCacheBytes() {
+            return bodyCacheBytes;
+        }
+
+        public Config withConnectTimeout(Duration timeout) {
+            return new Config(timeout, requestTimeout, revalidateAfter, maxResponseBytes, bodyCacheBytes);
+        }
+
+        public Config withRequestTimeout(Duration timeout) {
+            return new Config(connectTimeout, timeout, revalidateAfter, maxResponseBytes, bodyCacheBytes);
+        }
+
+        public Config withRevalidateAfter(Duration age) {
+            return new Config(connectTimeout, requestTimeout, age, maxResponseBytes, bodyCacheBytes);
+        }
+
+        public Config withMaxResponseBytes(long bytes) {
+            return new Config(connectTimeout, requestTimeout, revalidateAfter, bytes, bodyCacheBytes);
+        }
+
+        public Config withBodyCacheBytes(long bytes) {
+            return new Config(connectTimeout, requestTimeout, revalidateAfter, maxResponseBytes, bytes);
+        }
+
+        private static Duration requirePositive(String name, Duration value) {
+            Objects.requireNonNull(value, name + " must not be null");
+            if (value.isZero() || value.isNegative()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Decoding or fetching of one artwork value.
+ */
+@Name("org.endlesssource.mediainterface.ArtworkDecode")
+@Label("Artwork Decode")
+@Description("Turning an artwork value into image bytes")
+public final class ArtworkDecodeEvent extends MediaEvent {
+    @Label("Source")
+    @Description("data, http, file, or path for file paths and plain base64")
+    private String source;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    public void complete(String sessionId, String player, String source, long bytes, String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.source = source;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
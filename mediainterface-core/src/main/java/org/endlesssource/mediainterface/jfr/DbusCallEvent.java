@@ -0,0 +1,34 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One D-Bus property read or method call to an MPRIS player.
+ */
+@Name("org.endlesssource.mediainterface.DbusCall")
+@Label("D-Bus Call")
+@Description("A property read or method call sent to an MPRIS player")
+public final class DbusCallEvent extends MediaEvent {
+    @Label("Member")
+    @Description("Property name for property reads, otherwise the method name")
+    private String member;
+
+    @Label("Property Read")
+    private boolean propertyRead;
+
+    @Label("Asynchronous")
+    @Description("Whether the caller waited on a callback rather than a thread")
+    private boolean asynchronous;
+
+    public void complete(String sessionId, String player, String member, boolean propertyRead, boolean asynchronous,
+                         String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.member = member;
+            this.propertyRead = propertyRead;
+            this.asynchronous = asynchronous;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Delivery of one session event to its listeners.
+ */
+@Name("org.endlesssource.mediainterface.ListenerDispatch")
+@Label("Listener Dispatch")
+@Description("A session calling its listeners for one event")
+public final class ListenerDispatchEvent extends MediaEvent {
+    @Label("Listeners")
+    private int listeners;
+
+    @Label("Queue Depth")
+    @Description("Events still queued for the session's listeners after the dispatch")
+    private int queueDepth;
+
+    public void complete(String sessionId, String player, int listeners, int queueDepth, String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.listeners = listeners;
+            this.queueDepth = queueDepth;
+            commit();
+        }
+    }
+}
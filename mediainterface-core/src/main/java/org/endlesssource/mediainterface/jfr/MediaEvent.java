@@ -0,0 +1,53 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the library's Java Flight Recorder events.
+ * <p>
+ * Every event times one piece of work against one player, from {@link #begin()} to its {@code complete} method,
+ * and records which session and player it was about and how it ended. While no recording has the event enabled,
+ * creating and completing one costs next to nothing, so providers emit them unconditionally on their hot paths.
+ */
+@Category("Media Interface")
+@StackTrace(false)
+public abstract class MediaEvent extends Event {
+    /** The work finished and the player answered. */
+    public static final String OK = "ok";
+    /** The player answered with an error, returned nothing, or the call threw. */
+    public static final String FAILED = "failed";
+    /** The player did not answer in time. */
+    public static final String TIMEOUT = "timeout";
+
+    // Not private: Flight Recorder leaves out private fields declared in a superclass
+    @Label("Session Id")
+    String sessionId;
+
+    @Label("Player")
+    String player;
+
+    @Label("Outcome")
+    String outcome;
+
+    MediaEvent() {
+    }
+
+    /**
+     * End the event and fill in the common fields.
+     * @param player application name, or null when the caller cannot tell
+     * @return true if the event should be committed; subclasses set their own fields and commit only then
+     */
+    final boolean finish(String sessionId, String player, String outcome) {
+        end();
+        if (!shouldCommit()) {
+            return false;
+        }
+        this.sessionId = sessionId;
+        this.player = player;
+        this.outcome = outcome;
+        return true;
+    }
+}
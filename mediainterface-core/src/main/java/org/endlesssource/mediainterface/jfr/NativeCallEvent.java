@@ -0,0 +1,23 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One call into a native bridge.
+ */
+@Name("org.endlesssource.mediainterface.NativeCall")
+@Label("Native Call")
+@Description("A JNI call into a platform media bridge")
+public final class NativeCallEvent extends MediaEvent {
+    @Label("Function")
+    private String function;
+
+    public void complete(String sessionId, String player, String function, String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.function = function;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One helper process run by an adapter, from launch to exit.
+ */
+@Name("org.endlesssource.mediainterface.ProcessLaunch")
+@Label("Adapter Process")
+@Description("A helper process started by a platform adapter")
+public final class ProcessLaunchEvent extends MediaEvent {
+    @Label("Command")
+    private String command;
+
+    public void complete(String sessionId, String player, String command, String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.command = command;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One poll of a player's state by its session.
+ */
+@Name("org.endlesssource.mediainterface.SessionRefresh")
+@Label("Session Refresh")
+@Description("A session reading its player's playback state and metadata")
+public final class SessionRefreshEvent extends MediaEvent {
+    @Label("Player Calls")
+    @Description("Remote calls the refresh made")
+    private long playerCalls;
+
+    public void complete(String sessionId, String player, long playerCalls, String outcome) {
+        if (finish(sessionId, player, outcome)) {
+            this.playerCalls = playerCalls;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.BulkCommand;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.PlaybackState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Pauses every other playing session when a foreground session starts playing.
+ * <p>
+ * With {@link #resumingOnStop()}, the rule remembers which sessions each foreground session paused and plays them
+ * again when it stops or goes away, as long as they are still paused.
+ */
+public final class ExclusivePlaybackRule implements PlaybackRule {
+    private final Predicate<? super MediaSession> foreground;
+    private final boolean resumeOnStop;
+    private final Map<String, Set<String>> pausedBy = new HashMap<>();
+
+    ExclusivePlaybackRule(Predicate<? super MediaSession> foreground, boolean resumeOnStop) {
+        this.foreground = Objects.requireNonNull(foreground, "foreground must not be null");
+        this.resumeOnStop = resumeOnStop;
+    }
+
+    /**
+     * @return a copy of this rule that resumes the sessions it paused once the foreground session stops
+     */
+    public ExclusivePlaybackRule resumingOnStop() {
+        return new ExclusivePlaybackRule(foreground, true);
+    }
+
+    @Override
+    public List<RuleAction> onPlaybackStateChanged(MediaSession session, PlaybackState state, List<MediaSession> sessions) {
+        String sessionId = session.getSessionId();
+        if (state == PlaybackState.PLAYING && foreground.test(session)) {
+            List<RuleAction> actions = new ArrayList<>();
+            for (MediaSession other : sessions) {
+                if (!other.getSessionId().equals(sessionId)
+                        && other.getControls().getPlaybackState() == PlaybackState.PLAYING) {
+                    actions.add(new RuleAction(other, BulkCommand.PAUSE));
+                    if (resumeOnStop) {
+                        pausedBy.computeIfAbsent(sessionId, ignored -> new LinkedHashSet<>()).add(other.getSessionId());
+                    }
+                }
+            }
+            return actions;
+        }
+        if (state == PlaybackState.STOPPED) {
+            return resume(sessionId, sessions);
+        }
+        return List.of();
+    }
+
+    @Override
+    public List<RuleAction> onSessionRemoved(String sessionId, List<MediaSession> sessions) {
+        return resume(sessionId, sessions);
+    }
+
+    private List<RuleAction> resume(String sessionId, List<MediaSession> sessions) {
+        Set<String> paused = pausedBy.remove(sessionId);
+        if (paused == null) {
+            return List.of();
+        }
+        List<RuleAction> actions = new ArrayList<>();
+        for (MediaSession other : sessions) {
+            if (paused.contains(other.getSessionId())
+                    && other.getControls().getPlaybackState() == PlaybackState.PAUSED) {
+                actions.add(new RuleAction(other, BulkCommand.PLAY));
+            }
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,31 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.PlaybackState;
+
+import java.util.List;
+
+/**
+ * Reacts to session events with transport commands. Evaluated by {@link PlaybackRuleEngine} on the thread that
+ * delivers the event, one event at a time, so implementations need no locking of their own but must not block.
+ */
+@FunctionalInterface
+public interface PlaybackRule {
+
+    /**
+     * @param session  the session that changed
+     * @param state    its new playback state
+     * @param sessions every known session, including {@code session}
+     * @return the commands to send; empty for none
+     */
+    List<RuleAction> onPlaybackStateChanged(MediaSession session, PlaybackState state, List<MediaSession> sessions);
+
+    /**
+     * @param sessionId the session that went away
+     * @param sessions  the remaining sessions
+     * @return the commands to send; empty for none
+     */
+    default List<RuleAction> onSessionRemoved(String sessionId, List<MediaSession> sessions) {
+        return List.of();
+    }
+}
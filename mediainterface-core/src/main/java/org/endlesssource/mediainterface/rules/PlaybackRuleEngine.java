@@ -0,0 +1,162 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Applies {@link PlaybackRule}s to the sessions of a media interface as their events arrive.
+ * <p>
+ * Rules run inside the listener callback and their commands are sent asynchronously from there, so a reaction
+ * takes one event dispatch rather than a polling cycle. The time from receiving an event to the last command it
+ * caused being issued is reported by {@link #stats()}.
+ */
+public final class PlaybackRuleEngine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PlaybackRuleEngine.class);
+
+    private final SystemMediaInterface media;
+    private final List<PlaybackRule> rules;
+    private final Map<String, MediaSession> attached = new ConcurrentHashMap<>();
+    private final MediaSessionListener sessionListener = new SessionListener();
+    private final MediaSessionListener interfaceListener = new InterfaceListener();
+    private final Object lock = new Object();
+    private final LongAdder failedActions = new LongAdder();
+    private long events;
+    private long reactions;
+    private long actions;
+    private long totalReactionNanos;
+    private long lastReactionNanos;
+    private long maxReactionNanos;
+    private volatile boolean closed;
+
+    /**
+     * Start applying {@code rules}, in order, to current and future sessions of {@code media}.
+     */
+    public PlaybackRuleEngine(SystemMediaInterface media, List<? extends PlaybackRule> rules) {
+        this.media = Objects.requireNonNull(media, "media must not be null");
+        this.rules = List.copyOf(rules);
+        // Register first so sessions added while attaching are not missed; attach() ignores duplicates.
+        media.addSessionListener(interfaceListener);
+        media.getAllSessions().forEach(this::attach);
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(events, actions, failedActions.sum(),
+                    Duration.ofNanos(lastReactionNanos),
+                    Duration.ofNanos(maxReactionNanos),
+                    Duration.ofNanos(reactions == 0 ? 0 : totalReactionNanos / reactions));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        media.removeSessionListener(interfaceListener);
+        attached.values().forEach(session -> session.removeListener(sessionListener));
+        attached.clear();
+    }
+
+    private void attach(MediaSession session) {
+        if (!closed && attached.putIfAbsent(session.getSessionId(), session) == null) {
+            session.addListener(sessionListener);
+        }
+    }
+
+    private void evaluate(String trigger, BiFunction<PlaybackRule, List<MediaSession>, List<RuleAction>> evaluation) {
+        if (closed) {
+            return;
+        }
+        long receivedNanos = System.nanoTime();
+        synchronized (lock) {
+            List<MediaSession> sessions = media.getAllSessions();
+            events++;
+            int issued = 0;
+            for (PlaybackRule rule : rules) {
+                List<RuleAction> ruleActions;
+                try {
+                    ruleActions = evaluation.apply(rule, sessions);
+                } catch (RuntimeException e) {
+                    logger.warn("Playback rule {} failed on {}: {}", rule, trigger, e.getMessage());
+                    continue;
+                }
+                for (RuleAction action : ruleActions) {
+                    issue(action);
+                    issued++;
+                }
+            }
+            if (issued > 0) {
+                long reactionNanos = System.nanoTime() - receivedNanos;
+                reactions++;
+                actions += issued;
+                totalReactionNanos += reactionNanos;
+                lastReactionNanos = reactionNanos;
+                maxReactionNanos = Math.max(maxReactionNanos, reactionNanos);
+                logger.debug("Issued {} commands for {} within {} us", issued, trigger, reactionNanos / 1000);
+            }
+        }
+    }
+
+    private void issue(RuleAction action) {
+        String target = action.target().getSessionId();
+        try {
+            action.command().sendTo(action.target().getControls()).whenComplete((result, error) -> {
+                if (error != null || !result.isSuccess()) {
+                    failedActions.increment();
+                    logger.debug("{} for {} did not succeed: {}", action.command(), target,
+                            error != null ? error.getMessage() : result);
+                }
+            });
+        } catch (RuntimeException e) {
+            failedActions.increment();
+            logger.debug("Failed to send {} to {}: {}", action.command(), target, e.getMessage());
+        }
+    }
+
+    private final class SessionListener implements MediaSessionListener {
+        @Override
+        public void onPlaybackStateChanged(MediaSession session, PlaybackState state) {
+            evaluate(session.getSessionId() + " " + state,
+                    (rule, sessions) -> rule.onPlaybackStateChanged(session, state, sessions));
+        }
+    }
+
+    private final class InterfaceListener implements MediaSessionListener {
+        @Override
+        public void onSessionAdded(MediaSession session) {
+            attach(session);
+        }
+
+        @Override
+        public void onSessionRemoved(String sessionId) {
+            MediaSession session = attached.remove(sessionId);
+            if (session != null) {
+                session.removeListener(sessionListener);
+            }
+            evaluate(sessionId + " removed", (rule, sessions) -> rule.onSessionRemoved(sessionId, sessions));
+        }
+    }
+
+    /**
+     * @param events          session events the rules were evaluated for
+     * @param actions         commands the rules issued
+     * @param failedActions   issued commands the player rejected or did not answer in time
+     * @param lastReaction    time from an event to its last command being issued, for the latest reacting event
+     * @param maxReaction     longest such time
+     * @param averageReaction mean over all events that caused commands
+     */
+    public record Stats(long events, long actions, long failedActions,
+                        Duration lastReaction, Duration maxReaction, Duration averageReaction) {
+    }
+}
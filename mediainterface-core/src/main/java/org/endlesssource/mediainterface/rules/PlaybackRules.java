@@ -0,0 +1,38 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Built-in {@link PlaybackRule}s.
+ */
+public final class PlaybackRules {
+
+    private PlaybackRules() {
+    }
+
+    /**
+     * Only one session may play: when a session starts playing, every other playing session is paused.
+     */
+    public static ExclusivePlaybackRule onlyOnePlaying() {
+        return new ExclusivePlaybackRule(session -> true, false);
+    }
+
+    /**
+     * When a session matching {@code foreground} starts playing, every other playing session is paused, for example
+     * to silence music when a call starts.
+     */
+    public static ExclusivePlaybackRule pauseOthersWhilePlaying(Predicate<? super MediaSession> foreground) {
+        return new ExclusivePlaybackRule(foreground, false);
+    }
+
+    /**
+     * @param appName matched against {@link MediaSession#getApplicationName()}, ignoring case
+     */
+    public static ExclusivePlaybackRule pauseOthersWhilePlaying(String appName) {
+        Objects.requireNonNull(appName, "appName must not be null");
+        return pauseOthersWhilePlaying(session -> appName.equalsIgnoreCase(session.getApplicationName()));
+    }
+}
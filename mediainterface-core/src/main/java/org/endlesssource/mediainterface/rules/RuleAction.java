@@ -0,0 +1,19 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.BulkCommand;
+import org.endlesssource.mediainterface.api.MediaSession;
+
+import java.util.Objects;
+
+/**
+ * A command a {@link PlaybackRule} wants sent in reaction to an event.
+ *
+ * @param target  the session to command
+ * @param command the command to send
+ */
+public record RuleAction(MediaSession target, BulkCommand command) {
+    public RuleAction {
+        Objects.requireNonNull(target, "target must not be null");
+        Objects.requireNonNull(command, "command must not be null");
+    }
+}
@@ -0,0 +1,127 @@
+package org.endlesssource.mediainterface.spi;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MediaMetrics} kept in memory, for tests and debugging. {@link #snapshot()} returns everything recorded so
+ * far; distributions keep count, sum, minimum and maximum rather than individual values.
+ */
+public final class InMemoryMediaMetrics implements MediaMetrics {
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private final Map<Key, Accumulator> distributions = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(String name, String tag, long delta) {
+        counters.computeIfAbsent(new Key(name, tag), ignored -> new LongAdder()).add(delta);
+    }
+
+    @Override
+    public void record(String name, String tag, long value) {
+        distributions.computeIfAbsent(new Key(name, tag), ignored -> new Accumulator()).add(value);
+    }
+
+    @Override
+    public void gauge(String name, String tag, long value) {
+        gauges.computeIfAbsent(new Key(name, tag), ignored -> new AtomicLong()).set(value);
+    }
+
+    public Snapshot snapshot() {
+        Map<Key, Long> counterValues = new HashMap<>();
+        counters.forEach((key, adder) -> counterValues.put(key, adder.sum()));
+        Map<Key, Long> gaugeValues = new HashMap<>();
+        gauges.forEach((key, value) -> gaugeValues.put(key, value.get()));
+        Map<Key, Distribution> distributionValues = new HashMap<>();
+        distributions.forEach((key, accumulator) -> distributionValues.put(key, accumulator.toDistribution()));
+        return new Snapshot(counterValues, gaugeValues, distributionValues);
+    }
+
+    public void reset() {
+        counters.clear();
+        gauges.clear();
+        distributions.clear();
+    }
+
+    /**
+     * @param name metric name, see the constants on {@link MediaMetrics}
+     * @param tag  what the measurement is about; never null
+     */
+    public record Key(String name, String tag) implements Comparable<Key> {
+        public Key {
+            Objects.requireNonNull(name, "name must not be null");
+            tag = tag == null ? "" : tag;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : tag.compareTo(other.tag);
+        }
+    }
+
+    public record Distribution(long count, long sum, long min, long max) {
+        public double mean() {
+            return count == 0 ? 0.0d : (double) sum / count;
+        }
+    }
+
+    /**
+     * Everything recorded up to the time of the snapshot, sorted by name and tag.
+     */
+    public record Snapshot(Map<Key, Long> counters, Map<Key, Long> gauges, Map<Key, Distribution> distributions) {
+        public Snapshot {
+            counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+            gauges = Collections.unmodifiableMap(new TreeMap<>(gauges));
+            distributions = Collections.unmodifiableMap(new TreeMap<>(distributions));
+        }
+
+        public long counter(String name, String tag) {
+            return counters.getOrDefault(new Key(name, tag), 0L);
+        }
+
+        /**
+         * @return the sum of a counter over all tags
+         */
+        public long counter(String name) {
+            return counters.entrySet().stream()
+                    .filter(entry -> entry.getKey().name().equals(name))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        public OptionalLong gauge(String name, String tag) {
+            Long value = gauges.get(new Key(name, tag));
+            return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+        }
+
+        public Distribution distribution(String name, String tag) {
+            return distributions.getOrDefault(new Key(name, tag), new Distribution(0, 0, 0, 0));
+        }
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        synchronized void add(long value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        synchronized Distribution toDistribution() {
+            return count == 0 ? new Distribution(0, 0, 0, 0) : new Distribution(count, sum, min, max);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.endlesssource.mediainterface.spi;
+
+/**
+ * Holds the sink returned by {@link MediaMetrics#get()}.
+ */
+final class InstalledMetrics {
+    static volatile MediaMetrics current = MediaMetrics.NOOP;
+
+    private InstalledMetrics() {
+    }
+}
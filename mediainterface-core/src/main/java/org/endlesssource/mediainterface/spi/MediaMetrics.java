@@ -0,0 +1,77 @@
+package org.endlesssource.mediainterface.spi;
+
+import java.util.Objects;
+
+/**
+ * Sink for the library's internal measurements.
+ * <p>
+ * Nothing is recorded until an implementation is {@linkplain #install installed}; the default discards everything,
+ * so instrumented code costs a volatile read and an empty call. Implementations adapt these calls to a metrics
+ * library of their choice and must be thread-safe and non-blocking, as they are called on refresh and event threads.
+ * Each measurement has a name from the constants below and a tag naming what it is about, usually a session or
+ * player id.
+ */
+public interface MediaMetrics {
+    /** Time one session refresh took, in nanoseconds. Tag: session id. */
+    String SESSION_REFRESH_NANOS = "mediainterface.session.refresh.nanos";
+    /** Remote calls (D-Bus, JNI or adapter processes) made by one session refresh. Tag: session id. */
+    String PLAYER_CALLS_PER_REFRESH = "mediainterface.player.calls.per_refresh";
+    /** Calls to a player that failed or timed out. Tag: session or player id. */
+    String PLAYER_CALL_FAILURES = "mediainterface.player.call.failures";
+    /** Wall time of one helper process, in nanoseconds. Tag: the adapter command. */
+    String PROCESS_SPAWN_NANOS = "mediainterface.process.spawn.nanos";
+    /** Time spent calling session listeners for one event, in nanoseconds. Tag: session id. */
+    String LISTENER_DISPATCH_NANOS = "mediainterface.listener.dispatch.nanos";
+    /** Events still queued for a session's listeners when it dispatches one. Tag: session id. */
+    String LISTENER_QUEUE_DEPTH = "mediainterface.listener.queue.depth";
+    /** Artwork cache lookups that found an entry. Tag: cache kind. */
+    String ARTWORK_CACHE_HITS = "mediainterface.artwork.cache.hits";
+    /** Artwork cache lookups that missed. Tag: cache kind. */
+    String ARTWORK_CACHE_MISSES = "mediainterface.artwork.cache.misses";
+    /** Bytes held by an artwork cache. Tag: cache kind. */
+    String ARTWORK_CACHE_BYTES = "mediainterface.artwork.cache.bytes";
+    /** Sessions a media interface is monitoring. Tag: platform. */
+    String SESSIONS = "mediainterface.sessions";
+
+    /** Discards every measurement. */
+    MediaMetrics NOOP = new MediaMetrics() {
+    };
+
+    /**
+     * Add {@code delta} to a counter.
+     */
+    default void increment(String name, String tag, long delta) {
+    }
+
+    /**
+     * Record one observation of a distribution, such as a duration in nanoseconds.
+     */
+    default void record(String name, String tag, long value) {
+    }
+
+    /**
+     * Set the current value of a gauge.
+     */
+    default void gauge(String name, String tag, long value) {
+    }
+
+    /**
+     * @return the installed sink, {@link #NOOP} unless one was installed
+     */
+    static MediaMetrics get() {
+        return InstalledMetrics.current;
+    }
+
+    /**
+     * Route the measurements of every media interface in this JVM to {@code metrics}.
+     * @return the previously installed sink
+     */
+    static MediaMetrics install(MediaMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        synchronized (InstalledMetrics.class) {
+            MediaMetrics previous = InstalledMetrics.current;
+            InstalledMetrics.current = metrics;
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sessions whose player vanished, kept for a grace period in case the same player comes back.
+ * <p>
+ * Players often drop and re-acquire their identity on update, crash-restart or tab reload. Parking the session
+ * instead of closing it lets the provider revive it with its cached state, so listeners see neither a removal nor
+ * an add. A session that is not revived in time is handed to the expiry callback, which performs the real removal.
+ *
+ * @param <S> the provider's session type
+ */
+public final class ParkedSessions<S extends MediaSession> {
+    private final Map<String, Parked<S>> parked = new ConcurrentHashMap<>();
+
+    /**
+     * @param grace how long to wait before expiring; zero or no scheduler means the session is not parked
+     * @param onExpired performs the removal once the grace period ends without a revival
+     * @return true if the session was parked, false if the caller should remove it now
+     */
+    public boolean park(String sessionId, S session, Duration grace, ScheduledExecutorService scheduler,
+                        Consumer<S> onExpired) {
+        if (grace.isZero() || scheduler == null) {
+            return false;
+        }
+        Parked<S> entry = new Parked<>(session);
+        Parked<S> displaced = parked.put(sessionId, entry);
+        if (displaced != null) {
+            displaced.cancel();
+            onExpired.accept(displaced.session);
+        }
+        try {
+            entry.expiry = scheduler.schedule(() -> {
+                if (parked.remove(sessionId, entry)) {
+                    onExpired.accept(session);
+                }
+            }, grace.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            parked.remove(sessionId, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the parked session with this id, no longer scheduled to expire
+     */
+    public Optional<S> revive(String sessionId) {
+        Parked<S> entry = parked.remove(sessionId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.cancel();
+        return Optional.of(entry.session);
+    }
+
+    public boolean isParked(String sessionId) {
+        return parked.containsKey(sessionId);
+    }
+
+    public List<S> sessions() {
+        List<S> sessions = new ArrayList<>();
+        parked.values().forEach(entry -> sessions.add(entry.session));
+        return sessions;
+    }
+
+    /**
+     * Forget every parked session without expiring it.
+     * @return the sessions that were parked, for the caller to close
+     */
+    public List<S> drain() {
+        List<S> drained = new ArrayList<>();
+        for (String sessionId : new ArrayList<>(parked.keySet())) {
+            revive(sessionId).ifPresent(drained::add);
+        }
+        return drained;
+    }
+
+    private static final class Parked<S> {
+        private final S session;
+        private volatile ScheduledFuture<?> expiry;
+
+        private Parked(S session) {
+            this.session = session;
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package org.endlesssource.mediainterface.spi;
 
 import org.endlesssource.mediainterface.PlatformSupport;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 
+import java.util.List;
+
 /**
  * SPI implemented by platform-specific modules.
  */
@@ -28,4 +31,17 @@ public interface PlatformMediaProvider {
      * Create the platform media interface.
      */
     SystemMediaInterface create(SystemMediaOptions options);
+
+    /**
+     * Create the platform media interface as soon as its transport is usable and initialize sessions in the
+     * background. {@code listeners} are registered before the first session is announced through
+     * {@link MediaSessionListener#onSessionAdded}.
+     * The default creates synchronously, then registers the listeners and announces the sessions found.
+     */
+    default SystemMediaInterface createProgressive(SystemMediaOptions options, List<MediaSessionListener> listeners) {
+        SystemMediaInterface media = create(options);
+        listeners.forEach(media::addSessionListener);
+        media.getAllSessions().forEach(session -> listeners.forEach(listener -> listener.onSessionAdded(session)));
+        return media;
+    }
 }
@@ -0,0 +1,98 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.CommandResult;
+import org.endlesssource.mediainterface.api.PlaybackState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Optimistic playback state for transport commands that are waiting to be observed.
+ * <p>
+ * After a player accepts a command, the provider registers the state the command should lead to and reports it
+ * straight away. Refreshes pass what they read through {@link #reconcile}: until the expected state is seen or the
+ * expectation expires, stale reads keep reporting the expected state so the UI does not flicker back. Seeing the
+ * state completes the waiting futures successfully; expiry completes them as timed out and lets the observed state
+ * through.
+ */
+public final class PlaybackExpectations {
+    /** How long an optimistic state is held for commands that nobody is waiting on. */
+    public static final Duration DEFAULT_HOLD = Duration.ofSeconds(1);
+
+    private final LongSupplier nanoClock;
+    private final List<CompletableFuture<CommandResult>> waiters = new ArrayList<>();
+    private PlaybackState expected;
+    private long deadlineNanos;
+
+    public PlaybackExpectations() {
+        this(System::nanoTime);
+    }
+
+    PlaybackExpectations(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Expect the player to report {@code state} within {@code timeout}. A different pending expectation is
+     * superseded and its futures fail.
+     * @return completes once the state is observed, or as timed out
+     */
+    public CompletableFuture<CommandResult> expect(PlaybackState state, Duration timeout) {
+        Objects.requireNonNull(state, "state must not be null");
+        CompletableFuture<CommandResult> confirmed = new CompletableFuture<>();
+        List<CompletableFuture<CommandResult>> superseded;
+        synchronized (this) {
+            superseded = expected != null && expected != state ? takeWaiters() : List.of();
+            expected = state;
+            deadlineNanos = nanoClock.getAsLong() + timeout.toNanos();
+            waiters.add(confirmed);
+        }
+        superseded.forEach(waiter -> waiter.complete(CommandResult.failed("Superseded by a later command")));
+        return confirmed.completeOnTimeout(notObserved(state, timeout), timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param observed the state the player just reported
+     * @return the state to publish: the expected one while it is pending, otherwise {@code observed}
+     */
+    public PlaybackState reconcile(PlaybackState observed) {
+        List<CompletableFuture<CommandResult>> confirmed;
+        synchronized (this) {
+            if (expected == null) {
+                return observed;
+            }
+            if (observed != expected && nanoClock.getAsLong() - deadlineNanos < 0) {
+                return expected;
+            }
+            confirmed = observed == expected ? takeWaiters() : List.of();
+            expected = null;
+            waiters.clear();
+        }
+        // Expired waiters complete themselves as timed out.
+        confirmed.forEach(waiter -> waiter.complete(CommandResult.success()));
+        return observed;
+    }
+
+    /**
+     * @return the state a pending command is expected to produce
+     */
+    public synchronized Optional<PlaybackState> pending() {
+        return Optional.ofNullable(expected);
+    }
+
+    private List<CompletableFuture<CommandResult>> takeWaiters() {
+        List<CompletableFuture<CommandResult>> taken = new ArrayList<>(waiters);
+        waiters.clear();
+        return taken;
+    }
+
+    private static CommandResult notObserved(PlaybackState state, Duration timeout) {
+        return CommandResult.timedOut("Player did not report " + state + " within " + timeout.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,151 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.CommandResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Latest-wins seek queue for scrubbing.
+ * <p>
+ * At most one seek is in flight, and consecutive seeks are at least the minimum interval apart. Positions submitted
+ * in the meantime replace each other; only the newest is sent, and every caller it replaced gets its result.
+ * Providers route both {@code seek} and {@code seekAsync} through one coalescer, so blocking callers are coalesced
+ * and rate limited as well.
+ */
+public final class SeekCoalescer {
+    private static final int BLOCKING_THREADS = 2;
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService BLOCKING_POOL = createBlockingPool();
+
+    private final Function<Duration, CompletableFuture<CommandResult>> sender;
+    private final List<CompletableFuture<CommandResult>> waiters = new ArrayList<>();
+    private long minIntervalNanos;
+    private Duration pendingPosition;
+    private boolean inFlight;
+    private boolean drainScheduled;
+    private boolean sentAny;
+    private long lastSentNanos;
+
+    /**
+     * @param minInterval shortest time between two seeks sent to the player; zero only waits for the previous seek
+     * @param sender      sends one seek to the player
+     */
+    public SeekCoalescer(Duration minInterval, Function<Duration, CompletableFuture<CommandResult>> sender) {
+        this.sender = Objects.requireNonNull(sender, "sender must not be null");
+        setMinInterval(minInterval);
+    }
+
+    /**
+     * Coalescer for a player whose seek is a blocking call. The call runs on a small pool shared by all such
+     * coalescers; each coalescer has at most one call in flight, so a slow player holds one thread at most.
+     *
+     * @param seek sends one seek to the player and returns whether it was accepted
+     */
+    public static SeekCoalescer blocking(Duration minInterval, Predicate<Duration> seek) {
+        Objects.requireNonNull(seek, "seek must not be null");
+        return new SeekCoalescer(minInterval, position -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return CommandResult.of(seek.test(position));
+            } catch (RuntimeException e) {
+                return CommandResult.failed(e.getMessage());
+            }
+        }, BLOCKING_POOL));
+    }
+
+    public synchronized void setMinInterval(Duration minInterval) {
+        Objects.requireNonNull(minInterval, "minInterval must not be null");
+        if (minInterval.isNegative()) {
+            throw new IllegalArgumentException("minInterval must not be negative");
+        }
+        this.minIntervalNanos = minInterval.toNanos();
+    }
+
+    /**
+     * @return completes with the result of the seek that carried this position or a later one
+     */
+    public CompletableFuture<CommandResult> submit(Duration position) {
+        Objects.requireNonNull(position, "position must not be null");
+        CompletableFuture<CommandResult> result = new CompletableFuture<>();
+        synchronized (this) {
+            pendingPosition = position;
+            waiters.add(result);
+        }
+        drain();
+        return result;
+    }
+
+    /**
+     * Blocking form of {@link #submit}, for {@code MediaTransportControls.seek}.
+     *
+     * @return true if the seek that carried this position or a later one was accepted
+     */
+    public boolean seek(Duration position) {
+        return submit(position).join().isSuccess();
+    }
+
+    private void drain() {
+        Duration position;
+        List<CompletableFuture<CommandResult>> batch;
+        synchronized (this) {
+            if (inFlight || drainScheduled || pendingPosition == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            long waitNanos = lastSentNanos + minIntervalNanos - now;
+            if (sentAny && waitNanos > 0) {
+                drainScheduled = true;
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                    synchronized (this) {
+                        drainScheduled = false;
+                    }
+                    drain();
+                });
+                return;
+            }
+            position = pendingPosition;
+            pendingPosition = null;
+            batch = new ArrayList<>(waiters);
+            waiters.clear();
+            inFlight = true;
+            sentAny = true;
+            lastSentNanos = now;
+        }
+
+        CompletableFuture<CommandResult> sent;
+        try {
+            sent = sender.apply(position);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.completedFuture(CommandResult.failed(e.getMessage()));
+        }
+        sent.whenComplete((result, error) -> {
+            CommandResult outcome = error == null ? result : CommandResult.failed(error.getMessage());
+            batch.forEach(waiter -> waiter.complete(outcome));
+            synchronized (this) {
+                inFlight = false;
+            }
+            drain();
+        });
+    }
+
+    private static ExecutorService createBlockingPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(BLOCKING_THREADS, BLOCKING_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-seek-" + THREAD_IDS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -0,0 +1,235 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.PlaybackState;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Lookup index over a provider's sessions, maintained as sessions come, go and change state.
+ * <p>
+ * Writes rebuild small immutable views, so reads never copy or re-normalize anything. The active session is ranked by
+ * playback state and then by how recently that state was entered. A session that plays but does not outrank the
+ * current choice (for example a second player starting) only takes over after holding its state for the hysteresis
+ * window, so short notification sounds do not steal the active slot.
+ *
+ * @param <S> the provider's session type
+ */
+public final class SessionIndex<S extends MediaSession> {
+    public static final Duration DEFAULT_HYSTERESIS = Duration.ofMillis(1500);
+
+    private final long hysteresisNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry<S>> entries = new LinkedHashMap<>();
+    private long nextOrder;
+
+    private volatile List<Entry<S>> snapshot = List.of();
+    private volatile List<S> all = List.of();
+    private volatile Map<String, List<S>> byName = Map.of();
+    private volatile Map<PlaybackState, List<S>> byState = Map.of();
+    private volatile Entry<S> active;
+    private volatile Entry<S> challenger;
+
+    public SessionIndex() {
+        this(DEFAULT_HYSTERESIS);
+    }
+
+    /**
+     * @param hysteresis how long an equally ranked session must hold its state before it becomes active
+     */
+    public SessionIndex(Duration hysteresis) {
+        this(hysteresis, System::nanoTime);
+    }
+
+    SessionIndex(Duration hysteresis, LongSupplier nanoClock) {
+        Objects.requireNonNull(hysteresis, "hysteresis must not be null");
+        if (hysteresis.isNegative()) {
+            throw new IllegalArgumentException("hysteresis must not be negative");
+        }
+        this.hysteresisNanos = hysteresis.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Add a session, or re-index it if it is already present.
+     */
+    public synchronized void add(S session) {
+        Entry<S> existing = entries.get(session.getSessionId());
+        if (existing != null && existing.session == session) {
+            update(session);
+            return;
+        }
+        entries.put(session.getSessionId(), new Entry<>(session, stateOf(session), nanoClock.getAsLong(), nextOrder++));
+        rebuild();
+    }
+
+    /**
+     * Re-read the state and application name of an indexed session. Sessions that are not indexed are ignored, so
+     * providers may call this from refresh threads before the session has been added or after it was removed.
+     */
+    public synchronized void update(S session) {
+        Entry<S> existing = entries.get(session.getSessionId());
+        if (existing == null || existing.session != session) {
+            return;
+        }
+        PlaybackState state = stateOf(session);
+        String name = normalize(session.getApplicationName());
+        if (state == existing.state && name.equals(existing.name)) {
+            return;
+        }
+        long since = state == existing.state ? existing.stateSinceNanos : nanoClock.getAsLong();
+        entries.put(session.getSessionId(), new Entry<>(session, state, since, existing.order));
+        rebuild();
+    }
+
+    public synchronized void remove(String sessionId) {
+        if (entries.remove(sessionId) != null) {
+            rebuild();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        rebuild();
+    }
+
+    /**
+     * @return all indexed sessions in the order they were added
+     */
+    public List<S> all() {
+        return all;
+    }
+
+    public boolean isEmpty() {
+        return all.isEmpty();
+    }
+
+    /**
+     * Find a session by application name, ignoring case. An exact name wins; otherwise the first session whose name
+     * contains the query is returned.
+     */
+    public Optional<S> byApp(String appName) {
+        String query = normalize(appName);
+        List<S> exact = byName.get(query);
+        if (exact != null) {
+            return Optional.of(exact.get(0));
+        }
+        for (Entry<S> entry : snapshot) {
+            if (entry.name.contains(query)) {
+                return Optional.of(entry.session);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return sessions currently in the given state, in the order they were added
+     */
+    public List<S> byState(PlaybackState state) {
+        return byState.getOrDefault(state, List.of());
+    }
+
+    /**
+     * @return the most relevant session: playing before paused before anything else, then most recent state change,
+     * with hysteresis against equally ranked challengers
+     */
+    public Optional<S> active() {
+        Entry<S> pending = challenger;
+        if (pending != null && nanoClock.getAsLong() - pending.stateSinceNanos >= hysteresisNanos) {
+            synchronized (this) {
+                if (challenger == pending) {
+                    active = pending;
+                    challenger = null;
+                }
+            }
+        }
+        Entry<S> current = active;
+        return current == null ? Optional.empty() : Optional.of(current.session);
+    }
+
+    private void rebuild() {
+        List<S> sessions = new ArrayList<>(entries.size());
+        Map<String, List<S>> names = new HashMap<>();
+        Map<PlaybackState, List<S>> states = new EnumMap<>(PlaybackState.class);
+        for (Entry<S> entry : entries.values()) {
+            sessions.add(entry.session);
+            names.computeIfAbsent(entry.name, ignored -> new ArrayList<>()).add(entry.session);
+            states.computeIfAbsent(entry.state, ignored -> new ArrayList<>()).add(entry.session);
+        }
+        names.replaceAll((name, list) -> List.copyOf(list));
+        states.replaceAll((state, list) -> List.copyOf(list));
+        snapshot = List.copyOf(entries.values());
+        all = List.copyOf(sessions);
+        byName = Collections.unmodifiableMap(names);
+        byState = Collections.unmodifiableMap(states);
+        rank();
+    }
+
+    private void rank() {
+        Entry<S> best = null;
+        for (Entry<S> entry : entries.values()) {
+            if (best == null || outranks(entry, best)) {
+                best = entry;
+            }
+        }
+        Entry<S> current = active == null ? null : entries.get(active.session.getSessionId());
+        if (current == null || current.session != active.session || best == null
+                || rank(best.state) > rank(current.state)) {
+            // The previous choice is gone or clearly beaten: switch now.
+            active = best;
+            challenger = null;
+        } else if (best == current) {
+            active = current;
+            challenger = null;
+        } else {
+            active = current;
+            challenger = best;
+        }
+    }
+
+    private static boolean outranks(Entry<?> candidate, Entry<?> other) {
+        int byRank = Integer.compare(rank(candidate.state), rank(other.state));
+        if (byRank != 0) {
+            return byRank > 0;
+        }
+        if (candidate.stateSinceNanos != other.stateSinceNanos) {
+            return candidate.stateSinceNanos - other.stateSinceNanos > 0;
+        }
+        return candidate.order < other.order;
+    }
+
+    private static int rank(PlaybackState state) {
+        return switch (state) {
+            case PLAYING -> 2;
+            case PAUSED -> 1;
+            default -> 0;
+        };
+    }
+
+    private static PlaybackState stateOf(MediaSession session) {
+        PlaybackState state = session.getControls().getPlaybackState();
+        return state == null ? PlaybackState.UNKNOWN : state;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry<S extends MediaSession>(S session, PlaybackState state, long stateSinceNanos, long order,
+                                                 String name) {
+        private Entry(S session, PlaybackState state, long stateSinceNanos, long order) {
+            this(session, state, stateSinceNanos, order, normalize(session.getApplicationName()));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.endlesssource.mediainterface;
+
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderRegistryTest {
+
+    @Test
+    void providers_areDiscoveredOnceUntilInvalidated() {
+        AtomicInteger discoveries = new AtomicInteger();
+        ProviderRegistry registry = new ProviderRegistry(() -> {
+            discoveries.incrementAndGet();
+            return List.of(new TestProvider("a", () -> PlatformSupport.available("a")));
+        });
+
+        List<PlatformMediaProvider> first = registry.providers();
+        assertSame(first, registry.providers());
+        assertEquals(1, discoveries.get());
+
+        registry.invalidateAll();
+        registry.providers();
+        assertEquals(2, discoveries.get());
+    }
+
+    @Test
+    void probeResults_areCachedUntilInvalidated() {
+        AtomicInteger probes = new AtomicInteger();
+        TestProvider provider = new TestProvider("a", () -> {
+            probes.incrementAndGet();
+            return PlatformSupport.available("a");
+        });
+        ProviderRegistry registry = new ProviderRegistry(() -> List.of(provider));
+
+        registry.probeAll(List.of(provider));
+        registry.probeAll(List.of(provider));
+        assertEquals(1, probes.get());
+
+        registry.invalidateProbeResults();
+        registry.probeAll(List.of(provider));
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    void invalidation_startsNewProbeInsteadOfJoiningRunningOne() {
+        AtomicInteger probes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TestProvider provider = new TestProvider("a", () -> {
+            if (probes.incrementAndGet() == 1) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return PlatformSupport.unavailable("a", "stale");
+            }
+            return PlatformSupport.available("a");
+        });
+        ProviderRegistry registry = new ProviderRegistry(() -> List.of(provider));
+        registry.setProbeTimeout(Duration.ofMillis(100));
+
+        assertFalse(registry.probeAll(List.of(provider)).get(0).available());
+        registry.invalidateProbeResults();
+        PlatformSupport fresh = registry.probeAll(List.of(provider)).get(0);
+        release.countDown();
+
+        assertTrue(fresh.available());
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    void probeResults_expireAfterTtl() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        TestProvider provider = new TestProvider("a", () -> {
+            probes.incrementAndGet();
+            return PlatformSupport.available("a");
+        });
+        ProviderRegistry registry = new ProviderRegistry(() -> List.of(provider));
+        registry.setProbeResultTtl(Duration.ofMillis(20));
+
+        registry.probeAll(List.of(provider));
+        Thread.sleep(60);
+        registry.probeAll(List.of(provider));
+
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    void slowProbe_timesOutWithoutBlockingOthers() {
+        CountDownLatch release = new CountDownLatch(1);
+        TestProvider slow = new TestProvider("slow", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PlatformSupport.available("slow");
+        });
+        TestProvider fast = new TestProvider("fast", () -> PlatformSupport.available("fast"));
+        ProviderRegistry registry = new ProviderRegistry(() -> List.of(slow, fast));
+        registry.setProbeTimeout(Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        List<PlatformSupport> results = registry.probeAll(List.of(slow, fast));
+        release.countDown();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertFalse(results.get(0).available());
+        assertTrue(results.get(0).reason().contains("timed out"));
+        assertTrue(results.get(1).available());
+    }
+
+    @Test
+    void failingProbe_isReportedUnavailable() {
+        TestProvider broken = new TestProvider("broken", () -> {
+            throw new IllegalStateException("no native library");
+        });
+        ProviderRegistry registry = new ProviderRegistry(() -> List.of(broken));
+
+        PlatformSupport support = registry.probeAll(List.of(broken)).get(0);
+
+        assertFalse(support.available());
+        assertTrue(support.reason().contains("no native library"));
+    }
+
+    @Test
+    void invalidTimeout_throws() {
+        ProviderRegistry registry = new ProviderRegistry(List::of);
+        assertThrows(IllegalArgumentException.class, () -> registry.setProbeTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> registry.setProbeResultTtl(Duration.ofSeconds(-1)));
+    }
+
+    private interface Probe {
+        PlatformSupport run();
+    }
+
+    private static final class TestProvider implements PlatformMediaProvider {
+        private final String id;
+        private final Probe probe;
+
+        private TestProvider(String id, Probe probe) {
+            this.id = id;
+            this.probe = probe;
+        }
+
+        @Override
+        public String platformId() {
+            return id;
+        }
+
+        @Override
+        public boolean supportsCurrentOs() {
+            return true;
+        }
+
+        @Override
+        public PlatformSupport probeSupport() {
+            return probe.run();
+        }
+
+        @Override
+        public SystemMediaInterface create(SystemMediaOptions options) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
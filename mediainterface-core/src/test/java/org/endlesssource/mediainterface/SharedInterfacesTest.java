@@ -0,0 +1,142 @@
+package org.endlesssource.mediainterface;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.endlesssource.mediainterface.test.DummySystemMediaInterface;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedInterfacesTest {
+
+    @Test
+    void equalOptions_shareOneEngineUntilLastRelease() {
+        List<TrackingInterface> created = new ArrayList<>();
+        SharedInterfaces shared = new SharedInterfaces(options -> {
+            TrackingInterface media = new TrackingInterface();
+            created.add(media);
+            return media;
+        });
+        SystemMediaOptions options = SystemMediaOptions.defaults();
+
+        SystemMediaInterface tray = shared.acquire(options);
+        SystemMediaInterface overlay = shared.acquire(SystemMediaOptions.defaults());
+        assertEquals(1, created.size());
+        assertEquals(2, shared.references(options));
+
+        tray.close();
+        tray.close();
+        assertEquals(0, created.get(0).closes.get());
+        assertTrue(overlay.hasActiveSessions());
+
+        overlay.close();
+        assertEquals(1, created.get(0).closes.get());
+        assertEquals(0, shared.references(options));
+    }
+
+    @Test
+    void differentOptions_getSeparateEngines() {
+        AtomicInteger creations = new AtomicInteger();
+        SharedInterfaces shared = new SharedInterfaces(options -> {
+            creations.incrementAndGet();
+            return new TrackingInterface();
+        });
+
+        try (SystemMediaInterface a = shared.acquire(SystemMediaOptions.defaults());
+             SystemMediaInterface b = shared.acquire(SystemMediaOptions.defaults().withSessionPollInterval(Duration.ofSeconds(5)))) {
+            assertEquals(2, creations.get());
+        }
+    }
+
+    @Test
+    void closingHandle_removesOnlyItsListeners() {
+        TrackingInterface engine = new TrackingInterface();
+        SharedInterfaces shared = new SharedInterfaces(options -> engine);
+        MediaSessionListener first = new MediaSessionListener() { };
+        MediaSessionListener second = new MediaSessionListener() { };
+
+        SystemMediaInterface a = shared.acquire(SystemMediaOptions.defaults());
+        SystemMediaInterface b = shared.acquire(SystemMediaOptions.defaults());
+        a.addSessionListener(first);
+        b.addSessionListener(second);
+        a.close();
+
+        assertEquals(List.of(second), engine.listeners);
+        assertThrows(IllegalStateException.class, a::getAllSessions);
+        assertFalse(b.supportsOptionUpdates());
+        assertThrows(UnsupportedOperationException.class, () -> b.updateOptions(SystemMediaOptions.defaults()));
+        b.close();
+    }
+
+    @Test
+    void failedCreation_isNotCached() {
+        AtomicInteger attempts = new AtomicInteger();
+        SharedInterfaces shared = new SharedInterfaces(options -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("bus unavailable");
+            }
+            return new TrackingInterface();
+        });
+
+        assertThrows(IllegalStateException.class, () -> shared.acquire(SystemMediaOptions.defaults()));
+        shared.acquire(SystemMediaOptions.defaults()).close();
+        assertEquals(2, attempts.get());
+    }
+
+    private static final class TrackingInterface implements SystemMediaInterface {
+        private final DummySystemMediaInterface delegate = new DummySystemMediaInterface();
+        private final List<MediaSessionListener> listeners = new ArrayList<>();
+        private final AtomicInteger closes = new AtomicInteger();
+
+        @Override
+        public Optional<MediaSession> getActiveSession() {
+            return delegate.getActiveSession();
+        }
+
+        @Override
+        public List<MediaSession> getAllSessions() {
+            return delegate.getAllSessions();
+        }
+
+        @Override
+        public Optional<MediaSession> getSessionByApp(String appName) {
+            return delegate.getSessionByApp(appName);
+        }
+
+        @Override
+        public boolean hasActiveSessions() {
+            return delegate.hasActiveSessions();
+        }
+
+        @Override
+        public void addSessionListener(MediaSessionListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeSessionListener(MediaSessionListener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public boolean isEventDrivenEnabled() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closes.incrementAndGet();
+        }
+    }
+}
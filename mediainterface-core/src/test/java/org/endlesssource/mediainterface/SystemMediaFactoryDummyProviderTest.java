@@ -1,6 +1,7 @@
 package org.endlesssource.mediainterface;
 
 import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.NowPlaying;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
@@ -8,7 +9,10 @@ import org.endlesssource.mediainterface.test.DummyPlatformMediaProvider;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,6 +50,28 @@ class SystemMediaFactoryDummyProviderTest {
         assertEquals(Duration.ofMillis(200), captured.getSessionUpdateInterval());
     }
 
+    @Test
+    void createSystemInterfaceAsync_announcesSessionsToInitialListeners() throws Exception {
+        List<String> added = new CopyOnWriteArrayList<>();
+        MediaSessionListener listener = new MediaSessionListener() {
+            @Override
+            public void onSessionAdded(MediaSession session) {
+                added.add(session.getApplicationName());
+            }
+        };
+
+        try (SystemMediaInterface media = SystemMediaFactory.createSystemInterfaceAsync(SystemMediaOptions.defaults(), listener)
+                .get(5, TimeUnit.SECONDS)) {
+            assertTrue(media.hasActiveSessions());
+            assertEquals(List.of("Dummy Player"), added);
+        }
+
+        StartupTimings timings = SystemMediaFactory.getLastStartupTimings().orElseThrow();
+        assertEquals("test-dummy", timings.platform());
+        assertTrue(timings.asynchronous());
+        assertFalse(timings.total().isNegative());
+    }
+
     @Test
     void currentPlatformSupport_reportsAvailableWhenDummyProviderPresent() {
         PlatformSupport support = SystemMediaFactory.getCurrentPlatformSupport();
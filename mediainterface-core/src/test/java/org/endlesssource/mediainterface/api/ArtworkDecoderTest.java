@@ -38,5 +38,10 @@ class ArtworkDecoderTest {
         assertTrue(ArtworkDecoder.decodeBytes(temp.toString()).isPresent());
         assertArrayEquals(input, ArtworkDecoder.decodeBytes(temp.toString()).orElseThrow());
     }
-}
 
+    @Test
+    void decodeBytes_returnsEmptyForUrlWithoutHost() {
+        assertTrue(ArtworkDecoder.decodeBytes("http://my_host.example/a.png").isEmpty());
+        assertTrue(ArtworkDecoder.decodeBytes("http://my_host.example/a.png").isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package org.endlesssource.mediainterface.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtworkTest {
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a, 0x0a, 1, 2, 3, 4};
+
+    @Test
+    void base64Artwork_exposesReadOnlyBytesAndStream() throws Exception {
+        Artwork artwork = Artwork.ofBase64(Base64.getEncoder().encodeToString(PNG), "image/png");
+
+        ByteBuffer first = artwork.getBytes().orElseThrow();
+        ByteBuffer second = artwork.getBytes().orElseThrow();
+
+        assertTrue(first.isReadOnly());
+        assertEquals(first, second);
+        try (InputStream in = artwork.openStream().orElseThrow()) {
+            assertArrayEquals(PNG, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void contentHash_isIndependentOfEncoding() {
+        Artwork fromBytes = Artwork.ofBytes(PNG, null);
+        Artwork fromDataUri = Artwork.fromLocator("data:image/png;base64," + Base64.getEncoder().encodeToString(PNG));
+
+        assertEquals(fromBytes.getContentHash(), fromDataUri.getContentHash());
+        assertEquals(64, fromBytes.getContentHash().orElseThrow().length());
+    }
+
+    @Test
+    void mimeType_isDeclaredGuessedOrSniffed() {
+        assertEquals("image/jpeg", Artwork.ofBase64("AAAA", "image/jpeg").getMimeType().orElseThrow());
+        assertEquals("image/png", Artwork.ofLocation("https://example.invalid/cover.PNG?size=large").getMimeType().orElseThrow());
+        assertEquals("image/png", Artwork.ofBytes(PNG, null).getMimeType().orElseThrow());
+    }
+
+    @Test
+    void toLocator_preservesLegacyStrings() {
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG);
+        String base64 = Base64.getEncoder().encodeToString(PNG);
+
+        assertSame(dataUri, Artwork.fromLocator(dataUri).toLocator());
+        assertEquals(dataUri, Artwork.ofBase64(base64, "image/png").toLocator());
+        assertEquals(base64, Artwork.ofBase64(base64, null).toLocator());
+        assertEquals("file:///tmp/cover.jpg", Artwork.fromLocator("file:///tmp/cover.jpg").toLocator());
+    }
+
+    @Test
+    void fromLocator_distinguishesPathsFromBase64(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("cover.png"), PNG);
+
+        Artwork path = Artwork.fromLocator(file.toString());
+        Artwork inline = Artwork.fromLocator(Base64.getEncoder().encodeToString(PNG));
+
+        assertFalse(path.isInline());
+        assertEquals(file.toString(), path.getLocation().orElseThrow());
+        assertArrayEquals(PNG, bytes(path));
+        assertTrue(inline.isInline());
+        assertArrayEquals(PNG, bytes(inline));
+    }
+
+    @Test
+    void equality_comparesSourceWithoutDecoding() {
+        String base64 = Base64.getEncoder().encodeToString("cover".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Artwork.ofBase64(base64, "image/jpeg"), Artwork.ofBase64(base64, "image/jpeg"));
+        assertNotEquals(Artwork.ofBase64(base64, "image/jpeg"), Artwork.ofBase64(base64, "image/png"));
+        assertEquals(Artwork.ofLocation("https://a/b.jpg"), Artwork.ofLocation("https://a/b.jpg"));
+    }
+
+    @Test
+    void invalidBase64_isEmpty() {
+        Artwork artwork = Artwork.ofBase64("not base64!", "image/jpeg");
+        assertTrue(artwork.getBytes().isEmpty());
+        assertTrue(artwork.getContentHash().isEmpty());
+    }
+
+    private static byte[] bytes(Artwork artwork) {
+        ByteBuffer buffer = artwork.getBytes().orElseThrow();
+        byte[] out = new byte[buffer.remaining()];
+        buffer.get(out);
+        return out;
+    }
+}
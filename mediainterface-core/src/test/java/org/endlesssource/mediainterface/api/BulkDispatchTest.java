@@ -0,0 +1,66 @@
+package org.endlesssource.mediainterface.api;
+
+import org.endlesssource.mediainterface.test.FakeMediaSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkDispatchTest {
+
+    @Test
+    void pause_targetsMatchingSessionsAndResumesOnlyThoseThatWerePlaying() throws Exception {
+        FakeMediaSession spotify = new FakeMediaSession("spotify", "Spotify").withState(PlaybackState.PLAYING);
+        FakeMediaSession vlc = new FakeMediaSession("vlc", "VLC").withState(PlaybackState.PAUSED);
+        FakeMediaSession softphone = new FakeMediaSession("softphone", "Softphone").withState(PlaybackState.PLAYING);
+        List<MediaSession> sessions = List.of(spotify, vlc, softphone);
+
+        BulkCommandResult paused = BulkDispatch.dispatch(sessions,
+                session -> !session.getApplicationName().equals("Softphone"), BulkCommand.PAUSE, Duration.ofSeconds(2))
+                .get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of("spotify", "vlc"), List.copyOf(paused.results().keySet()));
+        assertTrue(paused.allSucceeded());
+        assertEquals(Set.of("spotify"), paused.resumeToken().sessionIds());
+        assertEquals(List.of(), softphone.commands());
+
+        BulkCommandResult resumed = BulkDispatch.dispatch(sessions, paused.resumeToken(), BulkCommand.PLAY,
+                Duration.ofSeconds(2)).get(2, TimeUnit.SECONDS);
+        assertEquals(Set.of("spotify"), resumed.results().keySet());
+        assertTrue(resumed.resumeToken().isEmpty());
+        assertEquals(List.of("pause", "play"), spotify.commands());
+        assertEquals(List.of("pause"), vlc.commands());
+    }
+
+    @Test
+    void slowSessions_runInParallelAndAreBoundedByTheDeadline() throws Exception {
+        FakeMediaSession first = new FakeMediaSession("first", "First").withCommandDelay(Duration.ofMillis(300));
+        FakeMediaSession second = new FakeMediaSession("second", "Second").withCommandDelay(Duration.ofMillis(300));
+        FakeMediaSession hung = new FakeMediaSession("hung", "Hung").withCommandDelay(Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        BulkCommandResult result = BulkDispatch.dispatch(List.of(first, second, hung), session -> true,
+                BulkCommand.STOP, Duration.ofMillis(500)).get(2, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 900, "took " + elapsedMs + " ms");
+        assertTrue(result.results().get("first").isSuccess());
+        assertTrue(result.results().get("second").isSuccess());
+        assertEquals(CommandResult.Status.TIMED_OUT, result.results().get("hung").status());
+        assertFalse(result.allSucceeded());
+        assertEquals(Set.of("hung"), result.failures().keySet());
+    }
+
+    @Test
+    void nonPositiveDeadline_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkDispatch.dispatch(List.of(), session -> true, BulkCommand.PAUSE, Duration.ZERO));
+    }
+}
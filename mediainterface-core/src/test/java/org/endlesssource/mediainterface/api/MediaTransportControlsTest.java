@@ -0,0 +1,143 @@
+package org.endlesssource.mediainterface.api;
+
+import org.endlesssource.mediainterface.test.FakeMediaSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaTransportControlsTest {
+
+    @Test
+    void asyncDefaults_runCommandsInSubmissionOrder() throws Exception {
+        FakeMediaSession session = new FakeMediaSession("fake", "Fake");
+        MediaTransportControls controls = session.getControls();
+
+        CompletableFuture<CommandResult> last = null;
+        for (int i = 0; i < 20; i++) {
+            controls.playAsync();
+            controls.seekAsync(Duration.ofMillis(i));
+            last = controls.pauseAsync();
+        }
+
+        assertTrue(last.get(2, TimeUnit.SECONDS).isSuccess());
+        List<String> commands = session.commands();
+        assertEquals(60, commands.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(List.of("play", "seek " + i, "pause"), commands.subList(i * 3, i * 3 + 3));
+        }
+    }
+
+    @Test
+    void asyncDefaults_reportRejectedAndThrowingCommandsAsFailed() throws Exception {
+        MediaTransportControls controls = new RejectingControls();
+
+        CommandResult rejected = controls.nextAsync().get(2, TimeUnit.SECONDS);
+        CommandResult thrown = controls.stopAsync().get(2, TimeUnit.SECONDS);
+
+        assertEquals(CommandResult.Status.FAILED, rejected.status());
+        assertEquals(CommandResult.Status.FAILED, thrown.status());
+        assertEquals("player gone", thrown.message());
+    }
+
+    @Test
+    void confirmedDefaults_waitForReportedState() throws Exception {
+        FakeMediaSession session = new FakeMediaSession("fake", "Fake").withState(PlaybackState.PAUSED);
+        MediaTransportControls controls = session.getControls();
+
+        assertTrue(controls.togglePlayPauseAsync(Duration.ofSeconds(2)).get(2, TimeUnit.SECONDS).isSuccess());
+        assertEquals(PlaybackState.PLAYING, controls.getPlaybackState());
+        assertTrue(controls.stopAsync(Duration.ofSeconds(2)).get(2, TimeUnit.SECONDS).isSuccess());
+    }
+
+    @Test
+    void confirmedDefaults_timeOutWhenStateNeverChanges() throws Exception {
+        MediaTransportControls controls = new RejectingControls() {
+            @Override
+            public boolean play() { return true; }
+        };
+
+        CommandResult result = controls.playAsync(Duration.ofMillis(50)).get(2, TimeUnit.SECONDS);
+        assertEquals(CommandResult.Status.TIMED_OUT, result.status());
+        assertEquals(CommandResult.Status.FAILED, controls.pauseAsync(Duration.ofMillis(50)).get(2, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    void hungCommands_timeOutWithoutStallingOtherControls() throws Exception {
+        Duration deadline = Duration.ofMillis(100);
+        CountDownLatch release = new CountDownLatch(1);
+        List<MediaTransportControls> hung = new ArrayList<>();
+        List<CompletableFuture<CommandResult>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            MediaTransportControls controls = new RejectingControls();
+            hung.add(controls);
+            results.add(BlockingCommands.submit(controls, () -> awaitQuietly(release), deadline));
+        }
+        for (CompletableFuture<CommandResult> result : results) {
+            assertEquals(CommandResult.Status.TIMED_OUT, result.get(2, TimeUnit.SECONDS).status());
+        }
+
+        // More players hang than the pool has threads, yet an answering player still gets through
+        MediaTransportControls healthy = new RejectingControls();
+        assertTrue(BlockingCommands.submit(healthy, () -> true, deadline).get(2, TimeUnit.SECONDS).isSuccess());
+
+        // A hung player fails fast instead of queueing behind its blocked call
+        CommandResult refused = BlockingCommands.submit(hung.get(0), () -> true, deadline).get(2, TimeUnit.SECONDS);
+        assertEquals(CommandResult.Status.TIMED_OUT, refused.status());
+
+        release.countDown();
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        CommandResult recovered;
+        do {
+            recovered = BlockingCommands.submit(hung.get(0), () -> true, deadline).get(2, TimeUnit.SECONDS);
+        } while (!recovered.isSuccess() && System.nanoTime() < until);
+        assertTrue(recovered.isSuccess());
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class RejectingControls implements MediaTransportControls {
+        @Override
+        public boolean play() { return false; }
+
+        @Override
+        public boolean pause() { return false; }
+
+        @Override
+        public boolean togglePlayPause() { return false; }
+
+        @Override
+        public boolean next() { return false; }
+
+        @Override
+        public boolean previous() { return false; }
+
+        @Override
+        public boolean stop() { throw new IllegalStateException("player gone"); }
+
+        @Override
+        public boolean seek(Duration position) { return false; }
+
+        @Override
+        public PlaybackState getPlaybackState() { return PlaybackState.UNKNOWN; }
+
+        @Override
+        public TransportCapabilities getCapabilities() {
+            return new TransportCapabilities(false, false, false, false, false, false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.endlesssource.mediainterface.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionFilterTest {
+
+    @Test
+    void acceptAll_acceptsEverything() {
+        SessionFilter filter = SessionFilter.acceptAll();
+        assertTrue(filter.acceptsId("org.mpris.MediaPlayer2.vlc"));
+        assertTrue(filter.acceptsIdentity("VLC media player"));
+        assertFalse(filter.hasIdentityPredicate());
+    }
+
+    @Test
+    void allowedIds_matchCaseInsensitiveGlobs() {
+        SessionFilter filter = SessionFilter.acceptAll()
+                .withAllowedIds("org.mpris.MediaPlayer2.spotify", "*firefox*", "Player?.exe");
+
+        assertTrue(filter.acceptsId("org.mpris.MediaPlayer2.Spotify"));
+        assertTrue(filter.acceptsId("org.mpris.MediaPlayer2.firefox.instance_1_42"));
+        assertTrue(filter.acceptsId("player1.exe"));
+        assertFalse(filter.acceptsId("player10.exe"));
+        assertFalse(filter.acceptsId("org.mpris.MediaPlayer2.vlc"));
+    }
+
+    @Test
+    void deniedIds_winOverAllowed() {
+        SessionFilter filter = SessionFilter.acceptAll()
+                .withAllowedIds("org.mpris.MediaPlayer2.*")
+                .withDeniedIds("*.chromium.*");
+
+        assertTrue(filter.acceptsId("org.mpris.MediaPlayer2.mpv"));
+        assertFalse(filter.acceptsId("org.mpris.MediaPlayer2.chromium.instance123"));
+    }
+
+    @Test
+    void patternCharacters_areLiteral() {
+        SessionFilter filter = SessionFilter.acceptAll().withAllowedIds("a.b(c)");
+        assertTrue(filter.acceptsId("a.b(c)"));
+        assertFalse(filter.acceptsId("axb(c)"));
+    }
+
+    @Test
+    void identityPredicate_isApplied() {
+        SessionFilter filter = SessionFilter.acceptAll().withIdentity(name -> name.startsWith("Spot"));
+        assertTrue(filter.hasIdentityPredicate());
+        assertTrue(filter.acceptsIdentity("Spotify"));
+        assertFalse(filter.acceptsIdentity("mpv"));
+        assertFalse(filter.acceptsIdentity(null));
+    }
+
+    @Test
+    void blankPattern_throws() {
+        assertThrows(IllegalArgumentException.class, () -> SessionFilter.acceptAll().withAllowedIds(" "));
+    }
+
+    @Test
+    void filtersWithSamePatterns_areEqual() {
+        assertEquals(SessionFilter.acceptAll().withDeniedIds("*vlc*"), SessionFilter.acceptAll().withDeniedIds("*vlc*"));
+        assertEquals(SystemMediaOptions.defaults().withSessionFilter(SessionFilter.acceptAll().withAllowedIds("x")),
+                SystemMediaOptions.defaults().withSessionFilter(SessionFilter.acceptAll().withAllowedIds("x")));
+    }
+}
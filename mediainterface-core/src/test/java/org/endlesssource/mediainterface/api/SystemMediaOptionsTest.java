@@ -6,6 +6,7 @@ import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -18,6 +19,32 @@ class SystemMediaOptionsTest {
         assertEquals(SystemMediaOptions.DEFAULT_SESSION_POLL_INTERVAL, defaults.getSessionPollInterval());
         assertEquals(SystemMediaOptions.DEFAULT_SESSION_UPDATE_INTERVAL, defaults.getSessionUpdateInterval());
         assertTrue(defaults.isPositionUpdatesEnabled());
+        assertEquals(SystemMediaOptions.DEFAULT_SESSION_INIT_PARALLELISM, defaults.getSessionInitParallelism());
+        assertEquals(SystemMediaOptions.DEFAULT_SESSION_INIT_TIMEOUT, defaults.getSessionInitTimeout());
+        assertEquals(SystemMediaOptions.DEFAULT_PLAYER_CALL_TIMEOUT, defaults.getPlayerCallTimeout());
+        assertFalse(defaults.isProxyPlayersIgnored());
+        assertEquals(Duration.ZERO, defaults.getSessionRemovalGrace());
+        assertEquals(Duration.ZERO, defaults.getSeekCoalesceInterval());
+    }
+
+    @Test
+    void withSessionRemovalGrace_allowsZeroButNotNegative() {
+        SystemMediaOptions graceful = SystemMediaOptions.defaults().withSessionRemovalGrace(Duration.ofSeconds(3));
+        assertEquals(Duration.ofSeconds(3), graceful.getSessionRemovalGrace());
+        assertNotEquals(SystemMediaOptions.defaults(), graceful);
+        assertEquals(Duration.ZERO, graceful.withSessionRemovalGrace(Duration.ZERO).getSessionRemovalGrace());
+        assertThrows(IllegalArgumentException.class,
+                () -> SystemMediaOptions.defaults().withSessionRemovalGrace(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void withSeekCoalesceInterval_allowsZeroButNotNegative() {
+        SystemMediaOptions throttled = SystemMediaOptions.defaults().withSeekCoalesceInterval(Duration.ofMillis(100));
+        assertEquals(Duration.ofMillis(100), throttled.getSeekCoalesceInterval());
+        assertNotEquals(SystemMediaOptions.defaults(), throttled);
+        assertEquals(Duration.ZERO, throttled.withSeekCoalesceInterval(Duration.ZERO).getSeekCoalesceInterval());
+        assertThrows(IllegalArgumentException.class,
+                () -> SystemMediaOptions.defaults().withSeekCoalesceInterval(Duration.ofMillis(-1)));
     }
 
     @Test
@@ -38,6 +65,28 @@ class SystemMediaOptionsTest {
         assertThrows(IllegalArgumentException.class, () -> defaults.withSessionPollInterval(Duration.ofMillis(-1)));
         assertThrows(IllegalArgumentException.class, () -> defaults.withSessionUpdateInterval(Duration.ZERO));
         assertThrows(IllegalArgumentException.class, () -> defaults.withSessionUpdateInterval(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> defaults.withPlayerCallTimeout(Duration.ZERO));
     }
-}
 
+    @Test
+    void withSessionInit_keepsOtherOptionsAndRejectsInvalidValues() {
+        SystemMediaOptions defaults = SystemMediaOptions.defaults().withPositionUpdatesEnabled(false);
+        SystemMediaOptions tuned = defaults.withSessionInitParallelism(8).withSessionInitTimeout(Duration.ofMillis(500));
+        assertEquals(8, tuned.getSessionInitParallelism());
+        assertEquals(Duration.ofMillis(500), tuned.getSessionInitTimeout());
+        assertFalse(tuned.isPositionUpdatesEnabled());
+        assertTrue(tuned.withProxyPlayersIgnored(true).isProxyPlayersIgnored());
+        assertEquals(8, tuned.withProxyPlayersIgnored(true).getSessionInitParallelism());
+        assertThrows(IllegalArgumentException.class, () -> defaults.withSessionInitParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> defaults.withSessionInitTimeout(Duration.ZERO));
+    }
+
+    @Test
+    void equalOptions_shareHashCode() {
+        SystemMediaOptions a = SystemMediaOptions.defaults().withSessionPollInterval(Duration.ofSeconds(2));
+        SystemMediaOptions b = SystemMediaOptions.defaults().withSessionPollInterval(Duration.ofMillis(2000));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b.withEventDrivenEnabled(false));
+    }
+}
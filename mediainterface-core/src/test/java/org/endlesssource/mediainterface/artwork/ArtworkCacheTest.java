@@ -0,0 +1,120 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtworkCacheTest {
+
+    @Test
+    void repeatedLookup_decodesOnce() {
+        ArtworkCache cache = new ArtworkCache();
+        byte[] input = "cover".getBytes(StandardCharsets.UTF_8);
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(input);
+
+        byte[] first = cache.get(dataUri).orElseThrow();
+        byte[] second = cache.get(dataUri).orElseThrow();
+
+        assertArrayEquals(input, first);
+        assertSame(first, second);
+        ArtworkCache.Stats stats = cache.stats();
+        assertEquals(1L, stats.misses());
+        assertEquals(1L, stats.hits());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void exceedingBudget_evictsLeastRecentlyUsed() {
+        ArtworkCache cache = new ArtworkCache(30);
+        cache.put("a", new byte[9]);
+        cache.put("b", new byte[9]);
+        cache.put("c", new byte[9]);
+        assertTrue(cache.getIfPresent("a").isPresent());
+
+        cache.put("d", new byte[9]);
+
+        assertTrue(cache.getIfPresent("a").isPresent());
+        assertFalse(cache.getIfPresent("b").isPresent());
+        assertEquals(1L, cache.stats().evictions());
+        assertTrue(cache.stats().sizeBytes() <= 30L);
+    }
+
+    @Test
+    void entryLargerThanBudget_isNotCached() {
+        ArtworkCache cache = new ArtworkCache(8);
+        Optional<byte[]> loaded = cache.get("big", key -> Optional.of(new byte[64]));
+        assertTrue(loaded.isPresent());
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void emptyLoadResult_isNotCached() {
+        ArtworkCache cache = new ArtworkCache();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("missing", key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get("missing", key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMisses_shareSingleLoad() throws Exception {
+        ArtworkCache cache = new ArtworkCache();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<byte[]>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> cache.get("shared", key -> {
+                    loads.incrementAndGet();
+                    loaderEntered.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(new byte[] {1, 2, 3});
+                })));
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<Optional<byte[]>> result : results) {
+                assertArrayEquals(new byte[] {1, 2, 3}, result.get(5, TimeUnit.SECONDS).orElseThrow());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().misses());
+    }
+
+    @Test
+    void invalidBudget_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ArtworkCache(0));
+    }
+}
@@ -0,0 +1,137 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.endlesssource.mediainterface.api.Artwork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtworkRenditionServiceTest {
+    private final ArtworkRenditionService service = new ArtworkRenditionService();
+
+    @AfterEach
+    void close() {
+        service.close();
+    }
+
+    @Test
+    void render_fitsWithinBoxKeepingAspectRatio() throws Exception {
+        Artwork artwork = Artwork.ofBytes(png(400, 200, Color.RED), "image/png");
+
+        ArtworkRenditionService.Rendition rendition = service.render(artwork, 64, 64).get(5, TimeUnit.SECONDS).orElseThrow();
+
+        assertEquals(64, rendition.width());
+        assertEquals(32, rendition.height());
+        assertEquals(artwork.getContentHash().orElseThrow(), rendition.contentHash());
+    }
+
+    @Test
+    void renderedSize_isReadyWithoutWork() throws Exception {
+        String base64 = Base64.getEncoder().encodeToString(png(100, 100, Color.BLUE));
+        Artwork rendered = Artwork.ofBase64(base64, "image/png");
+        service.render(rendered, 32, 32).get(5, TimeUnit.SECONDS);
+
+        Optional<ArtworkRenditionService.Rendition> ready = service.getIfReady(Artwork.ofBase64(base64, "image/png"), 32, 32);
+
+        assertTrue(ready.isPresent());
+        assertTrue(service.getIfReady(Artwork.ofBase64(base64, "image/png"), 16, 16).isEmpty());
+        // Hashes are remembered only while some handle to the artwork is alive
+        Reference.reachabilityFence(rendered);
+    }
+
+    @Test
+    void multipleSizes_decodeSourceOnce() throws Exception {
+        Artwork artwork = Artwork.ofBytes(png(120, 120, Color.GREEN), "image/png");
+
+        ArtworkRenditionService.Rendition small = service.render(artwork, 16, 16).get(5, TimeUnit.SECONDS).orElseThrow();
+        ArtworkRenditionService.Rendition large = service.render(artwork, 48, 48).get(5, TimeUnit.SECONDS).orElseThrow();
+
+        assertEquals(1L, service.stats().decodes());
+        assertSame(small.palette(), large.palette());
+        assertEquals(2, service.stats().entries());
+    }
+
+    @Test
+    void decodedSources_countAgainstBudget() throws Exception {
+        try (ArtworkRenditionService small = new ArtworkRenditionService(1, 100 * 100 * 4)) {
+            Artwork artwork = Artwork.ofBytes(png(200, 200, Color.GREEN), "image/png");
+
+            small.render(artwork, 10, 10).get(5, TimeUnit.SECONDS).orElseThrow();
+            small.render(artwork, 20, 20).get(5, TimeUnit.SECONDS).orElseThrow();
+
+            ArtworkRenditionService.Stats stats = small.stats();
+            assertEquals(2L, stats.decodes());
+            assertEquals((10 * 10 + 20 * 20) * 4L, stats.sizeBytes());
+        }
+    }
+
+    @Test
+    void palette_reportsDominantColor() throws Exception {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 100, 100);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 20, 20);
+        g.dispose();
+        Artwork artwork = Artwork.ofBytes(encode(image), "image/png");
+
+        ArtworkRenditionService.Palette palette = service.palette(artwork).get(5, TimeUnit.SECONDS).orElseThrow();
+
+        assertEquals(Color.RED, palette.dominant().orElseThrow());
+        assertEquals(2, palette.colors().size());
+    }
+
+    @Test
+    void concurrentRequests_shareOneJob() throws Exception {
+        Artwork artwork = Artwork.ofBytes(png(300, 300, Color.ORANGE), "image/png");
+
+        CompletableFuture<Optional<ArtworkRenditionService.Rendition>> first = service.render(artwork, 40, 40);
+        CompletableFuture<Optional<ArtworkRenditionService.Rendition>> second = service.render(artwork, 40, 40);
+
+        assertSame(first.get(5, TimeUnit.SECONDS).orElseThrow(), second.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertEquals(1L, service.stats().decodes());
+    }
+
+    @Test
+    void undecodableArtwork_rendersEmpty() throws Exception {
+        Artwork artwork = Artwork.ofBytes(new byte[] {1, 2, 3, 4}, "image/png");
+        assertTrue(service.render(artwork, 10, 10).get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void invalidSize_throws() {
+        Artwork artwork = Artwork.ofBytes(new byte[] {1}, null);
+        assertThrows(IllegalArgumentException.class, () -> service.render(artwork, 0, 10));
+    }
+
+    private static byte[] png(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return encode(image);
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,153 @@
+package org.endlesssource.mediainterface.artwork;
+
+import org.endlesssource.mediainterface.SystemMediaFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskArtworkStoreTest {
+    private static final byte[] COVER = "cover-bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenArtwork_survivesReopen() throws Exception {
+        new DiskArtworkStore(dir, 1024).write("https://example.invalid/a.jpg", COVER);
+
+        DiskArtworkStore reopened = new DiskArtworkStore(dir, 1024);
+
+        assertArrayEquals(COVER, bytes(reopened.read("https://example.invalid/a.jpg").orElseThrow()));
+        assertEquals(1, reopened.stats().blobs());
+    }
+
+    @Test
+    void identicalContent_isStoredOnce() throws Exception {
+        DiskArtworkStore store = new DiskArtworkStore(dir, 1024);
+
+        String first = store.write("a", COVER);
+        String second = store.write("b", COVER);
+
+        assertEquals(first, second);
+        assertEquals(DiskArtworkStore.contentHash(COVER), first);
+        assertEquals(1, store.stats().blobs());
+        assertArrayEquals(COVER, bytes(store.readContent(first).orElseThrow()));
+    }
+
+    @Test
+    void exceedingBudget_evictsLeastRecentlyRead() throws Exception {
+        DiskArtworkStore store = new DiskArtworkStore(dir, 30);
+        store.write("a", new byte[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+        store.write("b", new byte[] {2, 2, 2, 2, 2, 2, 2, 2, 2, 2});
+        store.write("c", new byte[] {3, 3, 3, 3, 3, 3, 3, 3, 3, 3});
+        assertTrue(store.read("a").isPresent());
+
+        store.write("d", new byte[] {4, 4, 4, 4, 4, 4, 4, 4, 4, 4});
+
+        assertTrue(store.read("a").isPresent());
+        assertFalse(store.read("b").isPresent());
+        assertEquals(1L, store.stats().evictions());
+        assertTrue(store.stats().sizeBytes() <= 30L);
+    }
+
+    @Test
+    void largeArtwork_isMemoryMappedExceptOnWindows() throws Exception {
+        DiskArtworkStore store = new DiskArtworkStore(dir, 1024 * 1024);
+        byte[] large = new byte[64 * 1024];
+        large[large.length - 1] = 7;
+        store.write("large", large);
+
+        ByteBuffer buffer = store.read("large").orElseThrow();
+
+        // A mapped blob could not be deleted on Windows, neither by eviction nor by test cleanup
+        assertEquals(!SystemMediaFactory.getPlatformName().equals("windows"), buffer instanceof MappedByteBuffer);
+        assertTrue(buffer.isReadOnly());
+        assertArrayEquals(large, bytes(buffer));
+    }
+
+    @Test
+    void evictedBlob_takesItsRefsAlong() throws Exception {
+        DiskArtworkStore store = new DiskArtworkStore(dir, 20);
+        store.write("a", new byte[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+        store.write("a-again", new byte[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+        store.write("b", new byte[] {2, 2, 2, 2, 2, 2, 2, 2, 2, 2});
+
+        store.write("c", new byte[] {3, 3, 3, 3, 3, 3, 3, 3, 3, 3});
+
+        assertEquals(2, fileCount(dir.resolve("refs")));
+        assertFalse(store.read("a").isPresent());
+        assertTrue(store.read("c").isPresent());
+    }
+
+    @Test
+    void danglingRefs_areRemovedOnOpen() throws Exception {
+        new DiskArtworkStore(dir, 1024).write("a", COVER);
+        try (Stream<Path> blobs = Files.list(dir.resolve("blobs"))) {
+            for (Path blob : blobs.toList()) {
+                Files.delete(blob);
+            }
+        }
+
+        new DiskArtworkStore(dir, 1024);
+
+        assertEquals(0, fileCount(dir.resolve("refs")));
+    }
+
+    @Test
+    void leftoverTempFiles_areRemovedOnOpen() throws Exception {
+        new DiskArtworkStore(dir, 1024);
+        Path partial = Files.write(dir.resolve("blobs").resolve("abc.part"), COVER);
+
+        DiskArtworkStore store = new DiskArtworkStore(dir, 1024);
+
+        assertFalse(Files.exists(partial));
+        assertEquals(0, store.stats().blobs());
+    }
+
+    @Test
+    void readThrough_loadsOnceAcrossInstances() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<byte[]>> loader = key -> {
+            loads.incrementAndGet();
+            return Optional.of(COVER);
+        };
+
+        new ArtworkCache().get("cover", new DiskArtworkStore(dir, 1024).readThrough(loader));
+        Optional<byte[]> warm = new ArtworkCache().get("cover", new DiskArtworkStore(dir, 1024).readThrough(loader));
+
+        assertArrayEquals(COVER, warm.orElseThrow());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidBudget_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new DiskArtworkStore(dir, 0));
+    }
+
+    private static long fileCount(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] out = new byte[buffer.remaining()];
+        buffer.duplicate().get(out);
+        return out;
+    }
+}
@@ -0,0 +1,165 @@
+package org.endlesssource.mediainterface.artwork;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpArtworkLoaderTest {
+    private static final byte[] COVER = "cover-bytes".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/cover.jpg", exchange -> {
+            requestCount.incrementAndGet();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatchHeaders.add(String.valueOf(ifNoneMatch));
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, COVER);
+        });
+        server.createContext("/large.jpg", exchange -> respond(exchange, new byte[4096]));
+        server.createContext("/slow.jpg", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                slowRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, COVER);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        slowRelease.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void fetch_revalidatesWithEtag() throws Exception {
+        HttpArtworkLoader loader = new HttpArtworkLoader(HttpArtworkLoader.Config.defaults()
+                .withRevalidateAfter(Duration.ZERO));
+
+        assertArrayEquals(COVER, loader.fetch(url("/cover.jpg")).get(5, TimeUnit.SECONDS));
+        assertArrayEquals(COVER, loader.fetch(url("/cover.jpg")).get(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("null", "\"v1\""), ifNoneMatchHeaders);
+        assertEquals(1L, loader.stats().notModified());
+    }
+
+    @Test
+    void fetch_servesFreshResponseWithoutRequest() throws Exception {
+        HttpArtworkLoader loader = new HttpArtworkLoader();
+
+        loader.fetch(url("/cover.jpg")).get(5, TimeUnit.SECONDS);
+        loader.fetch(url("/cover.jpg")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, requestCount.get());
+        assertEquals(1L, loader.stats().freshHits());
+    }
+
+    @Test
+    void fetch_rejectsOversizedResponse() {
+        HttpArtworkLoader loader = new HttpArtworkLoader(HttpArtworkLoader.Config.defaults()
+                .withMaxResponseBytes(1024));
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> loader.fetch(url("/large.jpg")).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, error.getCause());
+    }
+
+    @Test
+    void fetch_timesOutOnSlowServer() {
+        HttpArtworkLoader loader = new HttpArtworkLoader(HttpArtworkLoader.Config.defaults()
+                .withConnectTimeout(Duration.ofMillis(200))
+                .withRequestTimeout(Duration.ofMillis(200)));
+
+        long start = System.nanoTime();
+        assertThrows(ExecutionException.class, () -> loader.fetch(url("/slow.jpg")).get(5, TimeUnit.SECONDS));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(3)) < 0);
+    }
+
+    @Test
+    void concurrentFetches_shareOneRequest() throws Exception {
+        HttpArtworkLoader loader = new HttpArtworkLoader();
+
+        CompletableFuture<byte[]> first = loader.fetch(url("/slow.jpg"));
+        CompletableFuture<byte[]> second = loader.fetch(url("/slow.jpg"));
+        slowRelease.countDown();
+
+        assertArrayEquals(COVER, first.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(COVER, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requestCount.get());
+        assertEquals(1L, loader.stats().deduplicated());
+    }
+
+    @Test
+    void fetch_rejectsNonHttpUrl() {
+        HttpArtworkLoader loader = new HttpArtworkLoader();
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> loader.fetch("file:///tmp/cover.jpg").get());
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertTrue(loader.fetch("ftp://example.invalid/a.jpg").isCompletedExceptionally());
+    }
+
+    @Test
+    void fetch_rejectsUrlWithoutHostEveryTime() {
+        HttpArtworkLoader loader = new HttpArtworkLoader();
+        for (int i = 0; i < 2; i++) {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> loader.fetch("http://my_host.example/a.png").get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        }
+        assertTrue(loader.fetch("http:///x.png").isCompletedExceptionally());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.endlesssource.mediainterface.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.endlesssource.mediainterface.api.ArtworkDecoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MediaEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void completedEvents_recordCommonAndOwnFields() throws Exception {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SessionRefreshEvent.class);
+            recording.enable(ArtworkDecodeEvent.class);
+            recording.start();
+
+            SessionRefreshEvent refresh = new SessionRefreshEvent();
+            refresh.begin();
+            refresh.complete("org.mpris.MediaPlayer2.vlc", "VLC", 4, MediaEvent.TIMEOUT);
+            ArtworkDecoder.decodeBytes("data:image/png;base64,AQID");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent refresh = only(events, "org.endlesssource.mediainterface.SessionRefresh");
+        assertEquals("org.mpris.MediaPlayer2.vlc", refresh.getString("sessionId"));
+        assertEquals("VLC", refresh.getString("player"));
+        assertEquals(4, refresh.getLong("playerCalls"));
+        assertEquals(MediaEvent.TIMEOUT, refresh.getString("outcome"));
+
+        RecordedEvent decode = only(events, "org.endlesssource.mediainterface.ArtworkDecode");
+        assertEquals("data", decode.getString("source"));
+        assertEquals(3, decode.getLong("bytes"));
+        assertEquals(MediaEvent.OK, decode.getString("outcome"));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,111 @@
+package org.endlesssource.mediainterface.rules;
+
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.test.FakeMediaSession;
+import org.endlesssource.mediainterface.test.FakeSystemMediaInterface;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaybackRuleEngineTest {
+
+    @Test
+    void onlyOnePlaying_pausesOtherPlayingSessions() throws Exception {
+        FakeSystemMediaInterface media = new FakeSystemMediaInterface();
+        FakeMediaSession music = new FakeMediaSession("music", "Music").withState(PlaybackState.PLAYING);
+        FakeMediaSession video = new FakeMediaSession("video", "Video").withState(PlaybackState.STOPPED);
+        FakeMediaSession podcast = new FakeMediaSession("podcast", "Podcast").withState(PlaybackState.PAUSED);
+        media.addSession(music);
+        media.addSession(podcast);
+
+        try (PlaybackRuleEngine engine = new PlaybackRuleEngine(media, List.of(PlaybackRules.onlyOnePlaying()))) {
+            media.addSession(video);
+            video.fireState(PlaybackState.PLAYING);
+
+            awaitTrue(() -> music.commands().equals(List.of("pause")));
+            assertEquals(List.of(), podcast.commands());
+            PlaybackRuleEngine.Stats stats = engine.stats();
+            assertEquals(1, stats.events());
+            assertEquals(1, stats.actions());
+            assertTrue(stats.lastReaction().compareTo(Duration.ZERO) > 0);
+            assertEquals(stats.lastReaction(), stats.maxReaction());
+        }
+        assertTrue(video.listeners().isEmpty());
+        assertTrue(media.listeners().isEmpty());
+    }
+
+    @Test
+    void pauseOthersWhilePlaying_resumesPausedSessionsOnStop() throws Exception {
+        FakeSystemMediaInterface media = new FakeSystemMediaInterface();
+        FakeMediaSession music = new FakeMediaSession("music", "Music").withState(PlaybackState.PLAYING);
+        FakeMediaSession call = new FakeMediaSession("call", "Softphone").withState(PlaybackState.STOPPED);
+        media.addSession(music);
+        media.addSession(call);
+
+        try (PlaybackRuleEngine ignored = new PlaybackRuleEngine(media,
+                List.of(PlaybackRules.pauseOthersWhilePlaying("softphone").resumingOnStop()))) {
+            music.fireState(PlaybackState.PLAYING);
+            assertEquals(List.of(), call.commands());
+
+            call.fireState(PlaybackState.PLAYING);
+            awaitTrue(() -> music.getControls().getPlaybackState() == PlaybackState.PAUSED);
+
+            call.fireState(PlaybackState.STOPPED);
+            awaitTrue(() -> music.commands().equals(List.of("pause", "play")));
+        }
+    }
+
+    @Test
+    void resumingOnStop_skipsSessionsTheUserStartedOrStoppedMeanwhile() throws Exception {
+        FakeSystemMediaInterface media = new FakeSystemMediaInterface();
+        FakeMediaSession music = new FakeMediaSession("music", "Music").withState(PlaybackState.PLAYING);
+        FakeMediaSession call = new FakeMediaSession("call", "Softphone");
+        media.addSession(music);
+        media.addSession(call);
+
+        try (PlaybackRuleEngine engine = new PlaybackRuleEngine(media,
+                List.of(PlaybackRules.pauseOthersWhilePlaying("Softphone").resumingOnStop()))) {
+            call.fireState(PlaybackState.PLAYING);
+            awaitTrue(() -> music.getControls().getPlaybackState() == PlaybackState.PAUSED);
+            music.withState(PlaybackState.STOPPED);
+
+            media.removeSession(call);
+            assertEquals(List.of("pause"), music.commands());
+            assertEquals(1, engine.stats().actions());
+        }
+    }
+
+    @Test
+    void failingRule_doesNotStopOtherRules() throws Exception {
+        FakeSystemMediaInterface media = new FakeSystemMediaInterface();
+        FakeMediaSession music = new FakeMediaSession("music", "Music").withState(PlaybackState.PLAYING);
+        FakeMediaSession video = new FakeMediaSession("video", "Video");
+        media.addSession(music);
+        media.addSession(video);
+        PlaybackRule broken = (session, state, sessions) -> {
+            throw new IllegalStateException("broken rule");
+        };
+
+        try (PlaybackRuleEngine ignored = new PlaybackRuleEngine(media, List.of(broken, PlaybackRules.onlyOnePlaying()))) {
+            video.fireState(PlaybackState.PLAYING);
+            awaitTrue(() -> music.commands().equals(List.of("pause")));
+            assertFalse(video.commands().contains("pause"));
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline >= 0) {
+                throw new AssertionError("Condition not met within 2 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
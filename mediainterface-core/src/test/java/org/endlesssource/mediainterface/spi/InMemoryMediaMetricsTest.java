@@ -0,0 +1,58 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.artwork.ArtworkCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryMediaMetricsTest {
+
+    @Test
+    void snapshot_aggregatesCountersGaugesAndDistributions() {
+        InMemoryMediaMetrics metrics = new InMemoryMediaMetrics();
+        metrics.increment(MediaMetrics.PLAYER_CALL_FAILURES, "vlc", 1);
+        metrics.increment(MediaMetrics.PLAYER_CALL_FAILURES, "vlc", 2);
+        metrics.increment(MediaMetrics.PLAYER_CALL_FAILURES, "spotify", 1);
+        metrics.gauge(MediaMetrics.SESSIONS, "linux", 3);
+        metrics.gauge(MediaMetrics.SESSIONS, "linux", 2);
+        metrics.record(MediaMetrics.SESSION_REFRESH_NANOS, "vlc", 10);
+        metrics.record(MediaMetrics.SESSION_REFRESH_NANOS, "vlc", 30);
+
+        InMemoryMediaMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.counter(MediaMetrics.PLAYER_CALL_FAILURES, "vlc"));
+        assertEquals(4, snapshot.counter(MediaMetrics.PLAYER_CALL_FAILURES));
+        assertEquals(OptionalLong.of(2), snapshot.gauge(MediaMetrics.SESSIONS, "linux"));
+        assertEquals(new InMemoryMediaMetrics.Distribution(2, 40, 10, 30),
+                snapshot.distribution(MediaMetrics.SESSION_REFRESH_NANOS, "vlc"));
+        assertEquals(20.0d, snapshot.distribution(MediaMetrics.SESSION_REFRESH_NANOS, "vlc").mean());
+        assertEquals(List.of("spotify", "vlc"),
+                snapshot.counters().keySet().stream().map(InMemoryMediaMetrics.Key::tag).toList());
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().counters().isEmpty());
+    }
+
+    @Test
+    void installedMetrics_receiveArtworkCacheMeasurements() {
+        InMemoryMediaMetrics metrics = new InMemoryMediaMetrics();
+        MediaMetrics previous = MediaMetrics.install(metrics);
+        try {
+            ArtworkCache cache = new ArtworkCache(1024);
+            cache.get("key", key -> Optional.of(new byte[] {1, 2, 3}));
+            cache.get("key", key -> Optional.empty());
+
+            InMemoryMediaMetrics.Snapshot snapshot = metrics.snapshot();
+            assertEquals(1, snapshot.counter(MediaMetrics.ARTWORK_CACHE_HITS, "memory"));
+            assertEquals(1, snapshot.counter(MediaMetrics.ARTWORK_CACHE_MISSES, "memory"));
+            assertEquals(OptionalLong.of(6), snapshot.gauge(MediaMetrics.ARTWORK_CACHE_BYTES, "memory"));
+        } finally {
+            assertSame(metrics, MediaMetrics.install(previous));
+        }
+    }
+}
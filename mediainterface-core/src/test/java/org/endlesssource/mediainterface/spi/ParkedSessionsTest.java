@@ -0,0 +1,72 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.test.FakeMediaSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkedSessionsTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ParkedSessions<FakeMediaSession> parked = new ParkedSessions<>();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void revivedSession_neverExpires() throws InterruptedException {
+        FakeMediaSession session = new FakeMediaSession("spotify", "Spotify");
+        List<FakeMediaSession> expired = new CopyOnWriteArrayList<>();
+
+        assertTrue(parked.park("spotify", session, Duration.ofMillis(50), scheduler, expired::add));
+        assertTrue(parked.isParked("spotify"));
+        assertEquals(Optional.of(session), parked.revive("spotify"));
+
+        Thread.sleep(150);
+        assertTrue(expired.isEmpty());
+        assertFalse(parked.isParked("spotify"));
+    }
+
+    @Test
+    void unrevivedSession_expiresAfterGrace() throws InterruptedException {
+        FakeMediaSession session = new FakeMediaSession("vlc", "VLC");
+        CountDownLatch expired = new CountDownLatch(1);
+
+        parked.park("vlc", session, Duration.ofMillis(20), scheduler, gone -> expired.countDown());
+
+        assertTrue(expired.await(2, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), parked.revive("vlc"));
+    }
+
+    @Test
+    void zeroGrace_isNotParked() {
+        FakeMediaSession session = new FakeMediaSession("mpv", "mpv");
+        assertFalse(parked.park("mpv", session, Duration.ZERO, scheduler, gone -> { }));
+        assertFalse(parked.park("mpv", session, Duration.ofSeconds(1), null, gone -> { }));
+        assertTrue(parked.sessions().isEmpty());
+    }
+
+    @Test
+    void drain_returnsParkedSessionsWithoutExpiring() throws InterruptedException {
+        FakeMediaSession session = new FakeMediaSession("firefox", "Firefox");
+        List<FakeMediaSession> expired = new CopyOnWriteArrayList<>();
+        parked.park("firefox", session, Duration.ofMillis(30), scheduler, expired::add);
+
+        assertEquals(List.of(session), parked.drain());
+        Thread.sleep(100);
+        assertTrue(expired.isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.CommandResult;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaybackExpectationsTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final PlaybackExpectations expectations = new PlaybackExpectations(clock::get);
+
+    @Test
+    void staleReads_keepExpectedStateUntilObserved() {
+        CompletableFuture<CommandResult> confirmed = expectations.expect(PlaybackState.PLAYING, Duration.ofSeconds(1));
+
+        assertEquals(PlaybackState.PLAYING, expectations.reconcile(PlaybackState.PAUSED));
+        assertFalse(confirmed.isDone());
+
+        assertEquals(PlaybackState.PLAYING, expectations.reconcile(PlaybackState.PLAYING));
+        assertTrue(confirmed.join().isSuccess());
+        assertEquals(Optional.empty(), expectations.pending());
+        assertEquals(PlaybackState.PAUSED, expectations.reconcile(PlaybackState.PAUSED));
+    }
+
+    @Test
+    void expiredExpectation_letsObservedStateThrough() throws Exception {
+        CompletableFuture<CommandResult> confirmed = expectations.expect(PlaybackState.PLAYING, Duration.ofMillis(20));
+        clock.addAndGet(Duration.ofMillis(30).toNanos());
+
+        assertEquals(PlaybackState.PAUSED, expectations.reconcile(PlaybackState.PAUSED));
+        assertEquals(CommandResult.Status.TIMED_OUT, confirmed.get(2, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    void laterCommand_supersedesPendingExpectation() {
+        CompletableFuture<CommandResult> play = expectations.expect(PlaybackState.PLAYING, Duration.ofSeconds(1));
+        CompletableFuture<CommandResult> pause = expectations.expect(PlaybackState.PAUSED, Duration.ofSeconds(1));
+
+        assertEquals(CommandResult.Status.FAILED, play.join().status());
+        assertEquals(Optional.of(PlaybackState.PAUSED), expectations.pending());
+        expectations.reconcile(PlaybackState.PAUSED);
+        assertTrue(pause.join().isSuccess());
+    }
+}
@@ -0,0 +1,116 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.CommandResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeekCoalescerTest {
+
+    @Test
+    void seeksWhileInFlight_collapseToLatest() throws Exception {
+        List<Duration> sent = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<CommandResult>> replies = new CopyOnWriteArrayList<>();
+        SeekCoalescer coalescer = new SeekCoalescer(Duration.ZERO, position -> {
+            sent.add(position);
+            CompletableFuture<CommandResult> reply = new CompletableFuture<>();
+            replies.add(reply);
+            return reply;
+        });
+
+        CompletableFuture<CommandResult> first = coalescer.submit(Duration.ofMillis(100));
+        CompletableFuture<CommandResult> second = coalescer.submit(Duration.ofMillis(200));
+        CompletableFuture<CommandResult> third = coalescer.submit(Duration.ofMillis(300));
+        assertEquals(List.of(Duration.ofMillis(100)), sent);
+
+        replies.get(0).complete(CommandResult.success());
+        assertTrue(first.get(1, TimeUnit.SECONDS).isSuccess());
+        assertEquals(List.of(Duration.ofMillis(100), Duration.ofMillis(300)), sent);
+        assertFalse(second.isDone());
+
+        replies.get(1).complete(CommandResult.failed("rejected"));
+        assertEquals(CommandResult.Status.FAILED, second.get(1, TimeUnit.SECONDS).status());
+        assertEquals(CommandResult.Status.FAILED, third.get(1, TimeUnit.SECONDS).status());
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void minInterval_spacesConsecutiveSeeks() throws Exception {
+        List<Long> sentAt = new CopyOnWriteArrayList<>();
+        SeekCoalescer coalescer = new SeekCoalescer(Duration.ofMillis(80), position -> {
+            sentAt.add(System.nanoTime());
+            return CompletableFuture.completedFuture(CommandResult.success());
+        });
+
+        coalescer.submit(Duration.ofMillis(1)).get(1, TimeUnit.SECONDS);
+        CompletableFuture<CommandResult> skipped = coalescer.submit(Duration.ofMillis(2));
+        CompletableFuture<CommandResult> latest = coalescer.submit(Duration.ofMillis(3));
+
+        assertTrue(latest.get(1, TimeUnit.SECONDS).isSuccess());
+        assertTrue(skipped.get(1, TimeUnit.SECONDS).isSuccess());
+        assertEquals(2, sentAt.size());
+        assertTrue(sentAt.get(1) - sentAt.get(0) >= TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    void failingSender_reportsFailure() throws Exception {
+        SeekCoalescer coalescer = new SeekCoalescer(Duration.ZERO, position -> {
+            throw new IllegalStateException("player gone");
+        });
+
+        CommandResult result = coalescer.submit(Duration.ofSeconds(1)).get(1, TimeUnit.SECONDS);
+        assertEquals(CommandResult.Status.FAILED, result.status());
+        assertEquals("player gone", result.message());
+    }
+
+    @Test
+    void blockingSeeks_collapseToLatest() throws Exception {
+        List<Duration> sent = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SeekCoalescer coalescer = SeekCoalescer.blocking(Duration.ZERO, position -> {
+            sent.add(position);
+            started.countDown();
+            try {
+                return release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> coalescer.seek(Duration.ofMillis(100)));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<CommandResult> second = coalescer.submit(Duration.ofMillis(200));
+        CompletableFuture<CommandResult> third = coalescer.submit(Duration.ofMillis(300));
+        release.countDown();
+
+        assertTrue(first.get(1, TimeUnit.SECONDS));
+        assertTrue(second.get(1, TimeUnit.SECONDS).isSuccess());
+        assertTrue(third.get(1, TimeUnit.SECONDS).isSuccess());
+        assertEquals(List.of(Duration.ofMillis(100), Duration.ofMillis(300)), sent);
+    }
+
+    @Test
+    void blockingSeek_reportsRejection() {
+        SeekCoalescer coalescer = SeekCoalescer.blocking(Duration.ZERO, position -> false);
+
+        assertFalse(coalescer.seek(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void negativeInterval_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SeekCoalescer(Duration.ofMillis(-1), position -> CompletableFuture.completedFuture(null)));
+    }
+}
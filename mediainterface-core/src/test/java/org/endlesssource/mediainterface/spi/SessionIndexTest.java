@@ -0,0 +1,104 @@
+package org.endlesssource.mediainterface.spi;
+
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.test.FakeMediaSession;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionIndexTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SessionIndex<FakeMediaSession> index = new SessionIndex<>(Duration.ofSeconds(2), clock::get);
+
+    @Test
+    void byApp_prefersExactNameThenSubstring() {
+        FakeMediaSession firefoxDev = new FakeMediaSession("ff-dev", "Firefox Developer Edition");
+        FakeMediaSession firefox = new FakeMediaSession("ff", "Firefox");
+        index.add(firefoxDev);
+        index.add(firefox);
+
+        assertEquals(Optional.of(firefox), index.byApp("FIREFOX"));
+        assertEquals(Optional.of(firefoxDev), index.byApp("developer"));
+        assertEquals(Optional.empty(), index.byApp("vlc"));
+    }
+
+    @Test
+    void update_reindexesNameAndState() {
+        FakeMediaSession session = new FakeMediaSession("org.mpris.MediaPlayer2.spotify", "Spotify");
+        index.add(session);
+        session.setApplicationName("Spotify Premium");
+        session.withState(PlaybackState.PLAYING);
+        index.update(session);
+
+        assertEquals(Optional.of(session), index.byApp("spotify premium"));
+        assertEquals(List.of(session), index.byState(PlaybackState.PLAYING));
+        assertTrue(index.byState(PlaybackState.STOPPED).isEmpty());
+    }
+
+    @Test
+    void update_ignoresSessionsThatAreNotIndexed() {
+        FakeMediaSession session = new FakeMediaSession("a", "A").withState(PlaybackState.PLAYING);
+        index.update(session);
+        assertTrue(index.isEmpty());
+        assertEquals(Optional.empty(), index.active());
+    }
+
+    @Test
+    void active_switchesImmediatelyToHigherRank() {
+        FakeMediaSession paused = new FakeMediaSession("a", "A").withState(PlaybackState.PAUSED);
+        FakeMediaSession other = new FakeMediaSession("b", "B");
+        index.add(paused);
+        index.add(other);
+        assertEquals(Optional.of(paused), index.active());
+
+        clock.addAndGet(10);
+        other.withState(PlaybackState.PLAYING);
+        index.update(other);
+        assertEquals(Optional.of(other), index.active());
+    }
+
+    @Test
+    void active_keepsCurrentUntilEqualRankChallengerHoldsHysteresis() {
+        FakeMediaSession music = new FakeMediaSession("music", "Music").withState(PlaybackState.PLAYING);
+        FakeMediaSession browser = new FakeMediaSession("browser", "Browser");
+        index.add(music);
+        index.add(browser);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        browser.withState(PlaybackState.PLAYING);
+        index.update(browser);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(Optional.of(music), index.active());
+
+        // A short blip that stops again never takes over.
+        browser.withState(PlaybackState.STOPPED);
+        index.update(browser);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals(Optional.of(music), index.active());
+
+        browser.withState(PlaybackState.PLAYING);
+        index.update(browser);
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals(Optional.of(browser), index.active());
+    }
+
+    @Test
+    void active_fallsBackWhenCurrentIsRemoved() {
+        FakeMediaSession first = new FakeMediaSession("a", "A").withState(PlaybackState.PLAYING);
+        FakeMediaSession second = new FakeMediaSession("b", "B").withState(PlaybackState.PAUSED);
+        index.add(first);
+        index.add(second);
+        index.remove("a");
+
+        assertEquals(Optional.of(second), index.active());
+        assertEquals(List.of(second), index.all());
+        index.clear();
+        assertEquals(Optional.empty(), index.active());
+    }
+}
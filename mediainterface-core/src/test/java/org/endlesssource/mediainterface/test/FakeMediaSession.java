@@ -0,0 +1,169 @@
+package org.endlesssource.mediainterface.test;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.MediaTransportControls;
+import org.endlesssource.mediainterface.api.NowPlaying;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.api.TransportCapabilities;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Session with a settable state and name that records the commands it receives.
+ */
+public final class FakeMediaSession implements MediaSession {
+    private final String sessionId;
+    private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+    private final Controls controls = new Controls();
+    private volatile String applicationName;
+    private volatile PlaybackState state = PlaybackState.STOPPED;
+    private volatile Duration commandDelay = Duration.ZERO;
+
+    public FakeMediaSession(String sessionId, String applicationName) {
+        this.sessionId = sessionId;
+        this.applicationName = applicationName;
+    }
+
+    public FakeMediaSession withState(PlaybackState state) {
+        this.state = state;
+        return this;
+    }
+
+    /**
+     * Make every transport command block for {@code delay}, like a slow player.
+     */
+    public FakeMediaSession withCommandDelay(Duration delay) {
+        this.commandDelay = delay;
+        return this;
+    }
+
+    /**
+     * Change the state as if the player reported it, notifying listeners.
+     */
+    public void fireState(PlaybackState state) {
+        this.state = state;
+        listeners.forEach(listener -> listener.onPlaybackStateChanged(this, state));
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    public List<String> commands() {
+        return List.copyOf(commands);
+    }
+
+    public List<MediaSessionListener> listeners() {
+        return List.copyOf(listeners);
+    }
+
+    @Override
+    public Optional<NowPlaying> getNowPlaying() {
+        return Optional.empty();
+    }
+
+    @Override
+    public MediaTransportControls getControls() {
+        return controls;
+    }
+
+    @Override
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    @Override
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    @Override
+    public boolean isActive() {
+        return state == PlaybackState.PLAYING;
+    }
+
+    @Override
+    public void addListener(MediaSessionListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(MediaSessionListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String toString() {
+        return sessionId;
+    }
+
+    private void record(String command) {
+        try {
+            Thread.sleep(commandDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commands.add(command);
+    }
+
+    private final class Controls implements MediaTransportControls {
+        @Override
+        public boolean play() {
+            record("play");
+            state = PlaybackState.PLAYING;
+            return true;
+        }
+
+        @Override
+        public boolean pause() {
+            record("pause");
+            state = PlaybackState.PAUSED;
+            return true;
+        }
+
+        @Override
+        public boolean togglePlayPause() {
+            return state == PlaybackState.PLAYING ? pause() : play();
+        }
+
+        @Override
+        public boolean next() {
+            record("next");
+            return true;
+        }
+
+        @Override
+        public boolean previous() {
+            record("previous");
+            return true;
+        }
+
+        @Override
+        public boolean stop() {
+            record("stop");
+            state = PlaybackState.STOPPED;
+            return true;
+        }
+
+        @Override
+        public boolean seek(Duration position) {
+            record("seek " + position.toMillis());
+            return true;
+        }
+
+        @Override
+        public PlaybackState getPlaybackState() {
+            return state;
+        }
+
+        @Override
+        public TransportCapabilities getCapabilities() {
+            return new TransportCapabilities(true, true, true, true, true, true);
+        }
+    }
+}
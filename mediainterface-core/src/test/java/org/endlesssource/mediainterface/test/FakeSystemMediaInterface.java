@@ -0,0 +1,71 @@
+package org.endlesssource.mediainterface.test;
+
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Media interface over sessions added and removed by the test, which fires session added and removed events.
+ */
+public final class FakeSystemMediaInterface implements SystemMediaInterface {
+    private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<MediaSession> sessions = new CopyOnWriteArrayList<>();
+
+    public void addSession(MediaSession session) {
+        sessions.add(session);
+        listeners.forEach(listener -> listener.onSessionAdded(session));
+    }
+
+    public void removeSession(MediaSession session) {
+        sessions.remove(session);
+        listeners.forEach(listener -> listener.onSessionRemoved(session.getSessionId()));
+    }
+
+    public List<MediaSessionListener> listeners() {
+        return List.copyOf(listeners);
+    }
+
+    @Override
+    public Optional<MediaSession> getActiveSession() {
+        return sessions.stream().filter(MediaSession::isActive).findFirst();
+    }
+
+    @Override
+    public List<MediaSession> getAllSessions() {
+        return List.copyOf(sessions);
+    }
+
+    @Override
+    public Optional<MediaSession> getSessionByApp(String appName) {
+        return sessions.stream().filter(session -> session.getApplicationName().equalsIgnoreCase(appName)).findFirst();
+    }
+
+    @Override
+    public boolean hasActiveSessions() {
+        return !sessions.isEmpty();
+    }
+
+    @Override
+    public void addSessionListener(MediaSessionListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeSessionListener(MediaSessionListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public boolean isEventDrivenEnabled() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
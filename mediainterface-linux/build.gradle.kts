@@ -7,9 +7,15 @@ dependencies {
     api("com.github.hypfvieh:dbus-java-core:4.3.1")
     api("com.github.hypfvieh:dbus-java-transport-native-unixsocket:4.3.1")
     implementation("org.slf4j:slf4j-api:2.0.9")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 java {
     sourceCompatibility = JavaVersion.VERSION_16
     targetCompatibility = JavaVersion.VERSION_16
 }
+
+tasks.test {
+    useJUnitPlatform()
+}
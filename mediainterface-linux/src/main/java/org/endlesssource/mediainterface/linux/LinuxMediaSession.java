@@ -1,6 +1,10 @@
 package org.endlesssource.mediainterface.linux;
 
 import org.endlesssource.mediainterface.api.*;
+import org.endlesssource.mediainterface.jfr.ListenerDispatchEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.SessionRefreshEvent;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
 import org.freedesktop.dbus.connections.impl.DBusConnection;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.freedesktop.dbus.interfaces.Properties;
@@ -13,16 +17,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 class LinuxMediaSession implements MediaSession {
     private static final Logger logger = LoggerFactory.getLogger(LinuxMediaSession.class);
     private static final long POSITION_CORRECTION_TOLERANCE_MS = 1500L;
     private static final double RATE_EPSILON = 0.0001d;
+    // Refresh interval while an accepted command has not shown up in the player state yet.
+    private static final long FOLLOW_UP_REFRESH_MS = 50L;
 
     private final DBusConnection connection;
     private final String busName;
@@ -30,15 +41,25 @@ class LinuxMediaSession implements MediaSession {
     private final MprisPlayer player;
     private final Properties properties;
     private final LinuxMediaTransportControls controls;
+    private final MprisCallGuard callGuard;
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService executor;
-    private final boolean eventDrivenEnabled;
-    private final boolean positionUpdatesEnabled;
-    private final long updateIntervalMs;
+    private final ScheduledThreadPoolExecutor executor;
+    // Event tasks queued on the executor; periodic refreshes are not counted
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private volatile boolean eventDrivenEnabled;
+    private volatile boolean positionUpdatesEnabled;
+    private long updateIntervalMs;
+    private ScheduledFuture<?> refreshTask;
+    private boolean suspended;
+    private boolean followUpScheduled;
     private volatile boolean closed;
     private volatile Optional<NowPlaying> cachedNowPlaying = Optional.empty();
     private volatile boolean cachedActive;
-    private final String applicationName;
+    private volatile String applicationName;
+    private final CompletableFuture<Boolean> initialized = new CompletableFuture<>();
+    private volatile Consumer<LinuxMediaSession> indexObserver = session -> { };
+    private PlaybackState indexedState;
+    private String indexedName;
 
     private NowPlaying lastNowPlaying;
     private PlaybackState lastState = PlaybackState.UNKNOWN;
@@ -52,23 +73,65 @@ class LinuxMediaSession implements MediaSession {
                              String busName,
                              boolean eventDrivenEnabled,
                              java.time.Duration updateInterval,
-                             boolean positionUpdatesEnabled) throws DBusException {
+                             boolean positionUpdatesEnabled,
+                             java.time.Duration callTimeout,
+                             java.time.Duration seekCoalesceInterval) throws DBusException {
         this.connection = connection;
         this.busName = busName;
-        this.mediaPlayer2 = connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", MprisMediaPlayer2.class);
-        this.player = connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", MprisPlayer.class);
-        this.properties = connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", Properties.class);
-        this.controls = new LinuxMediaTransportControls(player, properties);
+        // Every call to the player goes through the guard, so a frozen player only stalls itself.
+        this.callGuard = new MprisCallGuard(busName, this::getApplicationName, callTimeout, this::notifyHealthChanged);
+        this.mediaPlayer2 = callGuard.wrap(MprisMediaPlayer2.class,
+                connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", MprisMediaPlayer2.class));
+        this.player = callGuard.wrap(MprisPlayer.class,
+                connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", MprisPlayer.class));
+        this.properties = callGuard.wrap(Properties.class,
+                connection.getRemoteObject(busName, "/org/mpris/MediaPlayer2", Properties.class));
+        this.controls = new LinuxMediaTransportControls(player, properties, connection, callGuard, this::onCommandAccepted,
+                seekCoalesceInterval);
         this.eventDrivenEnabled = eventDrivenEnabled;
         this.positionUpdatesEnabled = positionUpdatesEnabled;
         this.updateIntervalMs = updateInterval.toMillis();
-        this.executor = Executors.newSingleThreadScheduledExecutor();
-        this.applicationName = resolveApplicationName();
+        this.executor = new ScheduledThreadPoolExecutor(1);
+        this.applicationName = extractAppNameFromBusName();
+    }
+
+    /**
+     * Resolve the player identity and run the first refresh on the session thread, then keep refreshing.
+     * Creating proxies makes no bus calls, so a hung player only delays the returned future.
+     * @param acceptsIdentity checked against the resolved identity; a rejected player is never refreshed
+     * @return completes with whether the player was accepted once the first refresh has run
+     */
+    CompletableFuture<Boolean> start(Predicate<String> acceptsIdentity) {
+        executor.execute(() -> {
+            boolean accepted = false;
+            try {
+                applicationName = resolveApplicationName();
+                accepted = acceptsIdentity.test(applicationName);
+                if (accepted) {
+                    controls.updateCapabilities();
+                    checkForChanges();
+                    // Continue background refresh for cached snapshots.
+                    startMonitoring();
+                }
+            } finally {
+                initialized.complete(accepted);
+            }
+        });
+        return initialized;
+    }
+
+    /**
+     * @param observer told whenever the playback state or application name changes, regardless of event settings
+     */
+    void setIndexObserver(Consumer<LinuxMediaSession> observer) {
+        this.indexObserver = observer;
+    }
 
-        // Warm cache immediately so first reads/listener registration see current state.
-        checkForChanges();
-        // Continue background refresh for cached snapshots.
-        startMonitoring();
+    /**
+     * @return true until the first refresh has completed
+     */
+    boolean isPending() {
+        return !initialized.isDone();
     }
 
     @Override
@@ -110,6 +173,11 @@ class LinuxMediaSession implements MediaSession {
         return cachedActive;
     }
 
+    @Override
+    public SessionHealth getHealth() {
+        return callGuard.health();
+    }
+
     @Override
     public void addListener(MediaSessionListener listener) {
         listeners.add(listener);
@@ -120,43 +188,202 @@ class LinuxMediaSession implements MediaSession {
         listeners.remove(listener);
     }
 
-    private void startMonitoring() {
-        executor.scheduleWithFixedDelay(this::checkForChanges, 0L, updateIntervalMs, TimeUnit.MILLISECONDS);
+    private synchronized void startMonitoring() {
+        if (suspended) {
+            return;
+        }
+        refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, updateIntervalMs, updateIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop refreshing while the player is off the bus; the cached state is kept for a possible {@link #resume()}.
+     */
+    synchronized void suspend() {
+        suspended = true;
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Refresh right away and keep refreshing after a {@link #suspend()}.
+     */
+    synchronized void resume() {
+        if (!suspended || closed) {
+            return;
+        }
+        suspended = false;
+        if (initialized.getNow(false)) {
+            try {
+                refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, 0, updateIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Closed concurrently
+            }
+        }
+    }
+
+    /**
+     * Apply new refresh settings in place; the refresh task is only rescheduled when the interval changes.
+     */
+    synchronized void reconfigure(boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled,
+                                  Duration seekCoalesceInterval) {
+        this.eventDrivenEnabled = eventDrivenEnabled;
+        this.positionUpdatesEnabled = positionUpdatesEnabled;
+        controls.setSeekCoalesceInterval(seekCoalesceInterval);
+        long intervalMs = updateInterval.toMillis();
+        if (intervalMs == updateIntervalMs || closed) {
+            return;
+        }
+        updateIntervalMs = intervalMs;
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            try {
+                refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Closed concurrently
+            }
+        }
     }
 
     private void checkForChanges() {
-        if (closed) {
+        if (closed || !callGuard.isCallPermitted()) {
+            // Backing off from an unresponsive player; keep the last known state.
             return;
         }
 
+        SessionRefreshEvent event = new SessionRefreshEvent();
+        event.begin();
+        String outcome = MediaEvent.OK;
+        long startNanos = System.nanoTime();
+        long callsBefore = callGuard.totalCalls();
         try {
+            long unansweredBefore = callGuard.totalUnanswered();
             PlaybackState currentState = controls.refreshPlaybackState();
             Optional<NowPlaying> currentNowPlaying = queryNowPlaying(currentState);
+            if (callGuard.totalUnanswered() != unansweredBefore) {
+                // Reads timed out or were refused by the breaker; publishing them would report the track as gone.
+                outcome = MediaEvent.TIMEOUT;
+                return;
+            }
 
             cachedNowPlaying = currentNowPlaying;
             cachedActive = computeActive(currentState, currentNowPlaying);
+            publishState(currentState);
 
             if (eventDrivenEnabled) {
-                if (currentState != lastState) {
-                    lastState = currentState;
-                    listeners.forEach(listener -> listener.onPlaybackStateChanged(this, currentState));
-                }
-
                 if (currentNowPlaying.isPresent()) {
                     NowPlaying current = currentNowPlaying.get();
                     if (lastNowPlaying == null
                             || !sameMedia(lastNowPlaying, current)
                             || !sameEventPosition(lastNowPlaying, current, currentState)) {
                         lastNowPlaying = current;
-                        listeners.forEach(listener -> listener.onNowPlayingChanged(this, Optional.of(current)));
+                        dispatch(listener -> listener.onNowPlayingChanged(this, Optional.of(current)));
                     }
                 } else if (lastNowPlaying != null) {
                     lastNowPlaying = null;
-                    listeners.forEach(listener -> listener.onNowPlayingChanged(this, Optional.empty()));
+                    dispatch(listener -> listener.onNowPlayingChanged(this, Optional.empty()));
                 }
             }
         } catch (Exception e) {
             logger.debug("Error checking for changes in {}: {}", getApplicationName(), e.getMessage());
+            outcome = MediaEvent.FAILED;
+        } finally {
+            long calls = callGuard.totalCalls() - callsBefore;
+            MediaMetrics metrics = MediaMetrics.get();
+            metrics.record(MediaMetrics.SESSION_REFRESH_NANOS, busName, System.nanoTime() - startNanos);
+            metrics.record(MediaMetrics.PLAYER_CALLS_PER_REFRESH, busName, calls);
+            event.complete(busName, applicationName, calls, outcome);
+            if (controls.isAwaitingState()) {
+                scheduleFollowUp();
+            }
+        }
+    }
+
+    private void publishState(PlaybackState state) {
+        if (state != indexedState || !applicationName.equals(indexedName)) {
+            indexedState = state;
+            indexedName = applicationName;
+            indexObserver.accept(this);
+        }
+        if (eventDrivenEnabled && state != lastState) {
+            lastState = state;
+            dispatch(listener -> listener.onPlaybackStateChanged(this, state));
+        }
+    }
+
+    /**
+     * Runs on the thread that saw the player accept a command: publish the optimistic state and refresh now rather
+     * than on the next tick.
+     */
+    private void onCommandAccepted(PlaybackState optimistic) {
+        if (closed) {
+            return;
+        }
+        submitEvent(() -> {
+            if (optimistic != null) {
+                publishState(optimistic);
+            }
+            checkForChanges();
+        });
+    }
+
+    /**
+     * Keep refreshing at a short interval until a command's state is observed or its expectation expires.
+     * Only called on the session thread.
+     */
+    private void scheduleFollowUp() {
+        if (followUpScheduled || closed) {
+            return;
+        }
+        followUpScheduled = true;
+        try {
+            executor.schedule(() -> {
+                followUpScheduled = false;
+                checkForChanges();
+            }, FOLLOW_UP_REFRESH_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+        }
+    }
+
+    private void dispatch(Consumer<MediaSessionListener> event) {
+        ListenerDispatchEvent dispatchEvent = new ListenerDispatchEvent();
+        dispatchEvent.begin();
+        long startNanos = System.nanoTime();
+        listeners.forEach(event);
+        int queueDepth = pendingEvents.get();
+        MediaMetrics metrics = MediaMetrics.get();
+        metrics.record(MediaMetrics.LISTENER_DISPATCH_NANOS, busName, System.nanoTime() - startNanos);
+        metrics.gauge(MediaMetrics.LISTENER_QUEUE_DEPTH, busName, queueDepth);
+        dispatchEvent.complete(busName, applicationName, listeners.size(), queueDepth, MediaEvent.OK);
+    }
+
+    /**
+     * Runs on whichever thread saw the player answer or time out; listeners are called on the session thread like
+     * for every other event.
+     */
+    private void notifyHealthChanged(SessionHealth health) {
+        if (closed) {
+            return;
+        }
+        submitEvent(() -> {
+            if (!closed) {
+                dispatch(listener -> listener.onSessionHealthChanged(this, health));
+            }
+        });
+    }
+
+    private void submitEvent(Runnable task) {
+        pendingEvents.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                pendingEvents.decrementAndGet();
+                task.run();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+            pendingEvents.decrementAndGet();
         }
     }
 
@@ -164,14 +391,17 @@ class LinuxMediaSession implements MediaSession {
         closed = true;
         listeners.clear();
         executor.shutdownNow();
+        initialized.complete(false);
     }
 
     private Optional<NowPlaying> queryNowPlaying(PlaybackState currentState) {
         try {
             Object metadata = properties.Get("org.mpris.MediaPlayer2.Player", "Metadata");
+            controls.rememberTrack(metadata);
             Optional<Map<String, Object>> metadataMap = MprisMetadataUtils.toMetadataMap(metadata);
             return metadataMap
-                    .map(map -> new LinuxNowPlaying(map, player, properties))
+                    .map(map -> new LinuxNowPlaying(map, player, properties,
+                            cachedNowPlaying.flatMap(NowPlaying::getArtworkHandle).orElse(null)))
                     .map(nowPlaying -> positionUpdatesEnabled
                             ? withAnchoredPosition(nowPlaying, currentState)
                             : new PositionedNowPlaying(nowPlaying, Optional.empty(), Instant.now()));
@@ -362,6 +592,9 @@ class LinuxMediaSession implements MediaSession {
         @Override
         public Optional<String> getArtwork() { return delegate.getArtwork(); }
 
+        @Override
+        public Optional<Artwork> getArtworkHandle() { return delegate.getArtworkHandle(); }
+
         @Override
         public Optional<Duration> getDuration() { return delegate.getDuration(); }
 
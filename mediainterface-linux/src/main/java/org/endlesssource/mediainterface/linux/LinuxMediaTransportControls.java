@@ -1,9 +1,13 @@
 package org.endlesssource.mediainterface.linux;
 
+import org.endlesssource.mediainterface.api.CommandResult;
 import org.endlesssource.mediainterface.api.MediaTransportControls;
 import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.TransportCapabilities;
+import org.endlesssource.mediainterface.spi.PlaybackExpectations;
+import org.endlesssource.mediainterface.spi.SeekCoalescer;
 import org.freedesktop.dbus.ObjectPath;
+import org.freedesktop.dbus.connections.impl.DBusConnection;
 import org.freedesktop.dbus.interfaces.Properties;
 import org.freedesktop.dbus.types.Variant;
 import org.slf4j.Logger;
@@ -12,26 +16,49 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 class LinuxMediaTransportControls implements MediaTransportControls {
     private static final Logger logger = LoggerFactory.getLogger(LinuxMediaTransportControls.class);
 
+    private static final String PLAYER_INTERFACE = "org.mpris.MediaPlayer2.Player";
+
     private final MprisPlayer player;
     private final Properties properties;
-    private TransportCapabilities capabilities;
+    private final DBusConnection connection;
+    private final MprisCallGuard callGuard;
+    private final Consumer<PlaybackState> commandObserver;
+    private final PlaybackExpectations expectations = new PlaybackExpectations();
+    private final SeekCoalescer seeks;
+    private volatile TransportCapabilities capabilities;
     private volatile PlaybackState cachedState = PlaybackState.UNKNOWN;
+    private volatile ObjectPath cachedTrackId;
 
-    public LinuxMediaTransportControls(MprisPlayer player, Properties properties) {
+    /**
+     * @param player guarded proxy, see {@link MprisCallGuard#wrap}
+     * @param properties guarded proxy, see {@link MprisCallGuard#wrap}
+     * @param commandObserver told after the player accepts a command, with the state it should lead to or null
+     * @param seekCoalesceInterval shortest time between two seeks sent by {@link #seek} and {@link #seekAsync}
+     */
+    LinuxMediaTransportControls(MprisPlayer player, Properties properties, DBusConnection connection,
+                                MprisCallGuard callGuard, Consumer<PlaybackState> commandObserver,
+                                Duration seekCoalesceInterval) {
         this.player = player;
         this.properties = properties;
-        updateCapabilities();
+        this.connection = connection;
+        this.callGuard = callGuard;
+        this.commandObserver = commandObserver;
+        this.seeks = new SeekCoalescer(seekCoalesceInterval, this::sendSeek);
     }
 
     @Override
     public boolean play() {
         try {
             player.Play();
+            accepted(PlaybackState.PLAYING);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to play: {}", e.getMessage());
@@ -43,6 +70,7 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     public boolean pause() {
         try {
             player.Pause();
+            accepted(PlaybackState.PAUSED);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to pause: {}", e.getMessage());
@@ -53,7 +81,9 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     @Override
     public boolean togglePlayPause() {
         try {
+            PlaybackState expected = toggled();
             player.PlayPause();
+            accepted(expected);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to toggle play/pause: {}", e.getMessage());
@@ -65,6 +95,8 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     public boolean next() {
         try {
             player.Next();
+            cachedTrackId = null;
+            accepted(null);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to skip to next: {}", e.getMessage());
@@ -76,6 +108,8 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     public boolean previous() {
         try {
             player.Previous();
+            cachedTrackId = null;
+            accepted(null);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to go to previous: {}", e.getMessage());
@@ -87,6 +121,7 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     public boolean stop() {
         try {
             player.Stop();
+            accepted(PlaybackState.STOPPED);
             return true;
         } catch (Exception e) {
             logger.warn("Failed to stop: {}", e.getMessage());
@@ -96,19 +131,165 @@ class LinuxMediaTransportControls implements MediaTransportControls {
 
     @Override
     public boolean seek(Duration position) {
-        try {
-            Optional<ObjectPath> trackId = getCurrentTrackId();
-            if (trackId.isEmpty()) {
-                logger.debug("Cannot seek because current track id is unavailable");
-                return false;
-            }
-            // MPRIS expects microseconds
-            player.SetPosition(trackId.get(), position.toNanos() / 1000);
-            return true;
-        } catch (Exception e) {
-            logger.warn("Failed to seek: {}", e.getMessage());
+        if (position == null) {
+            logger.debug("Rejecting seek without a position");
             return false;
         }
+        return seeks.seek(position);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> playAsync() {
+        return send("Play", PlaybackState.PLAYING, null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> pauseAsync() {
+        return send("Pause", PlaybackState.PAUSED, null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> togglePlayPauseAsync() {
+        return send("PlayPause", toggled(), null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> nextAsync() {
+        cachedTrackId = null;
+        return send("Next", null, null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> previousAsync() {
+        cachedTrackId = null;
+        return send("Previous", null, null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> stopAsync() {
+        return send("Stop", PlaybackState.STOPPED, null);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> playAsync(Duration confirmTimeout) {
+        return send("Play", PlaybackState.PLAYING, confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> pauseAsync(Duration confirmTimeout) {
+        return send("Pause", PlaybackState.PAUSED, confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> togglePlayPauseAsync(Duration confirmTimeout) {
+        return send("PlayPause", toggled(), confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> stopAsync(Duration confirmTimeout) {
+        return send("Stop", PlaybackState.STOPPED, confirmTimeout);
+    }
+
+    /**
+     * Seeks requested while one is in flight collapse to the latest, so scrubbing sends at most one
+     * {@code SetPosition} per coalesce interval.
+     */
+    @Override
+    public CompletableFuture<CommandResult> seekAsync(Duration position) {
+        return seeks.submit(position);
+    }
+
+    void setSeekCoalesceInterval(Duration interval) {
+        seeks.setMinInterval(interval);
+    }
+
+    /**
+     * Remember the track id from metadata the session just read, so seeks need no extra round trip.
+     */
+    void rememberTrack(Object metadata) {
+        cachedTrackId = trackIdOf(metadata).orElse(null);
+    }
+
+    private CompletableFuture<CommandResult> sendSeek(Duration position) {
+        ObjectPath trackId = cachedTrackId;
+        if (trackId != null) {
+            return setPosition(trackId, position);
+        }
+        return callGuard.<Object>callAsync(connection, properties, "Get", PLAYER_INTERFACE, "Metadata")
+                .thenCompose(metadata -> {
+                    Optional<ObjectPath> current = trackIdOf(metadata);
+                    if (current.isEmpty()) {
+                        return CompletableFuture.completedFuture(
+                                CommandResult.failed("Current track id is unavailable"));
+                    }
+                    return setPosition(current.get(), position);
+                })
+                .exceptionally(error -> toResult("seek", error));
+    }
+
+    private CompletableFuture<CommandResult> setPosition(ObjectPath trackId, Duration position) {
+        // MPRIS expects microseconds
+        return send("SetPosition", null, null, trackId, position.toNanos() / 1000);
+    }
+
+    /**
+     * @param expected the state the command should lead to, or null if it does not change the playback state
+     * @param confirmTimeout if set, complete only once {@code expected} is observed or this much time has passed
+     */
+    private CompletableFuture<CommandResult> send(String method, PlaybackState expected, Duration confirmTimeout,
+                                                  Object... args) {
+        return callGuard.callAsync(connection, player, method, args)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        return CompletableFuture.completedFuture(toResult(method, error));
+                    }
+                    if (confirmTimeout == null) {
+                        accepted(expected);
+                        return CompletableFuture.completedFuture(CommandResult.success());
+                    }
+                    return accepted(expected, confirmTimeout);
+                })
+                .thenCompose(result -> result);
+    }
+
+    private void accepted(PlaybackState expected) {
+        if (expected == null) {
+            commandObserver.accept(null);
+        } else {
+            accepted(expected, PlaybackExpectations.DEFAULT_HOLD);
+        }
+    }
+
+    /**
+     * Publish the optimistic state of an accepted command and have the session refresh right away.
+     * @return completes once the state is observed
+     */
+    private CompletableFuture<CommandResult> accepted(PlaybackState expected, Duration hold) {
+        CompletableFuture<CommandResult> confirmed = expectations.expect(expected, hold);
+        cachedState = expected;
+        commandObserver.accept(expected);
+        return confirmed;
+    }
+
+    private PlaybackState toggled() {
+        return cachedState == PlaybackState.PLAYING ? PlaybackState.PAUSED : PlaybackState.PLAYING;
+    }
+
+    /**
+     * @return true while an accepted command's state has not been observed yet
+     */
+    boolean isAwaitingState() {
+        return expectations.pending().isPresent();
+    }
+
+    private CommandResult toResult(String method, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof MprisCallGuard.PlayerUnresponsiveException) {
+            logger.debug("{} timed out: {}", method, cause.getMessage());
+            return CommandResult.timedOut(cause.getMessage());
+        }
+        logger.warn("Failed to call {}: {}", method, cause.getMessage());
+        return CommandResult.failed(cause.getMessage());
     }
 
     @Override
@@ -157,7 +338,7 @@ class LinuxMediaTransportControls implements MediaTransportControls {
     }
 
     private PlaybackState cacheAndReturn(PlaybackState state) {
-        cachedState = state == null ? PlaybackState.UNKNOWN : state;
+        cachedState = expectations.reconcile(state == null ? PlaybackState.UNKNOWN : state);
         return cachedState;
     }
 
@@ -169,7 +350,7 @@ class LinuxMediaTransportControls implements MediaTransportControls {
         return capabilities;
     }
 
-    private void updateCapabilities() {
+    void updateCapabilities() {
         try {
             // Try direct method calls first (more reliable)
             boolean canPlay = getDirectBooleanCapability(() -> player.getCanPlay()).orElse(
@@ -231,22 +412,16 @@ class LinuxMediaTransportControls implements MediaTransportControls {
         }
     }
 
-    private Optional<ObjectPath> getCurrentTrackId() {
-        try {
-            Variant<?> metadataVariant = properties.Get("org.mpris.MediaPlayer2.Player", "Metadata");
-            Optional<Map<String, Object>> metadata = MprisMetadataUtils.toMetadataMap(metadataVariant);
-            return metadata
-                    .map(map -> map.get("mpris:trackid"))
-                    .flatMap(value -> {
-                        Object unwrapped = MprisMetadataUtils.unwrap(value);
-                        if (unwrapped instanceof ObjectPath path) {
-                            return Optional.of(path);
-                        }
-                        return Optional.empty();
-                    });
-        } catch (Exception e) {
-            logger.debug("Failed to resolve current track id: {}", e.getMessage());
-        }
-        return Optional.empty();
+    private static Optional<ObjectPath> trackIdOf(Object metadataVariant) {
+        Optional<Map<String, Object>> metadata = MprisMetadataUtils.toMetadataMap(metadataVariant);
+        return metadata
+                .map(map -> map.get("mpris:trackid"))
+                .flatMap(value -> {
+                    Object unwrapped = MprisMetadataUtils.unwrap(value);
+                    if (unwrapped instanceof ObjectPath path) {
+                        return Optional.of(path);
+                    }
+                    return Optional.empty();
+                });
     }
 }
@@ -1,5 +1,6 @@
 package org.endlesssource.mediainterface.linux;
 
+import org.endlesssource.mediainterface.api.Artwork;
 import org.endlesssource.mediainterface.api.NowPlaying;
 import org.freedesktop.dbus.interfaces.Properties;
 
@@ -19,6 +20,7 @@ class LinuxNowPlaying implements NowPlaying {
     private final MprisPlayer player;
     private final Properties properties;
     private final Optional<Long> cachedPositionMicros;
+    private final Optional<Artwork> artwork;
 
     public LinuxNowPlaying(Map<String, Object> metadata) {
         this.metadata = new HashMap<>(metadata);
@@ -26,6 +28,7 @@ class LinuxNowPlaying implements NowPlaying {
         this.player = null; // Legacy constructor
         this.properties = null;
         this.cachedPositionMicros = Optional.empty();
+        this.artwork = resolveArtwork(null);
     }
 
     public LinuxNowPlaying(Map<String, Object> metadata, MprisPlayer player) {
@@ -34,14 +37,23 @@ class LinuxNowPlaying implements NowPlaying {
         this.player = player;
         this.properties = null;
         this.cachedPositionMicros = readPositionMicros();
+        this.artwork = resolveArtwork(null);
     }
 
     public LinuxNowPlaying(Map<String, Object> metadata, MprisPlayer player, Properties properties) {
+        this(metadata, player, properties, null);
+    }
+
+    /**
+     * @param previousArtwork handle from the previous poll, reused when the art URL has not changed
+     */
+    LinuxNowPlaying(Map<String, Object> metadata, MprisPlayer player, Properties properties, Artwork previousArtwork) {
         this.metadata = new HashMap<>(metadata);
         this.lastUpdated = Instant.now();
         this.player = player;
         this.properties = properties;
         this.cachedPositionMicros = readPositionMicros();
+        this.artwork = resolveArtwork(previousArtwork);
     }
 
     @Override
@@ -68,6 +80,22 @@ class LinuxNowPlaying implements NowPlaying {
         return getStringValue("mpris:artUrl");
     }
 
+    @Override
+    public Optional<Artwork> getArtworkHandle() {
+        return artwork;
+    }
+
+    private Optional<Artwork> resolveArtwork(Artwork previousArtwork) {
+        Optional<String> artUrl = getArtwork();
+        if (artUrl.isEmpty()) {
+            return Optional.empty();
+        }
+        if (previousArtwork != null && previousArtwork.toLocator().equals(artUrl.get())) {
+            return Optional.of(previousArtwork);
+        }
+        return Optional.of(Artwork.fromLocator(artUrl.get()));
+    }
+
     @Override
     public Optional<Duration> getDuration() {
         Optional<Long> lengthOpt = getLongValue("mpris:length");
@@ -1,11 +1,14 @@
 package org.endlesssource.mediainterface.linux;
 
 import org.endlesssource.mediainterface.PlatformSupport;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
 import org.freedesktop.dbus.exceptions.DBusException;
 
+import java.util.List;
+
 public final class LinuxPlatformMediaProvider implements PlatformMediaProvider {
     @Override
     public String platformId() {
@@ -39,4 +42,13 @@ public final class LinuxPlatformMediaProvider implements PlatformMediaProvider {
             throw new RuntimeException("Failed to initialize Linux media interface: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public SystemMediaInterface createProgressive(SystemMediaOptions options, List<MediaSessionListener> listeners) {
+        try {
+            return new LinuxSystemMediaInterface(options, listeners, true);
+        } catch (DBusException e) {
+            throw new RuntimeException("Failed to initialize Linux media interface: " + e.getMessage(), e);
+        }
+    }
 }
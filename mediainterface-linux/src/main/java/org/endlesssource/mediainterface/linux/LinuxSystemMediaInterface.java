@@ -2,51 +2,102 @@ package org.endlesssource.mediainterface.linux;
 
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.MediaSessionListener;
-import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+import org.endlesssource.mediainterface.spi.ParkedSessions;
+import org.endlesssource.mediainterface.spi.SessionIndex;
 import org.freedesktop.dbus.connections.impl.DBusConnection;
 import org.freedesktop.dbus.connections.impl.DBusConnectionBuilder;
 import org.freedesktop.dbus.interfaces.DBus;
+import org.freedesktop.dbus.interfaces.DBusSigHandler;
 import org.freedesktop.dbus.exceptions.DBusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Linux implementation using D-Bus MPRIS
  */
 public class LinuxSystemMediaInterface implements SystemMediaInterface {
     private static final Logger logger = LoggerFactory.getLogger(LinuxSystemMediaInterface.class);
+    private static final String MPRIS_PREFIX = "org.mpris.MediaPlayer2.";
+    /** Services that only forward to another player's session. */
+    private static final Set<String> PROXY_PLAYERS = Set.of("org.mpris.MediaPlayer2.playerctld");
 
     private final DBusConnection connection;
     private final Map<String, LinuxMediaSession> sessions = new ConcurrentHashMap<>();
+    private final SessionIndex<LinuxMediaSession> index = new SessionIndex<>();
+    private final ParkedSessions<LinuxMediaSession> parked = new ParkedSessions<>();
+    private final Set<String> initializing = ConcurrentHashMap.newKeySet();
+    // Well-known MPRIS name -> unique connection name; aliases of one connection share a session.
+    private final Map<String, String> ownerByName = new ConcurrentHashMap<>();
+    // Well-known name -> owner it had when the identity filter rejected it; retried once the owner changes.
+    private final Map<String, String> rejectedOwners = new ConcurrentHashMap<>();
+    private final Object reconcileLock = new Object();
+    private final DBusSigHandler<DBus.NameOwnerChanged> ownerChangedHandler = this::onNameOwnerChanged;
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService executor;
-    private final SystemMediaOptions options;
+    private final ThreadPoolExecutor initPool;
+    private volatile ScheduledExecutorService executor;
+    private volatile SystemMediaOptions options;
+    private ScheduledFuture<?> pollTask;
+    private boolean watchingOwners;
+    private volatile boolean closed;
 
     public LinuxSystemMediaInterface() throws DBusException {
         this(SystemMediaOptions.defaults());
     }
 
     public LinuxSystemMediaInterface(SystemMediaOptions options) throws DBusException {
+        this(options, List.of(), false);
+    }
+
+    /**
+     * @param initialListeners listeners registered before any session is added
+     * @param backgroundDiscovery return once the bus connection is up and discover sessions on a background thread
+     */
+    LinuxSystemMediaInterface(SystemMediaOptions options,
+                              List<MediaSessionListener> initialListeners,
+                              boolean backgroundDiscovery) throws DBusException {
         this.options = options;
+        this.listeners.addAll(initialListeners);
         this.connection = DBusConnectionBuilder.forSessionBus().build();
-        this.executor = options.isEventDrivenEnabled()
-                ? Executors.newScheduledThreadPool(2)
-                : null;
-        discoverSessions();
+        AtomicInteger initThreadIds = new AtomicInteger();
+        this.initPool = new ThreadPoolExecutor(options.getSessionInitParallelism(), options.getSessionInitParallelism(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-linux-init-" + initThreadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (backgroundDiscovery) {
+            Thread discovery = new Thread(this::discoverSessions, "mediainterface-linux-discovery");
+            discovery.setDaemon(true);
+            discovery.start();
+        } else {
+            discoverSessions();
+        }
         if (options.isEventDrivenEnabled()) {
             startSessionMonitoring();
         }
@@ -54,34 +105,22 @@ public class LinuxSystemMediaInterface implements SystemMediaInterface {
 
     @Override
     public Optional<MediaSession> getActiveSession() {
-        // In Linux, we'll consider the first playing session as "active"
-        List<LinuxMediaSession> snapshot = new ArrayList<>(sessions.values());
-        return snapshot.stream()
-                .filter(session -> session.getControls().getPlaybackState() == PlaybackState.PLAYING)
-                .findFirst()
-                .map(session -> (MediaSession) session)
-                .or(() -> snapshot.stream()
-                        .findFirst()
-                        .map(session -> (MediaSession) session));
+        return index.active().map(session -> (MediaSession) session);
     }
 
     @Override
     public List<MediaSession> getAllSessions() {
-        return new ArrayList<>(sessions.values());
+        return new ArrayList<>(index.all());
     }
 
     @Override
     public Optional<MediaSession> getSessionByApp(String appName) {
-        return sessions.values().stream()
-                .filter(session -> session.getApplicationName().toLowerCase()
-                        .contains(appName.toLowerCase()))
-                .findFirst()
-                .map(session -> (MediaSession) session);
+        return index.byApp(appName).map(session -> (MediaSession) session);
     }
 
     @Override
     public boolean hasActiveSessions() {
-        return !sessions.isEmpty();
+        return !index.isEmpty();
     }
 
     @Override
@@ -99,87 +138,414 @@ public class LinuxSystemMediaInterface implements SystemMediaInterface {
         return options.isEventDrivenEnabled();
     }
 
-    private void discoverSessions() {
-        try {
-            DBus dbus = connection.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class);
-            String[] names = dbus.ListNames();
-            for (String name : names) {
-                if (name.startsWith("org.mpris.MediaPlayer2.")) {
-                    addSession(name);
+    @Override
+    public boolean supportsOptionUpdates() {
+        return true;
+    }
+
+    @Override
+    public void updateOptions(SystemMediaOptions newOptions) {
+        Objects.requireNonNull(newOptions, "options must not be null");
+        boolean filterChanged;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Media interface is closed");
+            }
+            SystemMediaOptions previous = options;
+            options = newOptions;
+            filterChanged = !previous.getSessionFilter().equals(newOptions.getSessionFilter())
+                    || previous.isProxyPlayersIgnored() != newOptions.isProxyPlayersIgnored();
+            resizeInitPool(newOptions.getSessionInitParallelism());
+            if (previous.isEventDrivenEnabled() != newOptions.isEventDrivenEnabled()) {
+                if (newOptions.isEventDrivenEnabled()) {
+                    startSessionMonitoring();
+                } else {
+                    stopSessionMonitoring();
                 }
+            } else if (newOptions.isEventDrivenEnabled()
+                    && !previous.getSessionPollInterval().equals(newOptions.getSessionPollInterval())) {
+                pollTask.cancel(false);
+                schedulePoll();
             }
+        }
+        sessions.values().forEach(session -> session.reconfigure(newOptions.isEventDrivenEnabled(),
+                newOptions.getSessionUpdateInterval(), newOptions.isPositionUpdatesEnabled(),
+                newOptions.getSeekCoalesceInterval()));
+        if (filterChanged) {
+            applySessionFilter(newOptions);
+        }
+        logger.debug("Applied {} to {} MPRIS sessions", newOptions, sessions.size());
+    }
+
+    private void applySessionFilter(SystemMediaOptions current) {
+        rejectedOwners.clear();
+        for (LinuxMediaSession session : new ArrayList<>(sessions.values())) {
+            if (!current.getSessionFilter().acceptsIdentity(session.getApplicationName())) {
+                rejectedOwners.put(session.getSessionId(), ownerByName.getOrDefault(session.getSessionId(), ""));
+            }
+        }
+        updateSessions();
+    }
+
+    private void resizeInitPool(int parallelism) {
+        // Grow the maximum first and shrink the core first, so core never exceeds maximum.
+        if (parallelism > initPool.getMaximumPoolSize()) {
+            initPool.setMaximumPoolSize(parallelism);
+            initPool.setCorePoolSize(parallelism);
+        } else {
+            initPool.setCorePoolSize(parallelism);
+            initPool.setMaximumPoolSize(parallelism);
+        }
+    }
+
+    private void discoverSessions() {
+        long started = System.nanoTime();
+        Set<String> names;
+        try {
+            refreshOwners();
+            names = monitoredNames();
         } catch (Exception e) {
             logger.error("Failed to discover MPRIS sessions", e);
+            return;
+        }
+
+        List<Future<?>> pending = new ArrayList<>();
+        for (String name : names) {
+            pending.add(submitSession(name));
+        }
+        try {
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Session initialization failed: {}", e.getCause().getMessage());
+        }
+        logger.debug("Initialized {} of {} MPRIS sessions ({} bus names) in {} ms",
+                sessions.size(), names.size(), ownerByName.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private boolean isPlayerName(String name) {
+        SystemMediaOptions current = options;
+        return name.startsWith(MPRIS_PREFIX)
+                && !(current.isProxyPlayersIgnored() && PROXY_PLAYERS.contains(name))
+                && current.getSessionFilter().acceptsId(name);
+    }
+
+    /**
+     * Sync the owner map with the bus. Owners are only looked up for names not seen before;
+     * NameOwnerChanged keeps known names current between polls.
+     */
+    private void refreshOwners() throws DBusException {
+        DBus dbus = connection.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class);
+        Set<String> listed = new HashSet<>();
+        for (String name : dbus.ListNames()) {
+            if (isPlayerName(name)) {
+                listed.add(name);
+            }
+        }
+        ownerByName.keySet().retainAll(listed);
+        rejectedOwners.keySet().retainAll(listed);
+        for (String name : listed) {
+            if (ownerByName.containsKey(name)) {
+                continue;
+            }
+            try {
+                ownerByName.putIfAbsent(name, dbus.GetNameOwner(name));
+            } catch (Exception e) {
+                logger.debug("Could not resolve owner of {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return one well-known name per owner: the one already monitored, otherwise the shortest
+     */
+    private Set<String> monitoredNames() {
+        Map<String, String> nameByOwner = new HashMap<>();
+        for (Map.Entry<String, String> entry : ownerByName.entrySet()) {
+            if (entry.getValue().equals(rejectedOwners.get(entry.getKey()))) {
+                continue;
+            }
+            nameByOwner.merge(entry.getValue(), entry.getKey(),
+                    (current, candidate) -> preferredName(current, candidate));
+        }
+        return new HashSet<>(nameByOwner.values());
+    }
+
+    private String preferredName(String current, String candidate) {
+        boolean currentMonitored = isMonitored(current);
+        boolean candidateMonitored = isMonitored(candidate);
+        if (currentMonitored != candidateMonitored) {
+            return currentMonitored ? current : candidate;
+        }
+        if (current.length() != candidate.length()) {
+            return current.length() < candidate.length() ? current : candidate;
+        }
+        return current.compareTo(candidate) <= 0 ? current : candidate;
+    }
+
+    private boolean isMonitored(String name) {
+        return sessions.containsKey(name) || initializing.contains(name) || parked.isParked(name);
+    }
+
+    private void reconcile() {
+        if (closed) {
+            return;
+        }
+        synchronized (reconcileLock) {
+            Set<String> wanted = monitoredNames();
+
+            // Park sessions whose name left the bus; drop those that are filtered or now aliases of another session.
+            // Filtered names are not in the owner map either, so check the filter before taking them as gone.
+            Set<String> toRemove = new HashSet<>(sessions.keySet());
+            toRemove.removeAll(wanted);
+            for (String name : toRemove) {
+                if (ownerByName.containsKey(name) || !isPlayerName(name)) {
+                    removeSession(name);
+                } else {
+                    parkSession(name);
+                }
+            }
+
+            // Add new sessions without waiting, so a slow newcomer never delays the next poll
+            for (String name : wanted) {
+                if (!sessions.containsKey(name) && !initializing.contains(name)) {
+                    submitSession(name);
+                }
+            }
+        }
+    }
+
+    private void onNameOwnerChanged(DBus.NameOwnerChanged signal) {
+        if (closed || signal.name == null || !isPlayerName(signal.name)) {
+            return;
+        }
+        String name = signal.name;
+        String newOwner = signal.newOwner;
+        try {
+            // Signal handlers run on the bus dispatch thread; do the work on the monitor thread.
+            executor.execute(() -> {
+                if (newOwner == null || newOwner.isEmpty()) {
+                    ownerByName.remove(name);
+                } else {
+                    String previous = ownerByName.put(name, newOwner);
+                    if (previous != null && !previous.equals(newOwner)) {
+                        // Same name, new process: park the session so the reconcile below revives it.
+                        parkSession(name);
+                    }
+                }
+                reconcile();
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Ignoring owner change for {} after close", name);
+        }
+    }
+
+    private Future<?> submitSession(String busName) {
+        try {
+            return initPool.submit(() -> addSession(busName));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     private void addSession(String busName) {
+        if (closed || !initializing.add(busName)) {
+            return;
+        }
         try {
+            if (sessions.containsKey(busName)) {
+                return;
+            }
+            SystemMediaOptions current = options;
+            Optional<LinuxMediaSession> revived = parked.revive(busName);
+            if (revived.isPresent()) {
+                reviveSession(busName, revived.get(), current);
+                return;
+            }
             LinuxMediaSession session = new LinuxMediaSession(
                     connection,
                     busName,
-                    options.isEventDrivenEnabled(),
-                    options.getSessionUpdateInterval(),
-                    options.isPositionUpdatesEnabled()
+                    current.isEventDrivenEnabled(),
+                    current.getSessionUpdateInterval(),
+                    current.isPositionUpdatesEnabled(),
+                    current.getPlayerCallTimeout(),
+                    current.getSeekCoalesceInterval()
             );
+            CompletableFuture<Boolean> ready = session.start(current.getSessionFilter()::acceptsIdentity);
+            boolean pending = false;
+            try {
+                if (!ready.get(current.getSessionInitTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    rejectIdentity(busName, session);
+                    return;
+                }
+            } catch (TimeoutException e) {
+                // Add it anyway; its state fills in once the player answers.
+                logger.debug("Session {} did not answer within {} ms; adding it as pending",
+                        busName, current.getSessionInitTimeout().toMillis());
+                pending = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                session.close();
+                return;
+            }
+            if (closed) {
+                session.close();
+                return;
+            }
             sessions.put(busName, session);
+            session.setIndexObserver(index::update);
+            index.add(session);
+            reportSessionCount();
 
             // Notify listeners
             listeners.forEach(listener -> listener.onSessionAdded(session));
+
+            if (pending) {
+                // Registered only after the put, so a rejection that arrived meanwhile runs right here and still
+                // finds the session to remove
+                ready.thenAccept(accepted -> {
+                    if (accepted) {
+                        logger.debug("Pending session {} initialized", busName);
+                    } else if (sessions.get(busName) == session) {
+                        rejectIdentity(busName, session);
+                        removeSession(busName);
+                    }
+                });
+            }
         } catch (Exception e) {
             logger.warn("Failed to add session for {}: {}", busName, e.getMessage());
+        } finally {
+            initializing.remove(busName);
         }
     }
 
+    private void rejectIdentity(String busName, LinuxMediaSession session) {
+        logger.debug("Ignoring {} ({}): rejected by the session filter", busName, session.getApplicationName());
+        rejectedOwners.put(busName, ownerByName.getOrDefault(busName, ""));
+        session.close();
+    }
+
     private void removeSession(String busName) {
         LinuxMediaSession removed = sessions.remove(busName);
         if (removed != null) {
-            removed.close();
-            listeners.forEach(listener -> listener.onSessionRemoved(busName));
+            index.remove(busName);
+            reportSessionCount();
+            expireSession(busName, removed);
         }
     }
 
-    private void startSessionMonitoring() {
-        // Monitor for new/removed sessions every 1 second
-        long intervalMs = options.getSessionPollInterval().toMillis();
-        executor.scheduleWithFixedDelay(this::updateSessions, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    /**
+     * Take a vanished session out of lookups but hold off the removal event for the grace period.
+     */
+    private void parkSession(String busName) {
+        LinuxMediaSession session = sessions.remove(busName);
+        if (session == null) {
+            return;
+        }
+        index.remove(busName);
+        reportSessionCount();
+        session.suspend();
+        if (parked.park(busName, session, options.getSessionRemovalGrace(), scheduler(),
+                gone -> expireSession(busName, gone))) {
+            logger.debug("Parked {} for {} ms", busName, options.getSessionRemovalGrace().toMillis());
+        } else {
+            expireSession(busName, session);
+        }
     }
 
-    private void updateSessions() {
+    private void reviveSession(String busName, LinuxMediaSession session, SystemMediaOptions current) {
+        session.reconfigure(current.isEventDrivenEnabled(), current.getSessionUpdateInterval(),
+                current.isPositionUpdatesEnabled(), current.getSeekCoalesceInterval());
+        sessions.put(busName, session);
+        index.add(session);
+        reportSessionCount();
+        session.resume();
+        logger.debug("Revived {} within its removal grace period", busName);
+    }
+
+    private void reportSessionCount() {
+        MediaMetrics.get().gauge(MediaMetrics.SESSIONS, "linux", sessions.size());
+    }
+
+    private void expireSession(String busName, LinuxMediaSession session) {
+        session.close();
+        listeners.forEach(listener -> listener.onSessionRemoved(busName));
+    }
+
+    /**
+     * Scheduler for monitoring and for expiring parked sessions; created on first use, so the removal grace also
+     * applies when event-driven monitoring is off.
+     *
+     * @return null once closed
+     */
+    private synchronized ScheduledExecutorService scheduler() {
+        if (executor == null && !closed) {
+            executor = Executors.newScheduledThreadPool(2);
+        }
+        return executor;
+    }
+
+    private synchronized void startSessionMonitoring() {
+        scheduler();
         try {
-            DBus dbus = connection.getRemoteObject("org.freedesktop.DBus", "/org/freedesktop/DBus", DBus.class);
-            String[] currentNames = dbus.ListNames();
-            Set<String> mprisNames = new HashSet<>();
-
-            // Find current MPRIS services
-            for (String name : currentNames) {
-                if (name.startsWith("org.mpris.MediaPlayer2.")) {
-                    mprisNames.add(name);
-                }
-            }
+            connection.addSigHandler(DBus.NameOwnerChanged.class, ownerChangedHandler);
+            watchingOwners = true;
+        } catch (DBusException e) {
+            logger.warn("Failed to watch bus name owners, relying on polling: {}", e.getMessage());
+        }
+        schedulePoll();
+    }
 
-            // Remove sessions that no longer exist
-            Set<String> toRemove = new HashSet<>(sessions.keySet());
-            toRemove.removeAll(mprisNames);
-            toRemove.forEach(this::removeSession);
+    private void schedulePoll() {
+        // Poll as a fallback for missed signals
+        long intervalMs = options.getSessionPollInterval().toMillis();
+        pollTask = executor.scheduleWithFixedDelay(this::updateSessions, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
 
-            // Add new sessions
-            for (String name : mprisNames) {
-                if (!sessions.containsKey(name)) {
-                    addSession(name);
-                }
+    private synchronized void stopSessionMonitoring() {
+        if (pollTask != null) {
+            pollTask.cancel(false);
+            pollTask = null;
+        }
+        if (watchingOwners) {
+            watchingOwners = false;
+            try {
+                connection.removeSigHandler(DBus.NameOwnerChanged.class, ownerChangedHandler);
+            } catch (Exception e) {
+                logger.debug("Failed to remove owner change handler: {}", e.getMessage());
             }
+        }
+    }
+
+    private void updateSessions() {
+        try {
+            refreshOwners();
+            reconcile();
         } catch (Exception e) {
             logger.error("Failed to update sessions", e);
         }
     }
 
     public void close() {
-        if (executor != null) {
-            executor.shutdown();
+        closed = true;
+        stopSessionMonitoring();
+        ScheduledExecutorService monitor;
+        synchronized (this) {
+            monitor = executor;
+        }
+        if (monitor != null) {
+            monitor.shutdown();
         }
+        initPool.shutdownNow();
         sessions.values().forEach(LinuxMediaSession::close);
         sessions.clear();
+        index.clear();
+        reportSessionCount();
+        parked.drain().forEach(LinuxMediaSession::close);
         try {
             connection.close();
         } catch (Exception e) {
@@ -0,0 +1,336 @@
+package org.endlesssource.mediainterface.linux;
+
+import org.endlesssource.mediainterface.api.SessionHealth;
+import org.endlesssource.mediainterface.jfr.DbusCallEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+import org.freedesktop.dbus.connections.impl.DBusConnection;
+import org.freedesktop.dbus.exceptions.DBusExecutionException;
+import org.freedesktop.dbus.interfaces.CallbackHandler;
+import org.freedesktop.dbus.interfaces.DBusInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-player call deadlines and circuit breaker.
+ * <p>
+ * Remote calls made through {@link #wrap} run on a shared pool and fail with {@link PlayerUnresponsiveException}
+ * once the deadline passes. After {@link #FAILURE_THRESHOLD} consecutive timeouts the breaker opens and calls fail
+ * immediately; when the back-off elapses one probe call is let through. A reply of any kind, including a D-Bus
+ * error, counts as the player being responsive. {@link #callAsync} applies the same rules to non-blocking calls
+ * without occupying a thread while the player thinks. Every call is recorded as a {@link DbusCallEvent}.
+ * <p>
+ * dbus-java does not react to interrupts, so a call that missed its deadline keeps its pool thread until the reply
+ * or dbus-java's own timeout arrives. The pool is therefore bounded; the breaker keeps a hung player from holding
+ * more than a few threads, and when all are busy the call runs on the caller's thread without a deadline rather
+ * than starting another one.
+ */
+final class MprisCallGuard {
+    static final int FAILURE_THRESHOLD = 2;
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final Logger logger = LoggerFactory.getLogger(MprisCallGuard.class);
+    private static final int CALL_THREADS = 8;
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    private static final ExecutorService CALLS = createCallPool();
+
+    private final String busName;
+    private final Supplier<String> playerName;
+    private final long timeoutNanos;
+    private final Consumer<SessionHealth> healthListener;
+    private final LongAdder totalCalls = new LongAdder();
+    private final LongAdder unanswered = new LongAdder();
+    private final LongSupplier clock;
+
+    private SessionHealth health = SessionHealth.HEALTHY;
+    private int consecutiveTimeouts;
+    private long backoffNanos = INITIAL_BACKOFF.toNanos();
+    private long openUntilNanos;
+    private boolean probeInFlight;
+
+    /**
+     * @param playerName current application name of the player, for recorded events
+     */
+    MprisCallGuard(String busName, Supplier<String> playerName, Duration callTimeout,
+                   Consumer<SessionHealth> healthListener) {
+        this(busName, playerName, callTimeout, healthListener, System::nanoTime);
+    }
+
+    /**
+     * @param clock nanosecond clock for back-off deadlines
+     */
+    MprisCallGuard(String busName, Supplier<String> playerName, Duration callTimeout,
+                   Consumer<SessionHealth> healthListener, LongSupplier clock) {
+        this.busName = busName;
+        this.playerName = playerName;
+        this.timeoutNanos = callTimeout.toNanos();
+        this.healthListener = healthListener;
+        this.clock = clock;
+    }
+
+    /**
+     * @return a proxy that routes every remote method of {@code target} through this guard
+     */
+    <T extends DBusInterface> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new Guarded(target)));
+    }
+
+    /**
+     * Call a remote method without blocking; the reply is delivered on the connection's callback thread.
+     * @param proxy an object returned by {@link #wrap}
+     * @return completes with the method's return value, or exceptionally with {@link PlayerUnresponsiveException}
+     * when the deadline passes or the breaker is open
+     */
+    <T> CompletableFuture<T> callAsync(DBusConnection connection, DBusInterface proxy, String method, Object... args) {
+        boolean probe;
+        try {
+            probe = acquire();
+        } catch (PlayerUnresponsiveException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        totalCalls.increment();
+        DbusCallEvent event = new DbusCallEvent();
+        event.begin();
+        CompletableFuture<T> reply = new CompletableFuture<>();
+        try {
+            DBusInterface target = ((Guarded) Proxy.getInvocationHandler(proxy)).target;
+            connection.callWithCallback(target, method, new CallbackHandler<T>() {
+                @Override
+                public void handle(T result) {
+                    reply.complete(result);
+                }
+
+                @Override
+                public void handleError(DBusExecutionException e) {
+                    reply.completeExceptionally(e);
+                }
+            }, args);
+        } catch (RuntimeException e) {
+            reply.completeExceptionally(e);
+        }
+        return reply.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).handle((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                onTimeout(probe);
+                countFailure();
+                record(event, method, args, true, MediaEvent.TIMEOUT);
+                throw new PlayerUnresponsiveException(busName + " did not answer " + method + " within "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+            }
+            onReply(probe);
+            record(event, method, args, true, cause == null ? MediaEvent.OK : MediaEvent.FAILED);
+            if (cause != null) {
+                countFailure();
+                throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return false while the breaker is open and its back-off has not elapsed
+     */
+    synchronized boolean isCallPermitted() {
+        return health != SessionHealth.UNRESPONSIVE || clock.getAsLong() - openUntilNanos >= 0;
+    }
+
+    synchronized SessionHealth health() {
+        return health;
+    }
+
+    /**
+     * @return number of remote calls made through this guard
+     */
+    long totalCalls() {
+        return totalCalls.sum();
+    }
+
+    /**
+     * @return number of calls that got no answer, because they missed their deadline or were refused while the
+     * player is backed off from; lets callers tell whether a batch of reads was cut short
+     */
+    long totalUnanswered() {
+        return unanswered.sum();
+    }
+
+    private Object call(String method, Object[] args, Callable<Object> call) throws Throwable {
+        boolean probe = acquire();
+        totalCalls.increment();
+        DbusCallEvent event = new DbusCallEvent();
+        event.begin();
+        Future<Object> future = CALLS.submit(call);
+        try {
+            Object result = future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            onReply(probe);
+            record(event, method, args, false, MediaEvent.OK);
+            return result;
+        } catch (ExecutionException e) {
+            onReply(probe);
+            countFailure();
+            record(event, method, args, false, MediaEvent.FAILED);
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            onTimeout(probe);
+            countFailure();
+            record(event, method, args, false, MediaEvent.TIMEOUT);
+            throw new PlayerUnresponsiveException(busName + " did not answer within "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            unanswered.increment();
+            synchronized (this) {
+                if (probe) {
+                    probeInFlight = false;
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw new PlayerUnresponsiveException("Interrupted while waiting for " + busName);
+        }
+    }
+
+    private static ExecutorService createCallPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(CALL_THREADS, CALL_THREADS, 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mediainterface-linux-call-" + THREAD_IDS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private boolean acquire() {
+        synchronized (this) {
+            if (health == SessionHealth.HEALTHY) {
+                return false;
+            }
+            if (probeInFlight || clock.getAsLong() - openUntilNanos < 0) {
+                unanswered.increment();
+                throw new PlayerUnresponsiveException(busName + " is not answering; calls are suspended");
+            }
+            probeInFlight = true;
+            health = SessionHealth.RECOVERING;
+        }
+        notifyHealth(SessionHealth.RECOVERING);
+        return true;
+    }
+
+    private void onReply(boolean probe) {
+        synchronized (this) {
+            consecutiveTimeouts = 0;
+            if (probe) {
+                probeInFlight = false;
+            }
+            if (health == SessionHealth.HEALTHY) {
+                return;
+            }
+            backoffNanos = INITIAL_BACKOFF.toNanos();
+            health = SessionHealth.HEALTHY;
+        }
+        logger.debug("Player {} is answering again", busName);
+        notifyHealth(SessionHealth.HEALTHY);
+    }
+
+    private void onTimeout(boolean probe) {
+        long suspendedNanos;
+        synchronized (this) {
+            unanswered.increment();
+            if (probe) {
+                probeInFlight = false;
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF.toNanos());
+            } else if (++consecutiveTimeouts < FAILURE_THRESHOLD || health != SessionHealth.HEALTHY) {
+                return;
+            }
+            openUntilNanos = clock.getAsLong() + backoffNanos;
+            suspendedNanos = backoffNanos;
+            health = SessionHealth.UNRESPONSIVE;
+        }
+        logger.debug("Player {} is unresponsive; suspending calls for {} ms",
+                busName, TimeUnit.NANOSECONDS.toMillis(suspendedNanos));
+        notifyHealth(SessionHealth.UNRESPONSIVE);
+    }
+
+    /**
+     * Property reads go through {@code Properties.Get}, so name them after the property rather than the method.
+     */
+    private void record(DbusCallEvent event, String method, Object[] args, boolean asynchronous, String outcome) {
+        boolean propertyRead = method.equals("Get") || method.equals("GetAll");
+        String member = method.equals("Get") && args != null && args.length > 1 ? String.valueOf(args[1]) : method;
+        event.complete(busName, playerName.get(), member, propertyRead, asynchronous, outcome);
+    }
+
+    private void countFailure() {
+        MediaMetrics.get().increment(MediaMetrics.PLAYER_CALL_FAILURES, busName, 1);
+    }
+
+    private void notifyHealth(SessionHealth current) {
+        try {
+            healthListener.accept(current);
+        } catch (RuntimeException e) {
+            logger.debug("Health listener failed for {}: {}", busName, e.getMessage());
+        }
+    }
+
+    private static Object invokeDirect(Method method, Object target, Object[] args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private final class Guarded implements InvocationHandler {
+        private final DBusInterface target;
+
+        private Guarded(DBusInterface target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class || method.getDeclaringClass() == DBusInterface.class) {
+                return invokeDirect(method, target, args);
+            }
+            return call(method.getName(), args, () -> invokeDirect(method, target, args));
+        }
+    }
+
+    /**
+     * Thrown instead of waiting on a player that misses its call deadline or is being backed off from.
+     */
+    static final class PlayerUnresponsiveException extends RuntimeException {
+        PlayerUnresponsiveException(String message) {
+            super(message);
+        }
+    }
+}
@@ -15,7 +15,8 @@ interface MprisPlayer extends DBusInterface {
     void Stop();
     void Play();
     void Seek(long offset);
-    void SetPosition(org.freedesktop.dbus.ObjectPath trackId, long position);
+    // Boxed so the method can be resolved for non-blocking calls, which look it up by argument class.
+    void SetPosition(org.freedesktop.dbus.ObjectPath trackId, Long position);
     void OpenUri(String uri);
 
     String getPlaybackStatus();
@@ -0,0 +1,158 @@
+package org.endlesssource.mediainterface.linux;
+
+import org.endlesssource.mediainterface.api.SessionHealth;
+import org.freedesktop.dbus.interfaces.DBusInterface;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MprisCallGuardTest {
+    private static final Duration CALL_TIMEOUT = Duration.ofMillis(200);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<SessionHealth> changes = new CopyOnWriteArrayList<>();
+    private final FakePlayer target = new FakePlayer();
+    private final MprisCallGuard guard =
+            new MprisCallGuard(":1.42", () -> "Player", CALL_TIMEOUT, changes::add, now::get);
+    private final Player player = guard.wrap(Player.class, target);
+
+    @AfterEach
+    void releaseHungCalls() {
+        target.release.countDown();
+    }
+
+    @Test
+    void breakerOpens_afterConsecutiveTimeouts() {
+        target.hang = true;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertEquals(SessionHealth.HEALTHY, guard.health());
+        assertTrue(guard.isCallPermitted());
+
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertEquals(SessionHealth.UNRESPONSIVE, guard.health());
+        assertFalse(guard.isCallPermitted());
+        assertEquals(List.of(SessionHealth.UNRESPONSIVE), changes);
+
+        // Refused without reaching the player, and counted so a refresh can tell its reads were cut short
+        int callsBefore = target.calls;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertEquals(callsBefore, target.calls);
+        assertEquals(3, guard.totalUnanswered());
+    }
+
+    @Test
+    void failedCall_countsAsAnswer() {
+        target.hang = true;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        target.hang = false;
+        target.fail = true;
+        assertThrows(IllegalStateException.class, player::ping);
+        target.hang = true;
+        target.fail = false;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+
+        assertEquals(SessionHealth.HEALTHY, guard.health());
+        assertEquals(2, guard.totalUnanswered());
+    }
+
+    @Test
+    void backoff_doublesUpToMaximum() {
+        target.hang = true;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+
+        long backoff = MprisCallGuard.INITIAL_BACKOFF.toNanos();
+        for (int i = 0; i < 7; i++) {
+            now.addAndGet(backoff - 1);
+            assertFalse(guard.isCallPermitted(), "still backing off after " + i + " failed probes");
+            now.incrementAndGet();
+            assertTrue(guard.isCallPermitted());
+
+            // The probe times out as well, so the next back-off doubles
+            assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+            assertEquals(SessionHealth.UNRESPONSIVE, guard.health());
+            backoff = Math.min(backoff * 2, MprisCallGuard.MAX_BACKOFF.toNanos());
+        }
+        assertEquals(MprisCallGuard.MAX_BACKOFF.toNanos(), backoff);
+    }
+
+    @Test
+    void singleProbe_recoversPlayer() throws Exception {
+        target.hang = true;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        target.release.countDown();
+        target.release = new CountDownLatch(1);
+        target.started = new CountDownLatch(1);
+        now.addAndGet(MprisCallGuard.INITIAL_BACKOFF.toNanos());
+
+        CompletableFuture<String> probe = CompletableFuture.supplyAsync(player::ping);
+        assertTrue(target.started.await(1, TimeUnit.SECONDS));
+        assertEquals(SessionHealth.RECOVERING, guard.health());
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+
+        target.hang = false;
+        target.release.countDown();
+        assertEquals("pong", probe.get(1, TimeUnit.SECONDS));
+        assertEquals(SessionHealth.HEALTHY, guard.health());
+        assertEquals(List.of(SessionHealth.UNRESPONSIVE, SessionHealth.RECOVERING, SessionHealth.HEALTHY), changes);
+
+        // Recovery resets the threshold: one more timeout does not open the breaker again
+        target.release = new CountDownLatch(1);
+        target.hang = true;
+        assertThrows(MprisCallGuard.PlayerUnresponsiveException.class, player::ping);
+        assertEquals(SessionHealth.HEALTHY, guard.health());
+    }
+
+    interface Player extends DBusInterface {
+        String ping();
+    }
+
+    private static final class FakePlayer implements Player {
+        volatile boolean hang;
+        volatile boolean fail;
+        volatile int calls;
+        volatile CountDownLatch started = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String ping() {
+            calls++;
+            started.countDown();
+            if (hang) {
+                try {
+                    // Hang past the deadline, but not so long that hung calls fill the shared pool
+                    release.await(CALL_TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fail) {
+                throw new IllegalStateException("no such method");
+            }
+            return "pong";
+        }
+
+        @Override
+        public boolean isRemote() {
+            return true;
+        }
+
+        @Override
+        public String getObjectPath() {
+            return "/org/mpris/MediaPlayer2";
+        }
+    }
+}
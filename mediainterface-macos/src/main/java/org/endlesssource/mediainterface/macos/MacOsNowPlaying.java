@@ -1,5 +1,6 @@
 package org.endlesssource.mediainterface.macos;
 
+import org.endlesssource.mediainterface.api.Artwork;
 import org.endlesssource.mediainterface.api.NowPlaying;
 
 import java.time.Duration;
@@ -13,18 +14,18 @@ final class MacOsNowPlaying implements NowPlaying {
     private final Optional<String> title;
     private final Optional<String> artist;
     private final Optional<String> album;
-    private final Optional<String> artwork;
+    private final Optional<Artwork> artwork;
     private final Optional<Duration> duration;
     private final Optional<Duration> position;
     private final boolean liveStream;
     private final Map<String, String> additionalMetadata;
     private final Instant lastUpdated;
 
-    MacOsNowPlaying(String[] payload) {
+    MacOsNowPlaying(String[] payload, Artwork artwork) {
         this.title = optional(payload, 0);
         this.artist = optional(payload, 1);
         this.album = optional(payload, 2);
-        this.artwork = optional(payload, 3);
+        this.artwork = Optional.ofNullable(artwork);
         this.duration = parseDuration(payload, 4);
         this.position = parseDuration(payload, 5);
         this.liveStream = parseBoolean(payload, 6);
@@ -49,6 +50,11 @@ final class MacOsNowPlaying implements NowPlaying {
 
     @Override
     public Optional<String> getArtwork() {
+        return artwork.map(Artwork::toLocator);
+    }
+
+    @Override
+    public Optional<Artwork> getArtworkHandle() {
         return artwork;
     }
 
@@ -1,5 +1,9 @@
 package org.endlesssource.mediainterface.macos;
 
+import org.endlesssource.mediainterface.api.Artwork;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.ProcessLaunchEvent;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +21,8 @@ import java.util.zip.ZipInputStream;
 
 final class MacOsPerlAdapter {
     private static final Logger logger = LoggerFactory.getLogger(MacOsPerlAdapter.class);
+    // Id of the single session this adapter serves
+    private static final String METRICS_TAG = "system";
     private static final String SCRIPT_RESOURCE = "/native/macos/adapter/mediaremote_adapter.pl";
     private static final String FRAMEWORK_ZIP_RESOURCE_PREFIX = "/native/macos/adapter/";
     private static final String FRAMEWORK_ZIP_RESOURCE_SUFFIX = "/MediaRemoteAdapter.framework.zip";
@@ -25,6 +31,8 @@ final class MacOsPerlAdapter {
     private final Path scriptPath;
     private final Path frameworkPath;
     private final Path testClientPath;
+    // Last now-playing app the adapter reported, for recorded events
+    private volatile String lastApp;
 
     MacOsPerlAdapter() {
         String envScript = trimToNull(System.getenv("MEDIAREMOTE_ADAPTER_SCRIPT_PATH"));
@@ -76,6 +84,9 @@ final class MacOsPerlAdapter {
         if (out.isPresent()) {
             Snapshot parsed = parseOfficialJsonSnapshot(out.get());
             if (parsed != null) {
+                if (parsed.app() != null) {
+                    lastApp = parsed.app();
+                }
                 return parsed;
             }
         }
@@ -106,19 +117,23 @@ final class MacOsPerlAdapter {
         return runOfficial("send", "3");
     }
 
-    boolean seek(Duration position) {
+    /**
+     * @param knownDurationMs track length from the session's last refresh; when null it is queried first, which
+     *                        costs an extra adapter process
+     */
+    boolean seek(Duration position, Long knownDurationMs) {
         if (position == null || position.isNegative()) {
             return false;
         }
         long requestedMicros = Math.max(0L, position.toNanos() / 1000L);
-        Snapshot snapshot = get();
-        long micros = clampSeekMicros(requestedMicros, snapshot.durationMs());
+        Long durationMs = knownDurationMs != null ? knownDurationMs : get().durationMs();
+        long micros = clampSeekMicros(requestedMicros, durationMs);
         logger.debug(
-                "Seek request: requestedMicros={} clampedMicros={} durationMs={} title={}",
+                "Seek request: requestedMicros={} clampedMicros={} durationMs={} cached={}",
                 requestedMicros,
                 micros,
-                snapshot.durationMs(),
-                snapshot.title()
+                durationMs,
+                knownDurationMs != null
         );
         return runOfficial("seek", String.valueOf(micros));
     }
@@ -132,6 +147,21 @@ final class MacOsPerlAdapter {
     }
 
     private Optional<String> runOfficialRaw(String... commandArgs) {
+        ProcessLaunchEvent event = new ProcessLaunchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        Optional<String> out = runProcess(commandArgs);
+        MediaMetrics metrics = MediaMetrics.get();
+        metrics.record(MediaMetrics.PROCESS_SPAWN_NANOS, commandArgs[0], System.nanoTime() - startNanos);
+        if (out.isEmpty()) {
+            metrics.increment(MediaMetrics.PLAYER_CALL_FAILURES, METRICS_TAG, 1);
+        }
+        event.complete(METRICS_TAG, lastApp, String.join(" ", commandArgs),
+                out.isPresent() ? MediaEvent.OK : MediaEvent.FAILED);
+        return out;
+    }
+
+    private Optional<String> runProcess(String... commandArgs) {
         ProcessBuilder pb = new ProcessBuilder();
         pb.command().add("/usr/bin/perl");
         pb.command().add(scriptPath.toAbsolutePath().toString());
@@ -202,7 +232,7 @@ final class MacOsPerlAdapter {
                 durationMs
         );
         boolean active = title != null && !title.isBlank();
-        String artwork = toDataUri(artworkData, artworkMimeType);
+        Artwork artwork = toArtwork(artworkData, artworkMimeType);
         return new Snapshot(active, app, title, artist, album, artwork, durationMs, positionMs, playingRaw);
     }
 
@@ -297,12 +327,12 @@ final class MacOsPerlAdapter {
         return Math.max(0L, Math.min(requestedMicros, maxMicros));
     }
 
-    private static String toDataUri(String artworkData, String artworkMimeType) {
+    private static Artwork toArtwork(String artworkData, String artworkMimeType) {
         if (artworkData == null || artworkData.isBlank()) {
             return null;
         }
         String mime = (artworkMimeType == null || artworkMimeType.isBlank()) ? "image/jpeg" : artworkMimeType.trim();
-        return "data:" + mime + ";base64," + artworkData.trim();
+        return Artwork.ofBase64(artworkData, mime);
     }
 
     private static Path extractScript() {
@@ -396,7 +426,7 @@ final class MacOsPerlAdapter {
             String title,
             String artist,
             String album,
-            String artwork,
+            Artwork artwork,
             Long durationMs,
             Long positionMs,
             String playingRaw
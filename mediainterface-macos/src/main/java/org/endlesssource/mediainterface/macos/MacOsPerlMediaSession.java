@@ -1,29 +1,37 @@
 package org.endlesssource.mediainterface.macos;
 
+import org.endlesssource.mediainterface.api.Artwork;
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.MediaTransportControls;
 import org.endlesssource.mediainterface.api.NowPlaying;
 import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.jfr.ListenerDispatchEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.SessionRefreshEvent;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 final class MacOsPerlMediaSession implements MediaSession {
     private static final String SESSION_ID = "system";
 
     private final MacOsPerlAdapter adapter;
     private final MacOsPerlMediaTransportControls controls;
-    private final boolean eventDrivenEnabled;
-    private final boolean positionUpdatesEnabled;
-    private final long updateIntervalMs;
-    private final ScheduledExecutorService executor;
+    private volatile boolean eventDrivenEnabled;
+    private volatile boolean positionUpdatesEnabled;
+    private long updateIntervalMs;
+    private ScheduledFuture<?> refreshTask;
+    private final ScheduledThreadPoolExecutor executor;
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
     private volatile boolean closed;
     private volatile Optional<NowPlaying> cachedNowPlaying = Optional.empty();
@@ -31,18 +39,57 @@ final class MacOsPerlMediaSession implements MediaSession {
     private volatile String cachedApplicationName = "System";
     private PlaybackState lastState = PlaybackState.UNKNOWN;
     private Snapshot lastSnapshot;
+    private Artwork lastArtwork;
     private Boolean lastActive;
 
-    MacOsPerlMediaSession(MacOsPerlAdapter adapter, boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled) {
+    MacOsPerlMediaSession(MacOsPerlAdapter adapter, boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled,
+                          Duration seekCoalesceInterval) {
         this.adapter = adapter;
-        this.controls = new MacOsPerlMediaTransportControls(adapter);
+        this.controls = new MacOsPerlMediaTransportControls(adapter,
+                () -> cachedNowPlaying.flatMap(NowPlaying::getDuration), seekCoalesceInterval);
         this.eventDrivenEnabled = eventDrivenEnabled;
         this.positionUpdatesEnabled = positionUpdatesEnabled;
         this.updateIntervalMs = updateInterval.toMillis();
-        this.executor = Executors.newSingleThreadScheduledExecutor();
-        // Warm cache immediately so first reads/listener registration see current state.
-        checkForChanges();
-        executor.scheduleWithFixedDelay(this::checkForChanges, updateIntervalMs, updateIntervalMs, TimeUnit.MILLISECONDS);
+        this.executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    /**
+     * Start refreshing.
+     * @param warmUpSynchronously run the first adapter query on the calling thread so reads see current state
+     */
+    void start(boolean warmUpSynchronously) {
+        long initialDelayMs = 0L;
+        if (warmUpSynchronously) {
+            // Warm cache immediately so first reads/listener registration see current state.
+            checkForChanges();
+            initialDelayMs = updateIntervalMs;
+        }
+        synchronized (this) {
+            refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, initialDelayMs, updateIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Apply new refresh settings in place; the refresh task is only rescheduled when the interval changes.
+     */
+    synchronized void reconfigure(boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled,
+                                  Duration seekCoalesceInterval) {
+        this.eventDrivenEnabled = eventDrivenEnabled;
+        this.positionUpdatesEnabled = positionUpdatesEnabled;
+        controls.setSeekCoalesceInterval(seekCoalesceInterval);
+        long intervalMs = updateInterval.toMillis();
+        if (intervalMs == updateIntervalMs || closed) {
+            return;
+        }
+        updateIntervalMs = intervalMs;
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            try {
+                refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Closed concurrently
+            }
+        }
     }
 
     @Override
@@ -90,6 +137,23 @@ final class MacOsPerlMediaSession implements MediaSession {
         if (closed) {
             return;
         }
+        SessionRefreshEvent event = new SessionRefreshEvent();
+        event.begin();
+        String outcome = MediaEvent.FAILED;
+        long startNanos = System.nanoTime();
+        try {
+            refresh();
+            outcome = MediaEvent.OK;
+        } finally {
+            MediaMetrics metrics = MediaMetrics.get();
+            metrics.record(MediaMetrics.SESSION_REFRESH_NANOS, SESSION_ID, System.nanoTime() - startNanos);
+            // One adapter process per refresh
+            metrics.record(MediaMetrics.PLAYER_CALLS_PER_REFRESH, SESSION_ID, 1);
+            event.complete(SESSION_ID, cachedApplicationName, 1, outcome);
+        }
+    }
+
+    private void refresh() {
         MacOsPerlAdapter.Snapshot adapterSnapshot = adapter.get();
         PlaybackState state = toPlaybackState(adapterSnapshot.playingRaw());
         controls.updatePlaybackState(state);
@@ -106,38 +170,57 @@ final class MacOsPerlMediaSession implements MediaSession {
         if (eventDrivenEnabled) {
             if (state != lastState) {
                 lastState = state;
-                listeners.forEach(l -> l.onPlaybackStateChanged(this, state));
+                dispatch(l -> l.onPlaybackStateChanged(this, state));
             }
 
             boolean active = cachedActive;
             if (lastActive == null || active != lastActive) {
                 lastActive = active;
-                listeners.forEach(l -> l.onSessionActiveChanged(this, active));
+                dispatch(l -> l.onSessionActiveChanged(this, active));
             }
 
             if (!snap.equals(previousSnapshot)) {
-                listeners.forEach(l -> l.onNowPlayingChanged(this, now));
+                dispatch(l -> l.onNowPlayingChanged(this, now));
             }
         }
         lastSnapshot = snap;
     }
 
+    private void dispatch(Consumer<MediaSessionListener> event) {
+        ListenerDispatchEvent dispatchEvent = new ListenerDispatchEvent();
+        dispatchEvent.begin();
+        long startNanos = System.nanoTime();
+        listeners.forEach(event);
+        // Events are only raised by the refresh itself, so none wait behind this one
+        int queueDepth = 0;
+        MediaMetrics metrics = MediaMetrics.get();
+        metrics.record(MediaMetrics.LISTENER_DISPATCH_NANOS, SESSION_ID, System.nanoTime() - startNanos);
+        metrics.gauge(MediaMetrics.LISTENER_QUEUE_DEPTH, SESSION_ID, queueDepth);
+        dispatchEvent.complete(SESSION_ID, cachedApplicationName, listeners.size(), queueDepth, MediaEvent.OK);
+    }
+
     private Optional<NowPlaying> toNowPlaying(MacOsPerlAdapter.Snapshot snapshot) {
         if (!snapshot.active()) {
             return Optional.empty();
         }
         Long effectiveDurationMs = effectiveDurationMs(snapshot);
+        // Keep the previous handle while the payload is unchanged so its bytes are decoded only once.
+        Artwork artwork = snapshot.artwork();
+        if (artwork != null && artwork.equals(lastArtwork)) {
+            artwork = lastArtwork;
+        }
+        lastArtwork = artwork;
         String[] payload = new String[] {
                 snapshot.title(),
                 snapshot.artist(),
                 snapshot.album(),
-                snapshot.artwork(),
+                null,
                 effectiveDurationMs == null ? null : String.valueOf(effectiveDurationMs),
                 snapshot.positionMs() == null || !positionUpdatesEnabled ? null : String.valueOf(snapshot.positionMs()),
                 "false",
                 ""
         };
-        return Optional.of(new MacOsNowPlaying(payload));
+        return Optional.of(new MacOsNowPlaying(payload, artwork));
     }
 
     private Long effectiveDurationMs(MacOsPerlAdapter.Snapshot snapshot) {
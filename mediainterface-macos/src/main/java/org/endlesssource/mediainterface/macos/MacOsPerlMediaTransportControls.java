@@ -1,20 +1,34 @@
 package org.endlesssource.mediainterface.macos;
 
+import org.endlesssource.mediainterface.api.CommandResult;
 import org.endlesssource.mediainterface.api.MediaTransportControls;
 import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.TransportCapabilities;
+import org.endlesssource.mediainterface.spi.SeekCoalescer;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 final class MacOsPerlMediaTransportControls implements MediaTransportControls {
     private static final TransportCapabilities CAPS =
             new TransportCapabilities(true, true, true, true, true, true);
 
     private final MacOsPerlAdapter adapter;
+    private final Supplier<Optional<Duration>> cachedDuration;
+    private final SeekCoalescer seeks;
     private volatile PlaybackState cachedPlaybackState = PlaybackState.UNKNOWN;
 
-    MacOsPerlMediaTransportControls(MacOsPerlAdapter adapter) {
+    /**
+     * @param cachedDuration duration of the track in the session's last snapshot
+     * @param seekCoalesceInterval shortest time between two seeks sent by {@link #seek} and {@link #seekAsync}
+     */
+    MacOsPerlMediaTransportControls(MacOsPerlAdapter adapter, Supplier<Optional<Duration>> cachedDuration,
+                                    Duration seekCoalesceInterval) {
         this.adapter = adapter;
+        this.cachedDuration = cachedDuration;
+        this.seeks = SeekCoalescer.blocking(seekCoalesceInterval, this::sendSeek);
     }
 
     @Override
@@ -49,7 +63,23 @@ final class MacOsPerlMediaTransportControls implements MediaTransportControls {
 
     @Override
     public boolean seek(Duration position) {
-        return adapter.seek(position);
+        return position != null && seeks.seek(position);
+    }
+
+    /**
+     * Every seek starts an adapter process, so seeks requested while one runs collapse to the latest.
+     */
+    @Override
+    public CompletableFuture<CommandResult> seekAsync(Duration position) {
+        return seeks.submit(position);
+    }
+
+    void setSeekCoalesceInterval(Duration interval) {
+        seeks.setMinInterval(interval);
+    }
+
+    private boolean sendSeek(Duration position) {
+        return adapter.seek(position, cachedDuration.get().map(Duration::toMillis).orElse(null));
     }
 
     @Override
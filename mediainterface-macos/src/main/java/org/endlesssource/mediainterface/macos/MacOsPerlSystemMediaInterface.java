@@ -2,44 +2,72 @@ package org.endlesssource.mediainterface.macos;
 
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.SessionFilter;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 final class MacOsPerlSystemMediaInterface implements SystemMediaInterface {
-    private final SystemMediaOptions options;
+    private volatile SystemMediaOptions options;
     private final MacOsPerlMediaSession session;
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
 
     MacOsPerlSystemMediaInterface(SystemMediaOptions options) {
+        this(options, List.of(), false);
+    }
+
+    /**
+     * @param initialListeners listeners attached before the first refresh
+     * @param backgroundWarmUp return without waiting for the first adapter query
+     */
+    MacOsPerlSystemMediaInterface(SystemMediaOptions options,
+                                  List<MediaSessionListener> initialListeners,
+                                  boolean backgroundWarmUp) {
         this.options = options;
         MacOsPerlAdapter adapter = new MacOsPerlAdapter();
-        this.session = new MacOsPerlMediaSession(adapter, options.isEventDrivenEnabled(), options.getSessionUpdateInterval(), options.isPositionUpdatesEnabled());
+        this.session = new MacOsPerlMediaSession(adapter, options.isEventDrivenEnabled(), options.getSessionUpdateInterval(), options.isPositionUpdatesEnabled(),
+                options.getSeekCoalesceInterval());
+        initialListeners.forEach(this::addSessionListener);
+        session.start(!backgroundWarmUp);
+        // macOS exposes a single system-wide session
+        MediaMetrics.get().gauge(MediaMetrics.SESSIONS, "macos", 1);
     }
 
     @Override
     public Optional<MediaSession> getActiveSession() {
-        return session.isActive() ? Optional.of(session) : Optional.empty();
+        return isVisible() ? Optional.of(session) : Optional.empty();
     }
 
     @Override
     public List<MediaSession> getAllSessions() {
-        return session.isActive() ? List.of(session) : List.of();
+        return isVisible() ? List.of(session) : List.of();
     }
 
     @Override
     public Optional<MediaSession> getSessionByApp(String appName) {
         String app = session.getApplicationName().toLowerCase();
         String query = appName == null ? "" : appName.toLowerCase();
-        return app.contains(query) && session.isActive() ? Optional.of(session) : Optional.empty();
+        return app.contains(query) && isVisible() ? Optional.of(session) : Optional.empty();
     }
 
     @Override
     public boolean hasActiveSessions() {
-        return session.isActive();
+        return isVisible();
+    }
+
+    /**
+     * The system now-playing source follows whichever app is playing, so the session filter is applied per read.
+     */
+    private boolean isVisible() {
+        SessionFilter filter = options.getSessionFilter();
+        return session.isActive()
+                && filter.acceptsId(session.getSessionId())
+                && filter.acceptsIdentity(session.getApplicationName());
     }
 
     @Override
@@ -59,9 +87,22 @@ final class MacOsPerlSystemMediaInterface implements SystemMediaInterface {
         return options.isEventDrivenEnabled();
     }
 
+    @Override
+    public boolean supportsOptionUpdates() {
+        return true;
+    }
+
+    @Override
+    public void updateOptions(SystemMediaOptions options) {
+        this.options = Objects.requireNonNull(options, "options must not be null");
+        session.reconfigure(options.isEventDrivenEnabled(), options.getSessionUpdateInterval(), options.isPositionUpdatesEnabled(),
+                options.getSeekCoalesceInterval());
+    }
+
     @Override
     public void close() {
         session.close();
         listeners.clear();
+        MediaMetrics.get().gauge(MediaMetrics.SESSIONS, "macos", 0);
     }
 }
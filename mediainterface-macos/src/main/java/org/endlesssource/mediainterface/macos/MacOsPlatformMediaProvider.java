@@ -1,12 +1,15 @@
 package org.endlesssource.mediainterface.macos;
 
 import org.endlesssource.mediainterface.PlatformSupport;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public final class MacOsPlatformMediaProvider implements PlatformMediaProvider {
     private static final Logger logger = LoggerFactory.getLogger(MacOsPlatformMediaProvider.class);
 
@@ -38,4 +41,10 @@ public final class MacOsPlatformMediaProvider implements PlatformMediaProvider {
     public SystemMediaInterface create(SystemMediaOptions options) {
         return new MacOsPerlSystemMediaInterface(options);
     }
+
+    @Override
+    public SystemMediaInterface createProgressive(SystemMediaOptions options, List<MediaSessionListener> listeners) {
+        // The single system session fills in on its first refresh; listeners receive its regular change events.
+        return new MacOsPerlSystemMediaInterface(options, listeners, true);
+    }
 }
@@ -0,0 +1,25 @@
+plugins {
+    id("java-library")
+    id("application")
+}
+
+dependencies {
+    api(project(":mediainterface-core"))
+    runtimeOnly(project(":mediainterface-all"))
+    implementation("org.slf4j:slf4j-api:2.0.9")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_16
+    targetCompatibility = JavaVersion.VERSION_16
+}
+
+application {
+    mainClass.set("org.endlesssource.mediainterface.server.MediaServer")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -0,0 +1,160 @@
+package org.endlesssource.mediainterface.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans encoded event frames out to the open event streams.
+ * <p>
+ * A frame is encoded once and the same array is queued for every client. Each client drains its own queue on a
+ * pooled thread only while it has something to write, so idle clients hold no thread, and a client that falls more
+ * than {@code maxQueuedEvents} frames behind is disconnected instead of holding frames for it forever.
+ */
+final class EventHub implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EventHub.class);
+    private static final byte[] KEEPALIVE = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final int maxQueuedEvents;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers = Executors.newCachedThreadPool(daemon("mediainterface-server-writer"));
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(daemon("mediainterface-server-heartbeat"));
+
+    EventHub(int maxQueuedEvents, Duration heartbeatInterval) {
+        this.maxQueuedEvents = maxQueuedEvents;
+        long period = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(() -> publish(KEEPALIVE), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a frame for every client.
+     */
+    void publish(byte[] frame) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    /**
+     * Start streaming to an exchange whose response headers have been sent. The initial frames are written before
+     * any frame published after this call.
+     */
+    void subscribe(HttpExchange exchange, List<byte[]> initialFrames) {
+        Subscriber subscriber = new Subscriber(exchange);
+        for (byte[] frame : initialFrames) {
+            subscriber.offer(frame);
+        }
+        if (subscriber.closed.get()) {
+            return;
+        }
+        subscribers.add(subscriber);
+        logger.debug("Event stream opened for {} ({} open)", exchange.getRemoteAddress(), subscribers.size());
+    }
+
+    int size() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        writers.shutdownNow();
+    }
+
+    static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+        }
+
+        void offer(byte[] frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                logger.debug("Dropping event stream for {}: more than {} events behind",
+                        exchange.getRemoteAddress(), maxQueuedEvents);
+                close();
+                return;
+            }
+            queue.add(frame);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Write everything queued, flush once, and check again after releasing the drain so a frame offered in
+         * between is not left behind.
+         */
+        private void drain() {
+            do {
+                try {
+                    byte[] frame;
+                    while ((frame = queue.poll()) != null) {
+                        queued.decrementAndGet();
+                        out.write(frame);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    logger.debug("Event stream for {} closed: {}", exchange.getRemoteAddress(), e.getMessage());
+                    close();
+                    return;
+                } finally {
+                    draining.set(false);
+                }
+            } while (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                queue.clear();
+                exchange.close();
+            }
+        }
+    }
+}
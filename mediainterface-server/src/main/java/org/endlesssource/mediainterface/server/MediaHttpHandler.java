@@ -0,0 +1,324 @@
+package org.endlesssource.mediainterface.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.endlesssource.mediainterface.api.Artwork;
+import org.endlesssource.mediainterface.api.BulkCommand;
+import org.endlesssource.mediainterface.api.CommandResult;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.NowPlaying;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Routes requests to session snapshots, artwork, the event stream and transport commands.
+ * <p>
+ * Browsers may only use the server from an allowed origin: requests carrying any other {@code Origin} are refused,
+ * so a page cannot drive the player behind the user's back. When listening on loopback, requests naming another
+ * host are refused as well, which keeps DNS rebinding from turning a remote page into a local one.
+ */
+final class MediaHttpHandler implements HttpHandler {
+    private static final Logger logger = LoggerFactory.getLogger(MediaHttpHandler.class);
+    private static final Map<String, BulkCommand> COMMANDS = Map.of(
+            "play", BulkCommand.PLAY,
+            "pause", BulkCommand.PAUSE,
+            "toggle", BulkCommand.TOGGLE_PLAY_PAUSE,
+            "next", BulkCommand.NEXT,
+            "previous", BulkCommand.PREVIOUS,
+            "stop", BulkCommand.STOP);
+    private static final Set<String> LOOPBACK_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]");
+
+    private final SystemMediaInterface media;
+    private final SessionStates states;
+    private final MediaServerOptions options;
+
+    MediaHttpHandler(SystemMediaInterface media, SessionStates states, MediaServerOptions options) {
+        this.media = media;
+        this.states = states;
+        this.options = options;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (RuntimeException e) {
+            logger.warn("Request {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            sendError(exchange, 500, "Internal error");
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        if (!hostAllowed(exchange.getRequestHeaders().getFirst("Host"))) {
+            sendError(exchange, 403, "Host not allowed");
+            return;
+        }
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin != null) {
+            Headers headers = exchange.getResponseHeaders();
+            headers.add("Vary", "Origin");
+            if (!options.allowsOrigin(origin)) {
+                sendError(exchange, 403, "Origin not allowed");
+                return;
+            }
+            headers.set("Access-Control-Allow-Origin", origin);
+        }
+
+        String method = exchange.getRequestMethod();
+        if (method.equals("OPTIONS")) {
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Access-Control-Allow-Methods", "GET, POST");
+            headers.set("Access-Control-Max-Age", "600");
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+            return;
+        }
+
+        List<String> path = segments(exchange.getRequestURI().getRawPath());
+        if (path.size() == 1 && path.get(0).equals("sessions")) {
+            if (requireMethod(exchange, "GET")) {
+                listSessions(exchange);
+            }
+        } else if (path.size() == 1 && path.get(0).equals("active")) {
+            if (requireMethod(exchange, "GET")) {
+                Optional<MediaSession> active = media.getActiveSession();
+                if (active.isPresent()) {
+                    sendJson(exchange, 200, states.snapshot(active.get()));
+                } else {
+                    sendError(exchange, 404, "No active session");
+                }
+            }
+        } else if (path.size() == 1 && path.get(0).equals("events")) {
+            if (requireMethod(exchange, "GET")) {
+                openEvents(exchange);
+            }
+        } else if (path.size() >= 2 && path.size() <= 3 && path.get(0).equals("sessions")) {
+            Optional<MediaSession> session = findSession(path.get(1));
+            if (session.isEmpty()) {
+                sendError(exchange, 404, "No session " + path.get(1));
+            } else if (path.size() == 2) {
+                if (requireMethod(exchange, "GET")) {
+                    sendJson(exchange, 200, states.snapshot(session.get()));
+                }
+            } else if (path.get(2).equals("artwork")) {
+                if (requireMethod(exchange, "GET")) {
+                    sendArtwork(exchange, session.get());
+                }
+            } else if (path.get(2).equals("seek") || COMMANDS.containsKey(path.get(2))) {
+                if (requireMethod(exchange, "POST")) {
+                    sendCommand(exchange, session.get(), path.get(2));
+                }
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void listSessions(HttpExchange exchange) throws IOException {
+        List<String> snapshots = new ArrayList<>();
+        for (MediaSession session : media.getAllSessions()) {
+            snapshots.add(states.snapshot(session));
+        }
+        sendJson(exchange, 200, "[" + String.join(",", snapshots) + "]");
+    }
+
+    private void openEvents(HttpExchange exchange) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream; charset=utf-8");
+        headers.set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        states.subscribe(exchange);
+    }
+
+    /**
+     * The artwork's content hash is its ETag, so a client that already has the image gets a 304 instead. The handle
+     * keeps its bytes and hash while the artwork does not change, so neither is loaded again per request.
+     */
+    private void sendArtwork(HttpExchange exchange, MediaSession session) throws IOException {
+        Optional<Artwork> artwork = session.getNowPlaying().flatMap(NowPlaying::getArtworkHandle);
+        Optional<String> hash = artwork.flatMap(Artwork::getContentHash);
+        if (hash.isEmpty()) {
+            sendError(exchange, 404, "No artwork");
+            return;
+        }
+        String etag = "\"" + hash.get() + "\"";
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "no-cache");
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        // The hash was computed from the loaded bytes, so they are there to send
+        Artwork image = artwork.get();
+        headers.set("Content-Type", image.getMimeType().orElse("application/octet-stream"));
+        exchange.sendResponseHeaders(200, image.getBytes().map(ByteBuffer::remaining).orElseThrow());
+        try (InputStream in = image.openStream().orElseThrow(); OutputStream out = exchange.getResponseBody()) {
+            in.transferTo(out);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers once the player has, or once the command timeout has passed; the request thread is not held meanwhile.
+     */
+    private void sendCommand(HttpExchange exchange, MediaSession session, String name) throws IOException {
+        CompletableFuture<CommandResult> sent;
+        if (name.equals("seek")) {
+            Optional<Long> position = positionMillis(exchange.getRequestURI().getRawQuery());
+            if (position.isEmpty()) {
+                sendError(exchange, 400, "seek needs a position in milliseconds, as ?position=");
+                return;
+            }
+            sent = session.getControls().seekAsync(Duration.ofMillis(position.get()));
+        } else {
+            sent = COMMANDS.get(name).sendTo(session.getControls());
+        }
+        sent.copy()
+                .orTimeout(options.getCommandTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((sentResult, error) -> {
+                    CommandResult result = error == null ? sentResult : failure(error);
+                    int status = switch (result.status()) {
+                        case SUCCESS -> 200;
+                        case FAILED -> 502;
+                        case TIMED_OUT -> 504;
+                    };
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("status", result.status());
+                    body.put("message", result.message());
+                    try {
+                        sendJson(exchange, status, Json.write(body));
+                    } catch (IOException e) {
+                        logger.debug("Could not answer command {} for {}: {}", name, session.getSessionId(),
+                                e.getMessage());
+                    }
+                });
+    }
+
+    private CommandResult failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return CommandResult.timedOut("No answer within " + options.getCommandTimeout().toMillis() + " ms");
+        }
+        return CommandResult.failed(String.valueOf(cause.getMessage()));
+    }
+
+    private static Optional<Long> positionMillis(String rawQuery) {
+        if (rawQuery == null) {
+            return Optional.empty();
+        }
+        for (String parameter : rawQuery.split("&")) {
+            if (parameter.startsWith("position=")) {
+                try {
+                    long millis = Long.parseLong(parameter.substring("position=".length()));
+                    return millis >= 0 ? Optional.of(millis) : Optional.empty();
+                } catch (NumberFormatException e) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<MediaSession> findSession(String sessionId) {
+        for (MediaSession session : media.getAllSessions()) {
+            if (session.getSessionId().equals(sessionId)) {
+                return Optional.of(session);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean hostAllowed(String host) {
+        if (!options.getBindAddress().isLoopbackAddress()) {
+            return true;
+        }
+        if (host == null) {
+            return false;
+        }
+        String name = host.toLowerCase(Locale.ROOT);
+        int portSeparator = name.lastIndexOf(':');
+        if (portSeparator > name.lastIndexOf(']')) {
+            name = name.substring(0, portSeparator);
+        }
+        return LOOPBACK_HOSTS.contains(name);
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (exchange.getRequestMethod().equals(method)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        sendError(exchange, 405, "Use " + method);
+        return false;
+    }
+
+    /**
+     * Path segments, decoded one by one so a session id may contain an encoded slash.
+     */
+    static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        sendJson(exchange, status, Json.write(body));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.endlesssource.mediainterface.server;
+
+import com.sun.net.httpserver.HttpServer;
+import org.endlesssource.mediainterface.SystemMediaFactory;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the sessions of one {@link SystemMediaInterface} over HTTP, so several local processes can share it instead
+ * of each creating their own.
+ * <ul>
+ *     <li>{@code GET /sessions}, {@code GET /sessions/{id}} and {@code GET /active}: session state as JSON</li>
+ *     <li>{@code GET /events}: server-sent events {@code added}, {@code changed} and {@code removed}</li>
+ *     <li>{@code GET /sessions/{id}/artwork}: the artwork image, with an ETag</li>
+ *     <li>{@code POST /sessions/{id}/play}, {@code pause}, {@code toggle}, {@code next}, {@code previous},
+ *     {@code stop} and {@code seek?position=ms}: transport commands</li>
+ * </ul>
+ * Each change is encoded once and the same bytes are written to every event stream, so many clients cost little more
+ * than one. The server listens on loopback unless configured otherwise.
+ */
+public final class MediaServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MediaServer.class);
+    private static final int REQUEST_THREADS = 4;
+
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final EventHub hub;
+    private final SessionStates states;
+
+    private MediaServer(HttpServer server, ExecutorService requests, EventHub hub, SessionStates states) {
+        this.server = server;
+        this.requests = requests;
+        this.hub = hub;
+        this.states = states;
+    }
+
+    /**
+     * Start serving. The interface stays owned by the caller and is not closed with the server.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public static MediaServer start(SystemMediaInterface media, MediaServerOptions options) throws IOException {
+        Objects.requireNonNull(media, "media must not be null");
+        Objects.requireNonNull(options, "options must not be null");
+        HttpServer server = HttpServer.create(new InetSocketAddress(options.getBindAddress(), options.getPort()), 0);
+        EventHub hub = new EventHub(options.getMaxQueuedEvents(), options.getHeartbeatInterval());
+        SessionStates states = new SessionStates(media, hub, options.getCoalesceInterval());
+        ExecutorService requests = Executors.newFixedThreadPool(REQUEST_THREADS,
+                EventHub.daemon("mediainterface-server-http"));
+        server.createContext("/", new MediaHttpHandler(media, states, options));
+        server.setExecutor(requests);
+        states.start();
+        server.start();
+        logger.info("Media server listening on {}", server.getAddress());
+        return new MediaServer(server, requests, hub, states);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return number of open event streams
+     */
+    public int subscriberCount() {
+        return hub.size();
+    }
+
+    @Override
+    public void close() {
+        states.close();
+        hub.close();
+        server.stop(0);
+        requests.shutdownNow();
+    }
+
+    /**
+     * Serve the shared media interface until the process is stopped.
+     * <pre>
+     * MediaServer [--port N] [--bind ADDRESS] [--allow-origin ORIGIN]...
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        MediaServerOptions options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage(System.err);
+            System.exit(2);
+            return;
+        }
+        if (options == null) {
+            printUsage(System.out);
+            return;
+        }
+
+        SystemMediaInterface media = SystemMediaFactory.acquireSharedInterface();
+        MediaServer server = start(media, options);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            media.close();
+            stopped.countDown();
+        }, "mediainterface-server-shutdown"));
+        stopped.await();
+    }
+
+    /**
+     * @return null when help was asked for
+     */
+    private static MediaServerOptions parse(String[] args) {
+        MediaServerOptions options = MediaServerOptions.defaults();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help", "-h" -> {
+                    return null;
+                }
+                case "--port" -> {
+                    String value = value(args, ++i, arg);
+                    try {
+                        options = options.withPort(Integer.parseInt(value));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(arg + " needs a number, got " + value);
+                    }
+                }
+                case "--bind" -> {
+                    String value = value(args, ++i, arg);
+                    try {
+                        options = options.withBindAddress(InetAddress.getByName(value));
+                    } catch (UnknownHostException e) {
+                        throw new IllegalArgumentException(arg + " needs an address, got " + value);
+                    }
+                }
+                case "--allow-origin" -> options = options.withAllowedOrigins(value(args, ++i, arg));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[index];
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: MediaServer [options]");
+        out.println("  --port N              port to listen on (default " + MediaServerOptions.DEFAULT_PORT
+                + ", 0 picks a free one)");
+        out.println("  --bind ADDRESS        address to listen on (default loopback)");
+        out.println("  --allow-origin ORIGIN browser origin allowed to use the server, or * for any; may be repeated");
+    }
+}
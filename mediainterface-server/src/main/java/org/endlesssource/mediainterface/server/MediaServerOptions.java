@@ -0,0 +1,193 @@
+package org.endlesssource.mediainterface.server;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration for {@link MediaServer}. Instances are immutable; every {@code with*} method returns a copy.
+ */
+public final class MediaServerOptions {
+    public static final int DEFAULT_PORT = 7531;
+    public static final Duration DEFAULT_COALESCE_INTERVAL = Duration.ofMillis(50);
+    public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    public static final Duration DEFAULT_COMMAND_TIMEOUT = Duration.ofSeconds(5);
+    public static final int DEFAULT_MAX_QUEUED_EVENTS = 256;
+
+    private final InetAddress bindAddress;
+    private final int port;
+    private final List<String> allowedOrigins;
+    private final Duration coalesceInterval;
+    private final Duration heartbeatInterval;
+    private final Duration commandTimeout;
+    private final int maxQueuedEvents;
+
+    private MediaServerOptions(InetAddress bindAddress, int port, List<String> allowedOrigins,
+                               Duration coalesceInterval, Duration heartbeatInterval, Duration commandTimeout,
+                               int maxQueuedEvents) {
+        this.bindAddress = Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("port must be between 0 and 65535");
+        }
+        this.port = port;
+        this.allowedOrigins = List.copyOf(allowedOrigins);
+        this.coalesceInterval = Objects.requireNonNull(coalesceInterval, "coalesceInterval must not be null");
+        if (coalesceInterval.isNegative()) {
+            throw new IllegalArgumentException("coalesceInterval must not be negative");
+        }
+        this.heartbeatInterval = requirePositive("heartbeatInterval", heartbeatInterval);
+        this.commandTimeout = requirePositive("commandTimeout", commandTimeout);
+        if (maxQueuedEvents < 1) {
+            throw new IllegalArgumentException("maxQueuedEvents must be at least 1");
+        }
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    public static MediaServerOptions defaults() {
+        return new MediaServerOptions(InetAddress.getLoopbackAddress(), DEFAULT_PORT, List.of(),
+                DEFAULT_COALESCE_INTERVAL, DEFAULT_HEARTBEAT_INTERVAL, DEFAULT_COMMAND_TIMEOUT,
+                DEFAULT_MAX_QUEUED_EVENTS);
+    }
+
+    /**
+     * @return address the server listens on; loopback unless changed
+     */
+    public InetAddress getBindAddress() {
+        return bindAddress;
+    }
+
+    /**
+     * @return port the server listens on; 0 picks a free one
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return browser origins allowed to read responses and send commands; {@code *} allows any
+     */
+    public List<String> getAllowedOrigins() {
+        return allowedOrigins;
+    }
+
+    /**
+     * @return changes to one session within this interval are sent as one event
+     */
+    public Duration getCoalesceInterval() {
+        return coalesceInterval;
+    }
+
+    /**
+     * @return how often idle event streams get a comment line, so dead clients are noticed
+     */
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * @return how long a command request waits for the player before answering with a timeout
+     */
+    public Duration getCommandTimeout() {
+        return commandTimeout;
+    }
+
+    /**
+     * @return events a client may fall behind by before it is disconnected
+     */
+    public int getMaxQueuedEvents() {
+        return maxQueuedEvents;
+    }
+
+    public MediaServerOptions withBindAddress(InetAddress address) {
+        return new MediaServerOptions(address, port, allowedOrigins, coalesceInterval, heartbeatInterval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    public MediaServerOptions withPort(int port) {
+        return new MediaServerOptions(bindAddress, port, allowedOrigins, coalesceInterval, heartbeatInterval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    /**
+     * @param origins origins such as {@code http://localhost:3000}, or {@code *} for any
+     */
+    public MediaServerOptions withAllowedOrigins(String... origins) {
+        List<String> combined = new ArrayList<>(allowedOrigins);
+        for (String origin : origins) {
+            combined.add(Objects.requireNonNull(origin, "origin must not be null"));
+        }
+        return new MediaServerOptions(bindAddress, port, combined, coalesceInterval, heartbeatInterval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    public MediaServerOptions withCoalesceInterval(Duration interval) {
+        return new MediaServerOptions(bindAddress, port, allowedOrigins, interval, heartbeatInterval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    public MediaServerOptions withHeartbeatInterval(Duration interval) {
+        return new MediaServerOptions(bindAddress, port, allowedOrigins, coalesceInterval, interval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    public MediaServerOptions withCommandTimeout(Duration timeout) {
+        return new MediaServerOptions(bindAddress, port, allowedOrigins, coalesceInterval, heartbeatInterval,
+                timeout, maxQueuedEvents);
+    }
+
+    public MediaServerOptions withMaxQueuedEvents(int maxQueuedEvents) {
+        return new MediaServerOptions(bindAddress, port, allowedOrigins, coalesceInterval, heartbeatInterval,
+                commandTimeout, maxQueuedEvents);
+    }
+
+    /**
+     * @return true if a browser page from {@code origin} may use the server
+     */
+    boolean allowsOrigin(String origin) {
+        return allowedOrigins.contains("*") || allowedOrigins.contains(origin);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MediaServerOptions other)) {
+            return false;
+        }
+        return port == other.port
+                && maxQueuedEvents == other.maxQueuedEvents
+                && bindAddress.equals(other.bindAddress)
+                && allowedOrigins.equals(other.allowedOrigins)
+                && coalesceInterval.equals(other.coalesceInterval)
+                && heartbeatInterval.equals(other.heartbeatInterval)
+                && commandTimeout.equals(other.commandTimeout);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bindAddress, port, allowedOrigins, coalesceInterval, heartbeatInterval, commandTimeout,
+                maxQueuedEvents);
+    }
+
+    @Override
+    public String toString() {
+        return "MediaServerOptions{bindAddress=" + bindAddress
+                + ", port=" + port
+                + ", allowedOrigins=" + allowedOrigins
+                + ", coalesceInterval=" + coalesceInterval
+                + ", heartbeatInterval=" + heartbeatInterval
+                + ", commandTimeout=" + commandTimeout
+                + ", maxQueuedEvents=" + maxQueuedEvents + "}";
+    }
+
+    private static Duration requirePositive(String name, Duration value) {
+        Objects.requireNonNull(value, name + " must not be null");
+        if (value.isZero() || value.isNegative()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+}
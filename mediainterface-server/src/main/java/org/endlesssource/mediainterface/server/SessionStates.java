@@ -0,0 +1,205 @@
+package org.endlesssource.mediainterface.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.NowPlaying;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.api.SessionHealth;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the encoded state of every session and publishes an event frame when it changes.
+ * <p>
+ * Bookkeeping and publishing run on one thread, so frames leave in the order the changes were seen, and a new event
+ * stream starts from the same cut of sessions that later frames build on. Changes to a session within the coalescing
+ * interval are published once with the state by then, and a state equal to the last published one is not sent again.
+ */
+final class SessionStates implements MediaSessionListener, AutoCloseable {
+    private final SystemMediaInterface media;
+    private final EventHub hub;
+    private final long coalesceMillis;
+    private final ScheduledExecutorService events =
+            Executors.newSingleThreadScheduledExecutor(EventHub.daemon("mediainterface-server-events"));
+    private final Map<String, MediaSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Written on the event thread, read by request handlers
+    private final Map<String, String> snapshots = new ConcurrentHashMap<>();
+
+    SessionStates(SystemMediaInterface media, EventHub hub, Duration coalesceInterval) {
+        this.media = media;
+        this.hub = hub;
+        this.coalesceMillis = coalesceInterval.toMillis();
+    }
+
+    void start() {
+        media.addSessionListener(this);
+        for (MediaSession session : media.getAllSessions()) {
+            onSessionAdded(session);
+        }
+    }
+
+    /**
+     * @return the session's state as JSON, as last published when there is one
+     */
+    String snapshot(MediaSession session) {
+        String cached = snapshots.get(session.getSessionId());
+        return cached != null ? cached : encode(session);
+    }
+
+    /**
+     * Open an event stream that starts with an {@code added} event for every current session.
+     */
+    void subscribe(HttpExchange exchange) {
+        try {
+            events.execute(() -> {
+                List<byte[]> initial = new ArrayList<>(snapshots.size());
+                for (String json : snapshots.values()) {
+                    initial.add(frame("added", json));
+                }
+                hub.subscribe(exchange, initial);
+            });
+        } catch (RejectedExecutionException e) {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void onSessionAdded(MediaSession session) {
+        if (sessions.putIfAbsent(session.getSessionId(), session) == null) {
+            session.addListener(this);
+            submit(() -> publish("added", session));
+        }
+    }
+
+    @Override
+    public void onSessionRemoved(String sessionId) {
+        MediaSession session = sessions.remove(sessionId);
+        if (session != null) {
+            session.removeListener(this);
+            submit(() -> {
+                snapshots.remove(sessionId);
+                Map<String, Object> removed = new LinkedHashMap<>();
+                removed.put("session", sessionId);
+                hub.publish(frame("removed", Json.write(removed)));
+            });
+        }
+    }
+
+    @Override
+    public void onNowPlayingChanged(MediaSession session, Optional<NowPlaying> nowPlaying) {
+        changed(session);
+    }
+
+    @Override
+    public void onPlaybackStateChanged(MediaSession session, PlaybackState state) {
+        changed(session);
+    }
+
+    @Override
+    public void onSessionActiveChanged(MediaSession session, boolean active) {
+        changed(session);
+    }
+
+    @Override
+    public void onSessionHealthChanged(MediaSession session, SessionHealth health) {
+        changed(session);
+    }
+
+    /**
+     * The first change in an interval schedules one publish of whatever the session looks like by then.
+     */
+    private void changed(MediaSession session) {
+        String sessionId = session.getSessionId();
+        if (!pending.add(sessionId)) {
+            return;
+        }
+        try {
+            events.schedule(() -> {
+                pending.remove(sessionId);
+                if (sessions.get(sessionId) == session) {
+                    publish("changed", session);
+                }
+            }, coalesceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void publish(String event, MediaSession session) {
+        String json = encode(session);
+        String previous = snapshots.put(session.getSessionId(), json);
+        if (event.equals("changed") && json.equals(previous)) {
+            return;
+        }
+        hub.publish(frame(event, json));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            events.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    static String encode(MediaSession session) {
+        Optional<NowPlaying> nowPlaying = session.getNowPlaying();
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("session", session.getSessionId());
+        state.put("app", session.getApplicationName());
+        state.put("state", session.getControls().getPlaybackState());
+        state.put("active", session.isActive());
+        state.put("health", session.getHealth());
+        state.put("title", nowPlaying.flatMap(NowPlaying::getTitle).orElse(null));
+        state.put("artist", nowPlaying.flatMap(NowPlaying::getArtist).orElse(null));
+        state.put("album", nowPlaying.flatMap(NowPlaying::getAlbum).orElse(null));
+        state.put("positionMs", nowPlaying.flatMap(NowPlaying::getPosition).map(Duration::toMillis).orElse(null));
+        state.put("durationMs", nowPlaying.flatMap(NowPlaying::getDuration).map(Duration::toMillis).orElse(null));
+        state.put("artwork", nowPlaying.flatMap(NowPlaying::getArtwork)
+                .map(locator -> artworkPath(session.getSessionId(), locator))
+                .orElse(null));
+        return Json.write(state);
+    }
+
+    /**
+     * Artwork is served separately so events stay small; the version changes with the artwork, so a client can
+     * cache by URL without loading or hashing the image here.
+     */
+    private static String artworkPath(String sessionId, String locator) {
+        return "/sessions/" + pathSegment(sessionId) + "/artwork?v=" + Integer.toHexString(locator.hashCode());
+    }
+
+    static String pathSegment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static byte[] frame(String event, String json) {
+        return ("event: " + event + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        media.removeSessionListener(this);
+        for (MediaSession session : sessions.values()) {
+            session.removeListener(this);
+        }
+        sessions.clear();
+        events.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package org.endlesssource.mediainterface.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonTest {
+
+    @Test
+    void write_nestsMapsAndLists() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "a");
+        value.put("count", 2);
+        value.put("ok", true);
+        value.put("items", Arrays.asList(1.5, null));
+
+        assertEquals("{\"name\":\"a\",\"count\":2,\"ok\":true,\"items\":[1.5,null]}", Json.write(value));
+    }
+
+    @Test
+    void write_escapesStrings() {
+        assertEquals("\"q\\\"b\\\\n\\n\\u0001\"", Json.write("q\"b\\n\n\u0001"));
+    }
+
+    @Test
+    void write_writesNonFiniteNumbersAsNull() {
+        assertEquals("[null,null]", Json.write(List.of(Double.NaN, Double.POSITIVE_INFINITY)));
+    }
+}
@@ -0,0 +1,377 @@
+package org.endlesssource.mediainterface.server;
+
+import org.endlesssource.mediainterface.api.Artwork;
+import org.endlesssource.mediainterface.api.MediaSession;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
+import org.endlesssource.mediainterface.api.MediaTransportControls;
+import org.endlesssource.mediainterface.api.NowPlaying;
+import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.api.SystemMediaInterface;
+import org.endlesssource.mediainterface.api.TransportCapabilities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaServerTest {
+    private static final byte[] COVER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3};
+    private static final String ALLOWED_ORIGIN = "http://localhost:3000";
+
+    private final Media media = new Media();
+    private final Session session = new Session("org.example/player one", "Player");
+    private final HttpClient client = HttpClient.newHttpClient();
+    private MediaServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        media.addSession(session);
+        server = MediaServer.start(media, MediaServerOptions.defaults()
+                .withPort(0)
+                .withCoalesceInterval(Duration.ZERO)
+                .withAllowedOrigins(ALLOWED_ORIGIN));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void servesSessionSnapshots() throws Exception {
+        HttpResponse<String> list = get("/sessions");
+        assertEquals(200, list.statusCode());
+        assertTrue(list.body().startsWith("[{\"session\":\"org.example/player one\",\"app\":\"Player\""), list.body());
+
+        HttpResponse<String> single = get("/sessions/org.example%2Fplayer%20one");
+        assertEquals(200, single.statusCode());
+        assertTrue(single.body().contains("\"title\":\"Song\""), single.body());
+
+        assertEquals(404, get("/active").statusCode());
+        assertEquals(404, get("/sessions/missing").statusCode());
+    }
+
+    @Test
+    @Timeout(10)
+    void streamsSessionChanges() throws Exception {
+        HttpResponse<InputStream> response = client.send(request("/events").build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals("text/event-stream; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null));
+        try (BufferedReader events = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertTrue(nextEvent(events, "added").contains("\"state\":\"STOPPED\""));
+            assertEquals(1, server.subscriberCount());
+
+            session.fireState(PlaybackState.PLAYING);
+            assertTrue(nextEvent(events, "changed").contains("\"state\":\"PLAYING\""));
+
+            media.removeSession(session);
+            assertEquals("{\"session\":\"org.example/player one\"}", nextEvent(events, "removed"));
+        }
+    }
+
+    @Test
+    void servesArtworkWithEtag() throws Exception {
+        Matcher artwork = Pattern.compile("\"artwork\":\"([^\"]+)\"").matcher(get("/sessions").body());
+        assertTrue(artwork.find());
+
+        HttpResponse<byte[]> first = client.send(request(artwork.group(1)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, first.statusCode());
+        assertArrayEquals(COVER, first.body());
+        assertEquals("image/png", first.headers().firstValue("Content-Type").orElse(null));
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> again = client.send(request(artwork.group(1)).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(304, again.statusCode());
+        assertEquals(0, again.body().length);
+    }
+
+    @Test
+    void sendsTransportCommands() throws Exception {
+        HttpResponse<String> play = post("/sessions/org.example%2Fplayer%20one/play", null);
+        assertEquals(200, play.statusCode());
+        assertEquals("{\"status\":\"SUCCESS\",\"message\":\"\"}", play.body());
+
+        assertEquals(200, post("/sessions/org.example%2Fplayer%20one/seek?position=1500", null).statusCode());
+        assertEquals(400, post("/sessions/org.example%2Fplayer%20one/seek", null).statusCode());
+        assertEquals(405, get("/sessions/org.example%2Fplayer%20one/next").statusCode());
+        assertEquals(List.of("play", "seek 1500"), session.commands);
+    }
+
+    @Test
+    void refusesOtherOrigins() throws Exception {
+        HttpResponse<String> refused = post("/sessions/org.example%2Fplayer%20one/pause", "http://evil.example");
+        assertEquals(403, refused.statusCode());
+        assertNull(refused.headers().firstValue("Access-Control-Allow-Origin").orElse(null));
+
+        HttpResponse<String> allowed = post("/sessions/org.example%2Fplayer%20one/pause", ALLOWED_ORIGIN);
+        assertEquals(200, allowed.statusCode());
+        assertEquals(ALLOWED_ORIGIN, allowed.headers().firstValue("Access-Control-Allow-Origin").orElse(null));
+        assertEquals(List.of("pause"), session.commands);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(request(path).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String origin) throws Exception {
+        HttpRequest.Builder request = request(path).POST(HttpRequest.BodyPublishers.noBody());
+        if (origin != null) {
+            request.header("Origin", origin);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path));
+    }
+
+    /**
+     * @return data of the next event, which must have the given name
+     */
+    private static String nextEvent(BufferedReader events, String name) throws IOException {
+        String line;
+        do {
+            line = events.readLine();
+        } while (line != null && (line.isEmpty() || line.startsWith(":")));
+        assertEquals("event: " + name, line);
+        String data = events.readLine();
+        assertTrue(data.startsWith("data: "), data);
+        return data.substring("data: ".length());
+    }
+
+    private static final class Media implements SystemMediaInterface {
+        private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
+        private final List<MediaSession> sessions = new CopyOnWriteArrayList<>();
+
+        void addSession(MediaSession session) {
+            sessions.add(session);
+            listeners.forEach(listener -> listener.onSessionAdded(session));
+        }
+
+        void removeSession(MediaSession session) {
+            sessions.remove(session);
+            listeners.forEach(listener -> listener.onSessionRemoved(session.getSessionId()));
+        }
+
+        @Override
+        public Optional<MediaSession> getActiveSession() {
+            return sessions.stream().filter(MediaSession::isActive).findFirst();
+        }
+
+        @Override
+        public List<MediaSession> getAllSessions() {
+            return List.copyOf(sessions);
+        }
+
+        @Override
+        public Optional<MediaSession> getSessionByApp(String appName) {
+            return sessions.stream().filter(session -> session.getApplicationName().equals(appName)).findFirst();
+        }
+
+        @Override
+        public boolean hasActiveSessions() {
+            return getActiveSession().isPresent();
+        }
+
+        @Override
+        public void addSessionListener(MediaSessionListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeSessionListener(MediaSessionListener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public boolean isEventDrivenEnabled() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            listeners.clear();
+        }
+    }
+
+    private static final class Session implements MediaSession, MediaTransportControls, NowPlaying {
+        private final String sessionId;
+        private final String applicationName;
+        private final Artwork artwork = Artwork.ofBytes(COVER, "image/png");
+        private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
+        private final List<String> commands = new CopyOnWriteArrayList<>();
+        private volatile PlaybackState state = PlaybackState.STOPPED;
+
+        Session(String sessionId, String applicationName) {
+            this.sessionId = sessionId;
+            this.applicationName = applicationName;
+        }
+
+        void fireState(PlaybackState state) {
+            this.state = state;
+            listeners.forEach(listener -> listener.onPlaybackStateChanged(this, state));
+        }
+
+        @Override
+        public Optional<NowPlaying> getNowPlaying() {
+            return Optional.of(this);
+        }
+
+        @Override
+        public MediaTransportControls getControls() {
+            return this;
+        }
+
+        @Override
+        public String getApplicationName() {
+            return applicationName;
+        }
+
+        @Override
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        @Override
+        public boolean isActive() {
+            return state == PlaybackState.PLAYING;
+        }
+
+        @Override
+        public void addListener(MediaSessionListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(MediaSessionListener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public boolean play() {
+            commands.add("play");
+            return true;
+        }
+
+        @Override
+        public boolean pause() {
+            commands.add("pause");
+            return true;
+        }
+
+        @Override
+        public boolean togglePlayPause() {
+            commands.add("toggle");
+            return true;
+        }
+
+        @Override
+        public boolean next() {
+            commands.add("next");
+            return true;
+        }
+
+        @Override
+        public boolean previous() {
+            commands.add("previous");
+            return true;
+        }
+
+        @Override
+        public boolean stop() {
+            commands.add("stop");
+            return true;
+        }
+
+        @Override
+        public boolean seek(Duration position) {
+            commands.add("seek " + position.toMillis());
+            return true;
+        }
+
+        @Override
+        public PlaybackState getPlaybackState() {
+            return state;
+        }
+
+        @Override
+        public TransportCapabilities getCapabilities() {
+            return new TransportCapabilities(true, true, true, true, true, true);
+        }
+
+        @Override
+        public Optional<String> getTitle() {
+            return Optional.of("Song");
+        }
+
+        @Override
+        public Optional<String> getArtist() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> getAlbum() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> getArtwork() {
+            return Optional.of(artwork.toLocator());
+        }
+
+        @Override
+        public Optional<Artwork> getArtworkHandle() {
+            return Optional.of(artwork);
+        }
+
+        @Override
+        public Optional<Duration> getDuration() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> getPosition() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, String> getAdditionalMetadata() {
+            return Map.of();
+        }
+
+        @Override
+        public boolean isLiveStream() {
+            return false;
+        }
+
+        @Override
+        public Instant getLastUpdated() {
+            return Instant.EPOCH;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.endlesssource.mediainterface.windows;
+
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.NativeCallEvent;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Records calls into {@link WinRtBridge} as {@link NativeCallEvent}s and counts them per thread, so a refresh can
+ * report the calls it made itself while commands run on other threads.
+ */
+final class NativeCalls {
+    private static final ThreadLocal<long[]> CALLS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private NativeCalls() {
+    }
+
+    /**
+     * @return the command's result; false is recorded as a failure
+     */
+    static boolean command(String sessionId, String player, String function, BooleanSupplier call) {
+        CALLS.get()[0]++;
+        NativeCallEvent event = new NativeCallEvent();
+        event.begin();
+        boolean ok = false;
+        try {
+            ok = call.getAsBoolean();
+            return ok;
+        } finally {
+            event.complete(sessionId, player, function, ok ? MediaEvent.OK : MediaEvent.FAILED);
+        }
+    }
+
+    /**
+     * @return the query's result; null is recorded as a failure
+     */
+    static <T> T query(String sessionId, String player, String function, Supplier<T> call) {
+        CALLS.get()[0]++;
+        NativeCallEvent event = new NativeCallEvent();
+        event.begin();
+        T result = null;
+        try {
+            result = call.get();
+            return result;
+        } finally {
+            event.complete(sessionId, player, function, result != null ? MediaEvent.OK : MediaEvent.FAILED);
+        }
+    }
+
+    /**
+     * @return number of native calls made on the current thread so far
+     */
+    static long callsOnCurrentThread() {
+        return CALLS.get()[0];
+    }
+}
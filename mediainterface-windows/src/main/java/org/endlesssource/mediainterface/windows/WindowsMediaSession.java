@@ -1,10 +1,15 @@
 package org.endlesssource.mediainterface.windows;
 
+import org.endlesssource.mediainterface.api.Artwork;
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.MediaTransportControls;
 import org.endlesssource.mediainterface.api.NowPlaying;
 import org.endlesssource.mediainterface.api.PlaybackState;
+import org.endlesssource.mediainterface.jfr.ListenerDispatchEvent;
+import org.endlesssource.mediainterface.jfr.MediaEvent;
+import org.endlesssource.mediainterface.jfr.SessionRefreshEvent;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,25 +19,40 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 final class WindowsMediaSession implements MediaSession {
     private static final Logger logger = LoggerFactory.getLogger(WindowsMediaSession.class);
     private static final long POSITION_EVENT_TICK_MS = 200L;
+    // Refresh interval while an accepted command has not shown up in the player state yet.
+    private static final long FOLLOW_UP_REFRESH_MS = 50L;
+    /** State, capabilities, application name, active flag and now playing. */
 
     private final String sessionId;
-    private final boolean eventDrivenEnabled;
-    private final boolean positionUpdatesEnabled;
-    private final long updateIntervalMs;
+    private volatile boolean eventDrivenEnabled;
+    private volatile boolean positionUpdatesEnabled;
+    private long updateIntervalMs;
+    private ScheduledFuture<?> refreshTask;
+    private ScheduledFuture<?> projectionTask;
+    private boolean suspended;
+    private boolean followUpScheduled;
     private final WindowsMediaTransportControls controls;
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService executor;
+    private final ScheduledThreadPoolExecutor executor;
+    // Event tasks queued on the executor; periodic refreshes are not counted
+    private final AtomicInteger pendingEvents = new AtomicInteger();
     private volatile boolean closed;
     private volatile Optional<NowPlaying> cachedNowPlaying = Optional.empty();
     private volatile boolean cachedActive;
     private volatile String cachedAppName;
+    private volatile Consumer<WindowsMediaSession> indexObserver = session -> { };
+    private PlaybackState indexedState;
+    private String indexedName;
 
     private volatile PlaybackState lastPlaybackState = PlaybackState.UNKNOWN;
     private volatile Snapshot lastSnapshot;
@@ -40,30 +60,113 @@ final class WindowsMediaSession implements MediaSession {
     private volatile double lastPlaybackRate = 1.0d;
     private volatile long lastSnapshotMonotonicNanos = System.nanoTime();
 
-    WindowsMediaSession(String sessionId, boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled) {
+    WindowsMediaSession(String sessionId, boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled,
+                        Duration seekCoalesceInterval) {
         this.sessionId = Objects.requireNonNull(sessionId, "sessionId");
         this.eventDrivenEnabled = eventDrivenEnabled;
         this.positionUpdatesEnabled = positionUpdatesEnabled;
         this.updateIntervalMs = Objects.requireNonNull(updateInterval, "updateInterval").toMillis();
-        this.controls = new WindowsMediaTransportControls(sessionId);
-        this.executor = Executors.newSingleThreadScheduledExecutor();
+        this.controls = new WindowsMediaTransportControls(sessionId, this::getApplicationName, this::onCommandAccepted,
+                seekCoalesceInterval);
+        this.executor = new ScheduledThreadPoolExecutor(1);
         this.cachedAppName = sessionId;
         // Warm cache immediately so first reads/listener registration see current state.
         checkForChanges();
-        executor.scheduleWithFixedDelay(this::checkForChanges, updateIntervalMs, updateIntervalMs, TimeUnit.MILLISECONDS);
-        if (eventDrivenEnabled) {
-            executor.scheduleWithFixedDelay(this::emitProjectedPositionChanges,
-                    POSITION_EVENT_TICK_MS, POSITION_EVENT_TICK_MS, TimeUnit.MILLISECONDS);
+        synchronized (this) {
+            refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, updateIntervalMs, updateIntervalMs, TimeUnit.MILLISECONDS);
+            if (eventDrivenEnabled) {
+                scheduleProjection();
+            }
+        }
+    }
+
+    /**
+     * @param observer told whenever the playback state or application name changes, regardless of event settings
+     */
+    void setIndexObserver(Consumer<WindowsMediaSession> observer) {
+        this.indexObserver = observer;
+    }
+
+    /**
+     * Apply new refresh settings in place; tasks are only rescheduled when they need to change.
+     */
+    synchronized void reconfigure(boolean eventDrivenEnabled, Duration updateInterval, boolean positionUpdatesEnabled,
+                                  Duration seekCoalesceInterval) {
+        if (closed) {
+            return;
+        }
+        this.eventDrivenEnabled = eventDrivenEnabled;
+        this.positionUpdatesEnabled = positionUpdatesEnabled;
+        controls.setSeekCoalesceInterval(seekCoalesceInterval);
+        if (suspended) {
+            // Picked up by resume()
+            updateIntervalMs = updateInterval.toMillis();
+            return;
+        }
+        try {
+            if (eventDrivenEnabled && projectionTask == null) {
+                scheduleProjection();
+            } else if (!eventDrivenEnabled && projectionTask != null) {
+                projectionTask.cancel(false);
+                projectionTask = null;
+            }
+            long intervalMs = updateInterval.toMillis();
+            if (intervalMs != updateIntervalMs) {
+                updateIntervalMs = intervalMs;
+                refreshTask.cancel(false);
+                refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+        }
+    }
+
+    /**
+     * Stop refreshing while the session is gone; the cached state is kept for a possible {@link #resume()}.
+     */
+    synchronized void suspend() {
+        if (closed || suspended) {
+            return;
+        }
+        suspended = true;
+        refreshTask.cancel(false);
+        if (projectionTask != null) {
+            projectionTask.cancel(false);
+            projectionTask = null;
+        }
+    }
+
+    /**
+     * Refresh right away and keep refreshing after a {@link #suspend()}.
+     */
+    synchronized void resume() {
+        if (closed || !suspended) {
+            return;
+        }
+        suspended = false;
+        try {
+            refreshTask = executor.scheduleWithFixedDelay(this::checkForChanges, 0, updateIntervalMs, TimeUnit.MILLISECONDS);
+            if (eventDrivenEnabled) {
+                scheduleProjection();
+            }
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
         }
     }
 
+    private void scheduleProjection() {
+        projectionTask = executor.scheduleWithFixedDelay(this::emitProjectedPositionChanges,
+                POSITION_EVENT_TICK_MS, POSITION_EVENT_TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public Optional<NowPlaying> getNowPlaying() {
         return cachedNowPlaying;
     }
 
     private Optional<NowPlaying> queryNowPlayingFromNative() {
-        String[] payload = WinRtBridge.nativeGetNowPlaying(sessionId);
+        String[] payload = NativeCalls.query(sessionId, cachedAppName, "nativeGetNowPlaying",
+                () -> WinRtBridge.nativeGetNowPlaying(sessionId));
         if (payload == null || payload.length == 0) {
             return Optional.empty();
         }
@@ -74,6 +177,11 @@ final class WindowsMediaSession implements MediaSession {
         if (snapshot.isEmpty()) {
             return Optional.empty();
         }
+        // Keep the previous handle while the thumbnail is unchanged so its bytes are decoded only once.
+        Optional<Artwork> previousArtwork = cachedNowPlaying.flatMap(NowPlaying::getArtworkHandle);
+        if (snapshot.artwork().isPresent() && snapshot.artwork().equals(previousArtwork)) {
+            snapshot = snapshot.withArtwork(previousArtwork);
+        }
         return Optional.of(snapshot.toNowPlaying());
     }
 
@@ -117,16 +225,23 @@ final class WindowsMediaSession implements MediaSession {
         if (closed) {
             return;
         }
+        SessionRefreshEvent event = new SessionRefreshEvent();
+        event.begin();
+        String outcome = MediaEvent.OK;
+        long startNanos = System.nanoTime();
+        long callsBefore = NativeCalls.callsOnCurrentThread();
         try {
             PlaybackState currentState = controls.refreshPlaybackState();
             controls.refreshCapabilities();
 
-            String appName = WinRtBridge.nativeGetSessionAppName(sessionId);
+            String appName = NativeCalls.query(sessionId, cachedAppName, "nativeGetSessionAppName",
+                    () -> WinRtBridge.nativeGetSessionAppName(sessionId));
             if (appName != null && !appName.isBlank()) {
                 cachedAppName = appName;
             }
 
-            boolean active = WinRtBridge.nativeIsSessionActive(sessionId);
+            boolean active = NativeCalls.command(sessionId, cachedAppName, "nativeIsSessionActive",
+                    () -> WinRtBridge.nativeIsSessionActive(sessionId));
             cachedActive = active;
 
             Optional<NowPlaying> currentNowPlaying = queryNowPlayingFromNative();
@@ -135,28 +250,101 @@ final class WindowsMediaSession implements MediaSession {
             lastPlaybackRate = snapshot.playbackRate();
             lastSnapshotMonotonicNanos = System.nanoTime();
 
-            if (eventDrivenEnabled) {
-                if (currentState != lastPlaybackState) {
-                    lastPlaybackState = currentState;
-                    listeners.forEach(listener -> listener.onPlaybackStateChanged(this, currentState));
-                }
+            publishState(currentState);
 
+            if (eventDrivenEnabled) {
                 if (lastActive == null || active != lastActive) {
                     lastActive = active;
-                    listeners.forEach(listener -> listener.onSessionActiveChanged(this, active));
+                    dispatch(listener -> listener.onSessionActiveChanged(this, active));
                 }
 
                 boolean includePositionChanges = currentState == PlaybackState.PLAYING;
                 if (!snapshot.sameMedia(lastSnapshot, includePositionChanges)) {
                     lastSnapshot = snapshot;
-                    listeners.forEach(listener -> listener.onNowPlayingChanged(this, currentNowPlaying));
+                    dispatch(listener -> listener.onNowPlayingChanged(this, currentNowPlaying));
                 }
             }
         } catch (Exception e) {
             logger.debug("Error checking session changes for {}: {}", sessionId, e.getMessage());
+            MediaMetrics.get().increment(MediaMetrics.PLAYER_CALL_FAILURES, sessionId, 1);
+            outcome = MediaEvent.FAILED;
+        } finally {
+            long calls = NativeCalls.callsOnCurrentThread() - callsBefore;
+            MediaMetrics metrics = MediaMetrics.get();
+            metrics.record(MediaMetrics.SESSION_REFRESH_NANOS, sessionId, System.nanoTime() - startNanos);
+            metrics.record(MediaMetrics.PLAYER_CALLS_PER_REFRESH, sessionId, calls);
+            event.complete(sessionId, cachedAppName, calls, outcome);
+            if (controls.isAwaitingState()) {
+                scheduleFollowUp();
+            }
         }
     }
 
+    private void publishState(PlaybackState state) {
+        if (state != indexedState || !cachedAppName.equals(indexedName)) {
+            indexedState = state;
+            indexedName = cachedAppName;
+            indexObserver.accept(this);
+        }
+        if (eventDrivenEnabled && state != lastPlaybackState) {
+            lastPlaybackState = state;
+            dispatch(listener -> listener.onPlaybackStateChanged(this, state));
+        }
+    }
+
+    /**
+     * Publish the optimistic state of an accepted command and refresh now rather than on the next tick.
+     */
+    private void onCommandAccepted(PlaybackState optimistic) {
+        if (closed) {
+            return;
+        }
+        pendingEvents.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                pendingEvents.decrementAndGet();
+                if (optimistic != null) {
+                    publishState(optimistic);
+                }
+                checkForChanges();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+            pendingEvents.decrementAndGet();
+        }
+    }
+
+    /**
+     * Keep refreshing at a short interval until a command's state is observed or its expectation expires.
+     * Only called on the session thread.
+     */
+    private void scheduleFollowUp() {
+        if (followUpScheduled || closed) {
+            return;
+        }
+        followUpScheduled = true;
+        try {
+            executor.schedule(() -> {
+                followUpScheduled = false;
+                checkForChanges();
+            }, FOLLOW_UP_REFRESH_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+        }
+    }
+
+    private void dispatch(Consumer<MediaSessionListener> event) {
+        ListenerDispatchEvent dispatchEvent = new ListenerDispatchEvent();
+        dispatchEvent.begin();
+        long startNanos = System.nanoTime();
+        listeners.forEach(event);
+        int queueDepth = pendingEvents.get();
+        MediaMetrics metrics = MediaMetrics.get();
+        metrics.record(MediaMetrics.LISTENER_DISPATCH_NANOS, sessionId, System.nanoTime() - startNanos);
+        metrics.gauge(MediaMetrics.LISTENER_QUEUE_DEPTH, sessionId, queueDepth);
+        dispatchEvent.complete(sessionId, cachedAppName, listeners.size(), queueDepth, MediaEvent.OK);
+    }
+
     private void emitProjectedPositionChanges() {
         if (closed || !eventDrivenEnabled || !positionUpdatesEnabled || lastPlaybackState != PlaybackState.PLAYING) {
             return;
@@ -175,13 +363,13 @@ final class WindowsMediaSession implements MediaSession {
         lastSnapshot = projected;
         lastSnapshotMonotonicNanos = nowNanos;
         cachedNowPlaying = Optional.of(projected.toNowPlaying());
-        listeners.forEach(listener -> listener.onNowPlayingChanged(this, cachedNowPlaying));
+        dispatch(listener -> listener.onNowPlayingChanged(this, cachedNowPlaying));
     }
 
     private record Snapshot(Optional<String> title,
                             Optional<String> artist,
                             Optional<String> album,
-                            Optional<String> artwork,
+                            Optional<Artwork> artwork,
                             Optional<Long> durationMs,
                             Optional<Long> positionMs,
                             boolean live,
@@ -195,7 +383,7 @@ final class WindowsMediaSession implements MediaSession {
                     optional(payload, 0),
                     optional(payload, 1),
                     optional(payload, 2),
-                    optional(payload, 3),
+                    optional(payload, 3).map(base64 -> Artwork.ofBase64(base64, null)),
                     parseLong(payload, 4),
                     parseLong(payload, 5),
                     optional(payload, 6).map(Boolean::parseBoolean).orElse(false),
@@ -208,7 +396,7 @@ final class WindowsMediaSession implements MediaSession {
                     nowPlaying.getTitle(),
                     nowPlaying.getArtist(),
                     nowPlaying.getAlbum(),
-                    nowPlaying.getArtwork(),
+                    nowPlaying.getArtworkHandle(),
                     nowPlaying.getDuration().map(Duration::toMillis),
                     nowPlaying.getPosition().map(Duration::toMillis),
                     nowPlaying.isLiveStream(),
@@ -283,18 +471,22 @@ final class WindowsMediaSession implements MediaSession {
             return new Snapshot(title, artist, album, artwork, durationMs, Optional.of(next), live, metadataPairs);
         }
 
+        Snapshot withArtwork(Optional<Artwork> shared) {
+            return new Snapshot(title, artist, album, shared, durationMs, positionMs, live, metadataPairs);
+        }
+
         WindowsNowPlaying toNowPlaying() {
             String[] payload = new String[] {
                     title.orElse(null),
                     artist.orElse(null),
                     album.orElse(null),
-                    artwork.orElse(null),
+                    null,
                     durationMs.map(String::valueOf).orElse(null),
                     positionMs.map(String::valueOf).orElse(null),
                     String.valueOf(live),
                     metadataPairs.isBlank() ? null : metadataPairs
             };
-            return new WindowsNowPlaying(payload);
+            return new WindowsNowPlaying(payload, artwork);
         }
 
         private static Optional<String> optional(String[] payload, int index) {
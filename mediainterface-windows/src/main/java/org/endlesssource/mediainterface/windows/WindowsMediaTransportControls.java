@@ -1,12 +1,20 @@
 package org.endlesssource.mediainterface.windows;
 
+import org.endlesssource.mediainterface.api.CommandResult;
 import org.endlesssource.mediainterface.api.MediaTransportControls;
 import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.TransportCapabilities;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+import org.endlesssource.mediainterface.spi.PlaybackExpectations;
+import org.endlesssource.mediainterface.spi.SeekCoalescer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 final class WindowsMediaTransportControls implements MediaTransportControls {
     private static final Logger logger = LoggerFactory.getLogger(WindowsMediaTransportControls.class);
@@ -14,52 +22,72 @@ final class WindowsMediaTransportControls implements MediaTransportControls {
             new TransportCapabilities(true, true, true, true, true, true);
 
     private final String sessionId;
+    private final Supplier<String> playerName;
+    private final Consumer<PlaybackState> commandObserver;
+    private final PlaybackExpectations expectations = new PlaybackExpectations();
+    private final SeekCoalescer seeks;
     private volatile PlaybackState cachedPlaybackState = PlaybackState.UNKNOWN;
     private volatile TransportCapabilities cachedCapabilities = DEFAULT_CAPABILITIES;
 
-    WindowsMediaTransportControls(String sessionId) {
+    /**
+     * @param playerName current application name of the session, for recorded events
+     * @param commandObserver told after the player accepts a command, with the state it should lead to or null
+     * @param seekCoalesceInterval shortest time between two seeks sent by {@link #seek} and {@link #seekAsync}
+     */
+    WindowsMediaTransportControls(String sessionId, Supplier<String> playerName,
+                                  Consumer<PlaybackState> commandObserver, Duration seekCoalesceInterval) {
         this.sessionId = sessionId;
+        this.playerName = playerName;
+        this.commandObserver = commandObserver;
+        this.seeks = SeekCoalescer.blocking(seekCoalesceInterval, this::sendSeek);
     }
 
     @Override
     public boolean play() {
-        boolean ok = WinRtBridge.nativePlay(sessionId);
+        boolean ok = counted("nativePlay", () -> WinRtBridge.nativePlay(sessionId));
         if (!ok) logger.debug("Play command failed for session {}", sessionId);
+        else accepted(PlaybackState.PLAYING);
         return ok;
     }
 
     @Override
     public boolean pause() {
-        boolean ok = WinRtBridge.nativePause(sessionId);
+        boolean ok = counted("nativePause", () -> WinRtBridge.nativePause(sessionId));
         if (!ok) logger.debug("Pause command failed for session {}", sessionId);
+        else accepted(PlaybackState.PAUSED);
         return ok;
     }
 
     @Override
     public boolean togglePlayPause() {
-        boolean ok = WinRtBridge.nativeTogglePlayPause(sessionId);
+        PlaybackState expected = toggled();
+        boolean ok = counted("nativeTogglePlayPause", () -> WinRtBridge.nativeTogglePlayPause(sessionId));
         if (!ok) logger.debug("Toggle play/pause command failed for session {}", sessionId);
+        else accepted(expected);
         return ok;
     }
 
     @Override
     public boolean next() {
-        boolean ok = WinRtBridge.nativeNext(sessionId);
+        boolean ok = counted("nativeNext", () -> WinRtBridge.nativeNext(sessionId));
         if (!ok) logger.debug("Next command failed for session {}", sessionId);
+        else accepted(null);
         return ok;
     }
 
     @Override
     public boolean previous() {
-        boolean ok = WinRtBridge.nativePrevious(sessionId);
+        boolean ok = counted("nativePrevious", () -> WinRtBridge.nativePrevious(sessionId));
         if (!ok) logger.debug("Previous command failed for session {}", sessionId);
+        else accepted(null);
         return ok;
     }
 
     @Override
     public boolean stop() {
-        boolean ok = WinRtBridge.nativeStop(sessionId);
+        boolean ok = counted("nativeStop", () -> WinRtBridge.nativeStop(sessionId));
         if (!ok) logger.debug("Stop command failed for session {}", sessionId);
+        else accepted(PlaybackState.STOPPED);
         return ok;
     }
 
@@ -69,24 +97,112 @@ final class WindowsMediaTransportControls implements MediaTransportControls {
             logger.debug("Rejecting seek with invalid position for session {}", sessionId);
             return false;
         }
-        boolean ok = WinRtBridge.nativeSeek(sessionId, position.toMillis());
+        return seeks.seek(position);
+    }
+
+    /**
+     * Seeks requested while one is in flight collapse to the latest, so scrubbing does not queue up behind the
+     * player.
+     */
+    @Override
+    public CompletableFuture<CommandResult> seekAsync(Duration position) {
+        return seeks.submit(position);
+    }
+
+    void setSeekCoalesceInterval(Duration interval) {
+        seeks.setMinInterval(interval);
+    }
+
+    private boolean sendSeek(Duration position) {
+        if (position.isNegative()) {
+            logger.debug("Rejecting seek with invalid position for session {}", sessionId);
+            return false;
+        }
+        boolean ok = counted("nativeSeek", () -> WinRtBridge.nativeSeek(sessionId, position.toMillis()));
         if (!ok) logger.debug("Seek command failed for session {} at {}", sessionId, position);
+        else accepted(null);
         return ok;
     }
 
+    @Override
+    public CompletableFuture<CommandResult> playAsync(Duration confirmTimeout) {
+        return confirm(playAsync(), PlaybackState.PLAYING, confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> pauseAsync(Duration confirmTimeout) {
+        return confirm(pauseAsync(), PlaybackState.PAUSED, confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> togglePlayPauseAsync(Duration confirmTimeout) {
+        PlaybackState expected = toggled();
+        return confirm(togglePlayPauseAsync(), expected, confirmTimeout);
+    }
+
+    @Override
+    public CompletableFuture<CommandResult> stopAsync(Duration confirmTimeout) {
+        return confirm(stopAsync(), PlaybackState.STOPPED, confirmTimeout);
+    }
+
+    /**
+     * The optimistic state is already cached when the command returns, so wait on the expectation rather than on
+     * the reported state.
+     */
+    private CompletableFuture<CommandResult> confirm(CompletableFuture<CommandResult> sent, PlaybackState expected,
+                                                     Duration confirmTimeout) {
+        return sent.thenCompose(result -> result.isSuccess()
+                ? expectations.expect(expected, confirmTimeout)
+                : CompletableFuture.completedFuture(result));
+    }
+
+    /**
+     * @return the command's result, after counting a failed command
+     */
+    private boolean counted(String function, BooleanSupplier command) {
+        boolean ok = NativeCalls.command(sessionId, playerName.get(), function, command);
+        if (!ok) {
+            MediaMetrics.get().increment(MediaMetrics.PLAYER_CALL_FAILURES, sessionId, 1);
+        }
+        return ok;
+    }
+
+    /**
+     * Publish the optimistic state of an accepted command and have the session refresh right away.
+     */
+    private void accepted(PlaybackState expected) {
+        if (expected != null) {
+            expectations.expect(expected, PlaybackExpectations.DEFAULT_HOLD);
+            cachedPlaybackState = expected;
+        }
+        commandObserver.accept(expected);
+    }
+
+    private PlaybackState toggled() {
+        return cachedPlaybackState == PlaybackState.PLAYING ? PlaybackState.PAUSED : PlaybackState.PLAYING;
+    }
+
+    /**
+     * @return true while an accepted command's state has not been observed yet
+     */
+    boolean isAwaitingState() {
+        return expectations.pending().isPresent();
+    }
+
     @Override
     public PlaybackState getPlaybackState() {
         return cachedPlaybackState;
     }
 
     PlaybackState refreshPlaybackState() {
-        int code = WinRtBridge.nativeGetPlaybackState(sessionId);
-        cachedPlaybackState = switch (code) {
+        int code = NativeCalls.query(sessionId, playerName.get(), "nativeGetPlaybackState",
+                () -> WinRtBridge.nativeGetPlaybackState(sessionId));
+        cachedPlaybackState = expectations.reconcile(switch (code) {
             case 0 -> PlaybackState.PLAYING;
             case 1 -> PlaybackState.PAUSED;
             case 2 -> PlaybackState.STOPPED;
             default -> PlaybackState.UNKNOWN;
-        };
+        });
         return cachedPlaybackState;
     }
 
@@ -96,7 +212,8 @@ final class WindowsMediaTransportControls implements MediaTransportControls {
     }
 
     TransportCapabilities refreshCapabilities() {
-        boolean[] caps = WinRtBridge.nativeGetCapabilities(sessionId);
+        boolean[] caps = NativeCalls.query(sessionId, playerName.get(), "nativeGetCapabilities",
+                () -> WinRtBridge.nativeGetCapabilities(sessionId));
         if (caps == null || caps.length < 6) {
             logger.debug("Falling back to default capabilities for session {}", sessionId);
             cachedCapabilities = DEFAULT_CAPABILITIES;
@@ -1,12 +1,15 @@
 package org.endlesssource.mediainterface.windows;
 
 import org.endlesssource.mediainterface.PlatformSupport;
+import org.endlesssource.mediainterface.api.MediaSessionListener;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
 import org.endlesssource.mediainterface.spi.PlatformMediaProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 public final class WindowsPlatformMediaProvider implements PlatformMediaProvider {
     private static final Logger logger = LoggerFactory.getLogger(WindowsPlatformMediaProvider.class);
 
@@ -46,4 +49,9 @@ public final class WindowsPlatformMediaProvider implements PlatformMediaProvider
     public SystemMediaInterface create(SystemMediaOptions options) {
         return new WindowsSystemMediaInterface(options);
     }
+
+    @Override
+    public SystemMediaInterface createProgressive(SystemMediaOptions options, List<MediaSessionListener> listeners) {
+        return new WindowsSystemMediaInterface(options, listeners, true);
+    }
 }
@@ -2,9 +2,11 @@ package org.endlesssource.mediainterface.windows;
 
 import org.endlesssource.mediainterface.api.MediaSession;
 import org.endlesssource.mediainterface.api.MediaSessionListener;
-import org.endlesssource.mediainterface.api.PlaybackState;
 import org.endlesssource.mediainterface.api.SystemMediaInterface;
 import org.endlesssource.mediainterface.api.SystemMediaOptions;
+import org.endlesssource.mediainterface.spi.MediaMetrics;
+import org.endlesssource.mediainterface.spi.ParkedSessions;
+import org.endlesssource.mediainterface.spi.SessionIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,65 +14,80 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public final class WindowsSystemMediaInterface implements SystemMediaInterface {
     private static final Logger logger = LoggerFactory.getLogger(WindowsSystemMediaInterface.class);
 
-    private final SystemMediaOptions options;
+    private volatile SystemMediaOptions options;
     private final Map<String, WindowsMediaSession> sessions = new ConcurrentHashMap<>();
+    private final SessionIndex<WindowsMediaSession> index = new SessionIndex<>();
+    private final ParkedSessions<WindowsMediaSession> parked = new ParkedSessions<>();
+    private final Set<String> initializing = ConcurrentHashMap.newKeySet();
+    // Sessions the identity filter rejected; forgotten once they disappear.
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
     private final List<MediaSessionListener> listeners = new CopyOnWriteArrayList<>();
-    private final ScheduledExecutorService executor;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> pollTask;
     private volatile boolean closed;
 
     public WindowsSystemMediaInterface(SystemMediaOptions options) {
+        this(options, List.of(), false);
+    }
+
+    /**
+     * @param initialListeners listeners registered before any session is added
+     * @param backgroundDiscovery return once the native bridge is initialized and discover sessions on a background thread
+     */
+    WindowsSystemMediaInterface(SystemMediaOptions options,
+                                List<MediaSessionListener> initialListeners,
+                                boolean backgroundDiscovery) {
         this.options = options;
+        this.listeners.addAll(initialListeners);
         WinRtBridge.load();
         WinRtBridge.nativeInit(options.isEventDrivenEnabled());
-        this.executor = options.isEventDrivenEnabled() ? Executors.newScheduledThreadPool(2) : null;
         logger.debug("Initializing Windows media interface (eventDriven={})", options.isEventDrivenEnabled());
-        discoverSessions();
+        if (backgroundDiscovery) {
+            Thread discovery = new Thread(this::discoverSessions, "mediainterface-windows-discovery");
+            discovery.setDaemon(true);
+            discovery.start();
+        } else {
+            discoverSessions();
+        }
         if (options.isEventDrivenEnabled()) {
-            long intervalMs = options.getSessionPollInterval().toMillis();
-            executor.scheduleWithFixedDelay(this::updateSessions, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            schedulePoll();
         }
     }
 
     @Override
     public Optional<MediaSession> getActiveSession() {
-        List<WindowsMediaSession> snapshot = new ArrayList<>(sessions.values());
-        return snapshot.stream()
-                .filter(session -> session.getControls().getPlaybackState() == PlaybackState.PLAYING)
-                .findFirst()
-                .map(session -> (MediaSession) session)
-                .or(() -> snapshot.stream()
-                        .findFirst()
-                        .map(session -> (MediaSession) session));
+        return index.active().map(session -> (MediaSession) session);
     }
 
     @Override
     public List<MediaSession> getAllSessions() {
-        return new ArrayList<>(sessions.values());
+        return new ArrayList<>(index.all());
     }
 
     @Override
     public Optional<MediaSession> getSessionByApp(String appName) {
-        String query = appName == null ? "" : appName.toLowerCase();
-        return sessions.values().stream()
-                .filter(session -> session.getApplicationName().toLowerCase().contains(query))
-                .findFirst()
-                .map(session -> (MediaSession) session);
+        return index.byApp(appName).map(session -> (MediaSession) session);
     }
 
     @Override
     public boolean hasActiveSessions() {
-        return !sessions.isEmpty();
+        return !index.isEmpty();
     }
 
     @Override
@@ -88,32 +105,127 @@ public final class WindowsSystemMediaInterface implements SystemMediaInterface {
         return options.isEventDrivenEnabled();
     }
 
+    @Override
+    public boolean supportsOptionUpdates() {
+        return true;
+    }
+
+    /**
+     * The native bridge keeps the event mode it was initialized with; toggling event delivery here starts or stops
+     * session polling and per-session events.
+     */
+    @Override
+    public void updateOptions(SystemMediaOptions newOptions) {
+        Objects.requireNonNull(newOptions, "options must not be null");
+        SystemMediaOptions previous;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Media interface is closed");
+            }
+            previous = options;
+            options = newOptions;
+            boolean pollChanged = previous.isEventDrivenEnabled() != newOptions.isEventDrivenEnabled()
+                    || !previous.getSessionPollInterval().equals(newOptions.getSessionPollInterval());
+            if (pollChanged) {
+                if (pollTask != null) {
+                    pollTask.cancel(false);
+                    pollTask = null;
+                }
+                if (newOptions.isEventDrivenEnabled()) {
+                    schedulePoll();
+                }
+            }
+        }
+        sessions.values().forEach(session -> session.reconfigure(newOptions.isEventDrivenEnabled(),
+                newOptions.getSessionUpdateInterval(), newOptions.isPositionUpdatesEnabled(),
+                newOptions.getSeekCoalesceInterval()));
+        if (!previous.getSessionFilter().equals(newOptions.getSessionFilter())) {
+            rejected.clear();
+            for (WindowsMediaSession session : new ArrayList<>(sessions.values())) {
+                if (!accepts(newOptions, session)) {
+                    rejected.add(session.getSessionId());
+                    removeSession(session.getSessionId());
+                }
+            }
+            updateSessions();
+        }
+        logger.debug("Applied {} to {} Windows sessions", newOptions, sessions.size());
+    }
+
+    /**
+     * Scheduler for polling and for expiring parked sessions; created on first use, so the removal grace also
+     * applies when event-driven monitoring is off.
+     *
+     * @return null once closed
+     */
+    private synchronized ScheduledExecutorService scheduler() {
+        if (executor == null && !closed) {
+            executor = Executors.newScheduledThreadPool(2);
+        }
+        return executor;
+    }
+
+    private synchronized void schedulePoll() {
+        long intervalMs = options.getSessionPollInterval().toMillis();
+        pollTask = scheduler().scheduleWithFixedDelay(this::updateSessions, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public void close() {
-        if (closed) {
-            return;
+        ScheduledExecutorService monitor;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            monitor = executor;
         }
-        closed = true;
-        if (executor != null) {
-            executor.shutdownNow();
+        if (monitor != null) {
+            monitor.shutdownNow();
         }
         sessions.values().forEach(WindowsMediaSession::close);
         sessions.clear();
+        index.clear();
+        reportSessionCount();
+        parked.drain().forEach(WindowsMediaSession::close);
         listeners.clear();
         WinRtBridge.nativeShutdown();
         logger.debug("Windows media interface closed");
     }
 
     private void discoverSessions() {
+        long started = System.nanoTime();
         String[] ids = WinRtBridge.nativeGetSessionIds();
         if (ids == null) {
             logger.debug("No sessions returned during initial discovery");
             return;
         }
         logger.debug("Discovered {} Windows sessions during initialization", ids.length);
-        for (String id : ids) {
-            addSession(id);
+        // Each session blocks on its warm-up refresh, so initialize them side by side.
+        if (ids.length <= 1) {
+            for (String id : ids) {
+                addSession(id);
+            }
+        } else {
+            ExecutorService initPool = Executors.newFixedThreadPool(Math.min(options.getSessionInitParallelism(), ids.length));
+            try {
+                List<Future<?>> pending = new ArrayList<>();
+                for (String id : ids) {
+                    pending.add(initPool.submit(() -> addSession(id)));
+                }
+                for (Future<?> future : pending) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Session initialization failed: {}", e.getCause().getMessage());
+            } finally {
+                initPool.shutdown();
+            }
         }
+        logger.debug("Initialized {} Windows sessions in {} ms",
+                sessions.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
     }
 
     private void updateSessions() {
@@ -130,39 +242,116 @@ public final class WindowsSystemMediaInterface implements SystemMediaInterface {
                 continue;
             }
             current.add(id);
-            if (!sessions.containsKey(id)) {
+            if (!sessions.containsKey(id) && !rejected.contains(id)) {
                 addSession(id);
             }
         }
 
+        rejected.retainAll(current);
         Set<String> removed = new HashSet<>(sessions.keySet());
         removed.removeAll(current);
         for (String id : removed) {
-            removeSession(id);
+            parkSession(id);
         }
     }
 
     private void addSession(String id) {
-        if (id == null || id.isBlank() || sessions.containsKey(id)) {
+        if (id == null || id.isBlank() || closed || !options.getSessionFilter().acceptsId(id) || !initializing.add(id)) {
             return;
         }
-        WindowsMediaSession session = new WindowsMediaSession(
-                id,
-                options.isEventDrivenEnabled(),
-                options.getSessionUpdateInterval(),
-                options.isPositionUpdatesEnabled()
-        );
-        sessions.put(id, session);
-        logger.debug("Added Windows media session {}", id);
-        listeners.forEach(listener -> listener.onSessionAdded(session));
+        try {
+            if (sessions.containsKey(id)) {
+                return;
+            }
+            SystemMediaOptions current = options;
+            Optional<WindowsMediaSession> revived = parked.revive(id);
+            if (revived.isPresent()) {
+                reviveSession(id, revived.get(), current);
+                return;
+            }
+            WindowsMediaSession session = new WindowsMediaSession(
+                    id,
+                    current.isEventDrivenEnabled(),
+                    current.getSessionUpdateInterval(),
+                    current.isPositionUpdatesEnabled(),
+                    current.getSeekCoalesceInterval()
+            );
+            if (!accepts(current, session)) {
+                // The application name is only known after the warm-up refresh.
+                logger.debug("Ignoring Windows media session {} ({}): rejected by the session filter",
+                        id, session.getApplicationName());
+                rejected.add(id);
+                session.close();
+                return;
+            }
+            if (closed) {
+                session.close();
+                return;
+            }
+            sessions.put(id, session);
+            session.setIndexObserver(index::update);
+            index.add(session);
+            reportSessionCount();
+            logger.debug("Added Windows media session {}", id);
+            listeners.forEach(listener -> listener.onSessionAdded(session));
+        } finally {
+            initializing.remove(id);
+        }
+    }
+
+    private static boolean accepts(SystemMediaOptions options, WindowsMediaSession session) {
+        return options.getSessionFilter().acceptsId(session.getSessionId())
+                && options.getSessionFilter().acceptsIdentity(session.getApplicationName());
     }
 
     private void removeSession(String id) {
         WindowsMediaSession removed = sessions.remove(id);
         if (removed != null) {
-            removed.close();
-            logger.debug("Removed Windows media session {}", id);
-            listeners.forEach(listener -> listener.onSessionRemoved(id));
+            index.remove(id);
+            reportSessionCount();
+            expireSession(id, removed);
+        }
+    }
+
+    /**
+     * Take a vanished session out of lookups but hold off the removal event for the grace period.
+     */
+    private void parkSession(String id) {
+        WindowsMediaSession session = sessions.remove(id);
+        if (session == null) {
+            return;
+        }
+        index.remove(id);
+        reportSessionCount();
+        session.suspend();
+        if (parked.park(id, session, options.getSessionRemovalGrace(), scheduler(), gone -> expireSession(id, gone))) {
+            logger.debug("Parked Windows media session {} for {} ms", id, options.getSessionRemovalGrace().toMillis());
+        } else {
+            expireSession(id, session);
+        }
+    }
+
+    private void reportSessionCount() {
+        MediaMetrics.get().gauge(MediaMetrics.SESSIONS, "windows", sessions.size());
+    }
+
+    private void reviveSession(String id, WindowsMediaSession session, SystemMediaOptions current) {
+        if (!accepts(current, session)) {
+            expireSession(id, session);
+            return;
         }
+        session.reconfigure(current.isEventDrivenEnabled(), current.getSessionUpdateInterval(),
+                current.isPositionUpdatesEnabled(), current.getSeekCoalesceInterval());
+        sessions.put(id, session);
+        index.add(session);
+        reportSessionCount();
+        session.resume();
+        logger.debug("Revived Windows media session {} within its removal grace period", id);
+    }
+
+    private void expireSession(String id, WindowsMediaSession session) {
+        session.close();
+        logger.debug("Removed Windows media session {}", id);
+        listeners.forEach(listener -> listener.onSessionRemoved(id));
     }
 }
@@ -5,4 +5,5 @@ include("mediainterface-linux")
 include("mediainterface-windows")
 include("mediainterface-macos")
 include("mediainterface-all")
+include("mediainterface-server")
 include("examples")